@@ -0,0 +1,65 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+// The measured operations, built once per trial. They live in the default package next to
+// the application classes; the JMH classes in package bench reach them through bench.Bridge.
+final class Targets {
+
+    private Targets() {
+    }
+
+    // One full simulation per call, each on a fresh fork of the same input
+    static Callable<Object> simulation(String algo, int quantum, int jobs, String arrivals) {
+        JobTable input = Workloads.generate(jobs, arrivals);
+        input.arrivalOrder();
+        SchedulerEngine engine = SchedulerEngine.forName(algo, quantum);
+        return () -> engine.run(input.fork());
+    }
+
+    static void writeTrace(File file, int jobs) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            Workloads.generate(jobs, "poisson", (JobSink) (name, arrival, burst, level) -> {
+                try {
+                    out.write(name + ", " + arrival + ", " + burst + ", " + level + "\n");
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+    }
+
+    // The memory-mapped parser used for files
+    static Callable<Object> traceFile(File file) {
+        return () -> {
+            JobTable table = new JobTable();
+            TraceParser.parse(file, table);
+            return table;
+        };
+    }
+
+    // The line parser behind the text area
+    static Callable<Object> textArea(File file) throws IOException {
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        return () -> ProcessScheduler.parseText(text);
+    }
+
+    // Showing the per-process metrics after a run, without the window around it: the
+    // results table model sorted by waiting time, and the cells of one screen of rows
+    static Callable<Object> renderMetrics(int jobs) {
+        SimulationResult result = new FcfsEngine().run(Workloads.generate(jobs, "poisson"));
+        ResultsTableModel model = new ResultsTableModel();
+        return () -> {
+            model.setResult(result);
+            model.sortBy(6, false);
+            long sum = 0;
+            for (int row = 0; row < Math.min(40, model.getRowCount()); row++) {
+                for (int c = 1; c < model.getColumnCount(); c++) sum += (Integer) model.getValueAt(row, c);
+            }
+            return sum;
+        };
+    }
+}
@@ -0,0 +1,46 @@
+import java.util.SplittableRandom;
+
+// Seeded synthetic inputs for the benchmarks. Bursts are uniform in [1, 20] and
+// priorities in [1, 10]; the arrival pattern is chosen by name:
+//   uniform - arrivals spread evenly over the time the jobs need on one CPU
+//   poisson - exponential inter-arrival times at ~90% CPU load
+//   burst   - every job arrives at time 0 (the ready queue holds everything)
+final class Workloads {
+
+    static final long SEED = 42;
+    static final int MAX_BURST = 20;
+    static final int MAX_LEVEL = 10;
+
+    private Workloads() {
+    }
+
+    static JobTable generate(int jobs, String arrivals) {
+        return generate(jobs, arrivals, new JobTable(jobs));
+    }
+
+    static <S extends JobSink> S generate(int jobs, String arrivals, S sink) {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        double meanBurst = (MAX_BURST + 1) / 2.0;
+        long span = (long) (jobs * meanBurst);
+        double clock = 0;
+        for (int i = 0; i < jobs; i++) {
+            int arrival;
+            switch (arrivals) {
+                case "uniform":
+                    arrival = (int) Math.min(Integer.MAX_VALUE / 2, rnd.nextLong(Math.max(span, 1)));
+                    break;
+                case "poisson":
+                    clock += -Math.log(1 - rnd.nextDouble()) * meanBurst / 0.9;
+                    arrival = (int) Math.min(Integer.MAX_VALUE / 2, clock);
+                    break;
+                case "burst":
+                    arrival = 0;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown arrival distribution: " + arrivals);
+            }
+            sink.accept("P" + (i + 1), arrival, 1 + rnd.nextInt(MAX_BURST), 1 + rnd.nextInt(MAX_LEVEL));
+        }
+        return sink;
+    }
+}
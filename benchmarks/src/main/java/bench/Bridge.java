@@ -0,0 +1,33 @@
+package bench;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+// JMH does not accept benchmarks in the default package, and a named package cannot refer
+// to the default-package application classes at compile time. The static factories in
+// Targets are therefore looked up by name, once per trial, outside the measured code.
+final class Bridge {
+
+    private Bridge() {
+    }
+
+    static Object call(String method, Object... args) throws Exception {
+        for (Method m : Class.forName("Targets").getDeclaredMethods()) {
+            if (m.getName().equals(method) && m.getParameterCount() == args.length) {
+                m.setAccessible(true);
+                try {
+                    return m.invoke(null, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        throw new NoSuchMethodException("Targets." + method);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Callable<Object> target(String method, Object... args) throws Exception {
+        return (Callable<Object>) call(method, args);
+    }
+}
@@ -0,0 +1,31 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// Filling the per-process metrics table after an FCFS run
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class MetricsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int jobs;
+
+    private Callable<Object> op;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        op = Bridge.target("renderMetrics", jobs);
+    }
+
+    @Benchmark
+    public Object renderMetrics() throws Exception {
+        return op.call();
+    }
+}
@@ -0,0 +1,44 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// Input parsing: the memory-mapped trace parser used for files, and the line parser
+// behind the text area. Both read the same generated trace.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class ParseBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int jobs;
+
+    @Param({"traceFile", "textArea"})
+    public String parser;
+
+    private File file;
+    private Callable<Object> op;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = File.createTempFile("trace", ".txt");
+        Bridge.call("writeTrace", file, jobs);
+        op = Bridge.target(parser, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return op.call();
+    }
+}
@@ -0,0 +1,37 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// Round Robin over the same inputs as SchedulerBenchmark, for a range of quanta
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class RoundRobinBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int jobs;
+
+    @Param({"uniform", "poisson", "burst"})
+    public String arrivals;
+
+    @Param({"1", "3", "20"})
+    public int quantum;
+
+    private Callable<Object> op;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        op = Bridge.target("simulation", "rr", quantum, jobs, arrivals);
+    }
+
+    @Benchmark
+    public Object simulate() throws Exception {
+        return op.call();
+    }
+}
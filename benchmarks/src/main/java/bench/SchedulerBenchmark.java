@@ -0,0 +1,38 @@
+package bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// One full simulation per operation for every algorithm except Round Robin, over the same input.
+// Round Robin has its own benchmark because of the quantum parameter.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.awt.headless=true"})
+public class SchedulerBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int jobs;
+
+    @Param({"uniform", "poisson", "burst"})
+    public String arrivals;
+
+    @Param({"fcfs", "sjf", "srtf", "priority", "priority-p", "mlfq", "lottery", "stride"})
+    public String algo;
+
+    private Callable<Object> op;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        op = Bridge.target("simulation", algo, 1, jobs, arrivals);
+    }
+
+    @Benchmark
+    public Object simulate() throws Exception {
+        return op.call();
+    }
+}
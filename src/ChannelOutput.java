@@ -0,0 +1,155 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// Buffered output to a FileChannel for the exporters (see ResultExporter). Numbers are
+// formatted and names encoded straight into the buffer, so writing a row creates no String
+// or byte[]. Binary ints are little-endian.
+class ChannelOutput implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // "00" to "99", for formatting two digits at a time
+    private static final byte[] PAIRS = new byte[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            PAIRS[2 * i] = (byte) ('0' + i / 10);
+            PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final FileChannel channel;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buf);
+    private int pos;
+
+    ChannelOutput(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    void put(char ascii) throws IOException {
+        if (pos == BUFFER_SIZE) drain();
+        buf[pos++] = (byte) ascii;
+    }
+
+    void putAscii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) put(s.charAt(i));
+    }
+
+    // Decimal digits of v
+    void putDecimal(int v) throws IOException {
+        if (BUFFER_SIZE - pos < 11) drain();
+        if (v < 0) {
+            buf[pos++] = '-';
+            if (v == Integer.MIN_VALUE) {
+                // -2147483648 has no positive int
+                buf[pos++] = '2';
+                v = -147483648;
+            }
+            v = -v;
+        }
+        int digits = 1;
+        for (int p = 10; p <= v && digits < 10; p *= 10) digits++;
+        int i = pos + digits;
+        pos = i;
+        while (v >= 100) {
+            int q = v / 100;
+            int r = (v - q * 100) << 1;
+            buf[--i] = PAIRS[r + 1];
+            buf[--i] = PAIRS[r];
+            v = q;
+        }
+        if (v >= 10) {
+            buf[--i] = PAIRS[(v << 1) + 1];
+            buf[--i] = PAIRS[v << 1];
+        } else {
+            buf[--i] = (byte) ('0' + v);
+        }
+    }
+
+    void putInt(int v) throws IOException {
+        if (BUFFER_SIZE - pos < 4) drain();
+        buf[pos] = (byte) v;
+        buf[pos + 1] = (byte) (v >> 8);
+        buf[pos + 2] = (byte) (v >> 16);
+        buf[pos + 3] = (byte) (v >> 24);
+        pos += 4;
+    }
+
+    void putInts(int[] a, int n) throws IOException {
+        for (int i = 0; i < n; i++) putInt(a[i]);
+    }
+
+    // UTF-8 bytes of s; an unpaired surrogate is written as '?'
+    void putText(String s) throws IOException {
+        int n = s.length();
+        if (BUFFER_SIZE - pos < n) drain();
+        // ASCII names, the usual case, need no checks per char
+        int i = 0;
+        if (BUFFER_SIZE - pos >= n) {
+            for (char c; i < n && (c = s.charAt(i)) < 0x80; i++) buf[pos++] = (byte) c;
+        }
+        for (; i < n; i++) {
+            if (BUFFER_SIZE - pos < 4) drain();
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | c >> 6);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | cp >> 18);
+                buf[pos++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | c >> 12);
+                buf[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buf[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    // Number of bytes putText writes for s
+    static int textLength(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                n++;
+            } else if (c < 0x800) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                n += 4;
+                i++;
+            } else {
+                n += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        return n;
+    }
+
+    // Writes out the buffered bytes
+    void drain() throws IOException {
+        wrapped.clear().limit(pos);
+        while (wrapped.hasRemaining()) channel.write(wrapped);
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// State of a resumable engine at the top of its loop: the clock, how many jobs (in arrival
+// order) it has admitted, its ready jobs with their remaining times, and the result so far.
+// A checkpoint taken at time t stays valid for an edited input as long as no job arriving
+// at or before t changed, because until then the schedule only depends on those jobs.
+final class Checkpoint {
+
+    final int now;
+    final int admitted;
+
+    // Ready entries as the engine stores them (heap keys or job ids) and the remaining time
+    // of each; FCFS has none
+    final long[] ready;
+    final int[] left;
+
+    // Result so far; the timeline of the result that holds this checkpoint, up to the mark
+    final int completed, maxEnd;
+    final double sumWait, sumTurn, sumBurst;
+    final LatencyHistogram waitHist, turnHist, responseHist;
+    final Timeline.Mark mark;
+
+    Checkpoint(SimulationResult result, int now, int admitted, long[] ready, int[] left) {
+        this.now = now;
+        this.admitted = admitted;
+        this.ready = ready;
+        this.left = left;
+        completed = result.completed;
+        maxEnd = result.maxEnd;
+        sumWait = result.sumWait;
+        sumTurn = result.sumTurn;
+        sumBurst = result.sumBurst;
+        waitHist = copy(result.waitHist);
+        turnHist = copy(result.turnHist);
+        responseHist = copy(result.responseHist);
+        mark = result.timeline.mark();
+    }
+
+    private Checkpoint(Checkpoint c, long[] ready, int[] newId) {
+        now = c.now;
+        admitted = c.admitted;
+        this.ready = ready;
+        left = c.left;
+        completed = c.completed;
+        maxEnd = c.maxEnd;
+        sumWait = c.sumWait;
+        sumTurn = c.sumTurn;
+        sumBurst = c.sumBurst;
+        waitHist = c.waitHist;
+        turnHist = c.turnHist;
+        responseHist = c.responseHist;
+        mark = c.mark.remap(newId);
+    }
+
+    // The same checkpoint for a table whose job j is now newId[j]. The last job of the
+    // timeline mark is translated, and so are ready entries that are job ids (Round Robin);
+    // heap entries hold arrival positions, which do not move for the jobs a valid
+    // checkpoint has admitted.
+    Checkpoint remap(int[] newId, boolean readyHoldsIds) {
+        if (newId == null) return this;
+        long[] moved = ready;
+        if (readyHoldsIds) {
+            moved = new long[ready.length];
+            for (int i = 0; i < ready.length; i++) moved[i] = newId[(int) ready[i]];
+        }
+        return new Checkpoint(this, moved, newId);
+    }
+
+    // Puts the ready jobs back with their remaining times
+    void refill(LongHeap readyQ, JobTable jobs, int[] order) {
+        for (int i = 0; i < ready.length; i++) {
+            readyQ.add(ready[i]);
+            jobs.left[order[(int) ready[i]]] = left[i];
+        }
+    }
+
+    void refill(IntQueue readyQ, JobTable jobs) {
+        for (int i = 0; i < ready.length; i++) {
+            readyQ.add((int) ready[i]);
+            jobs.left[(int) ready[i]] = left[i];
+        }
+    }
+
+    private static LatencyHistogram copy(LatencyHistogram h) {
+        LatencyHistogram c = new LatencyHistogram();
+        c.add(h);
+        return c;
+    }
+}
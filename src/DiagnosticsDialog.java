@@ -0,0 +1,138 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+// Breakdown of the last run (see RunProfile): one row per phase from Run to the chart on
+// screen, so a slow run can be told apart as algorithm time, GC pressure or Swing work.
+// Refreshed while open, since every repaint of the chart measures the paint phase again.
+class DiagnosticsDialog extends JDialog {
+
+    private static final Font UI_FONT = new Font("Segoe UI", Font.PLAIN, 13);
+    private static final Font UI_BOLD = new Font("Segoe UI", Font.BOLD, 13);
+    private static final int REFRESH_MS = 500;
+
+    private final JLabel lblRun = new JLabel("No run yet");
+    private final JLabel lblVerdict = new JLabel(" ");
+    private final PhasesModel model = new PhasesModel();
+    private RunProfile profile;
+
+    DiagnosticsDialog(Frame owner) {
+        super(owner, "Run Diagnostics", false);
+        setSize(820, 380);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel pnlTop = new JPanel(new GridLayout(2, 1, 0, 4));
+        pnlTop.setBorder(new EmptyBorder(10, 10, 0, 10));
+        lblRun.setFont(UI_BOLD);
+        lblVerdict.setFont(UI_FONT);
+        pnlTop.add(lblRun);
+        pnlTop.add(lblVerdict);
+        add(pnlTop, BorderLayout.NORTH);
+
+        JTable table = new JTable(model);
+        table.setFont(UI_FONT);
+        table.setRowHeight(22);
+        table.getTableHeader().setFont(UI_BOLD);
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 10));
+        add(scroll, BorderLayout.CENTER);
+
+        JLabel lblHint = new JLabel("Allocations are per thread; GCs count all threads. Each phase is also a "
+                + "scheduler.Phase JFR event, dispatches are scheduler.Decision events (off by default).");
+        lblHint.setFont(UI_FONT.deriveFont(11f));
+        lblHint.setBorder(new EmptyBorder(0, 10, 10, 10));
+        add(lblHint, BorderLayout.SOUTH);
+
+        Timer refresh = new Timer(REFRESH_MS, e -> refresh());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                refresh.start();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refresh.stop();
+            }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    }
+
+    void setProfile(RunProfile profile) {
+        this.profile = profile;
+        refresh();
+    }
+
+    private void refresh() {
+        if (profile == null) return;
+        model.setProfile(profile);
+        lblRun.setText(String.format("%s, %,d jobs, %s, %.1f ms in total", profile.engine(), profile.jobs(),
+                String.format(profile.ran(RunProfile.Phase.SIMULATE) ? "%,d scheduling decisions"
+                        : "%,d scheduling decisions, loaded from the result cache", profile.decisions()),
+                profile.totalWallNanos() / 1e6));
+
+        RunProfile.Phase slowest = null;
+        long gcMillis = 0, gcs = 0;
+        for (RunProfile.Phase p : RunProfile.Phase.values()) {
+            if (!profile.ran(p)) continue;
+            if (slowest == null || profile.wallNanos(p) > profile.wallNanos(slowest)) slowest = p;
+            gcMillis += profile.gcMillis(p);
+            gcs += profile.gcCount(p);
+        }
+        if (slowest == null) return;
+        long total = Math.max(1, profile.totalWallNanos());
+        lblVerdict.setText(String.format("Most time: %s (%.0f%%). GC: %,d collections, %,d ms (%.0f%% of the run).",
+                slowest, 100.0 * profile.wallNanos(slowest) / total, gcs, gcMillis, 100.0 * gcMillis * 1e6 / total));
+    }
+
+    // One row per phase the run went through
+    static class PhasesModel extends AbstractTableModel {
+        private static final String[] COLS = {"Phase", "Wall (ms)", "CPU (ms)", "Share %", "Allocated", "GCs", "GC (ms)"};
+        private RunProfile profile;
+        private final List<RunProfile.Phase> rows = new ArrayList<>();
+
+        void setProfile(RunProfile profile) {
+            this.profile = profile;
+            rows.clear();
+            for (RunProfile.Phase p : RunProfile.Phase.values()) {
+                if (profile.ran(p)) rows.add(p);
+            }
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            RunProfile.Phase p = rows.get(row);
+            switch (column) {
+                case 0: return p.toString();
+                case 1: return String.format("%.2f", profile.wallNanos(p) / 1e6);
+                case 2: return String.format("%.2f", profile.cpuNanos(p) / 1e6);
+                case 3: return String.format("%.1f", 100.0 * profile.wallNanos(p) / Math.max(1, profile.totalWallNanos()));
+                case 4: return RunProfile.bytes(profile.allocatedBytes(p));
+                case 5: return profile.gcCount(p);
+                default: return profile.gcMillis(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+public class FcfsEngine implements ResumableEngine {
+
+    @Override
+    public String name() {
+        return "FCFS";
+    }
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        return resume(new SimulationResult(jobs, monitor), null);
+    }
+
+    @Override
+    public SimulationResult resume(SimulationResult result, Checkpoint from) {
+        JobTable jobs = result.jobs;
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, burst = jobs.burst;
+        int now = from == null ? 0 : from.now;
+
+        for (int k = from == null ? 0 : from.admitted; k < order.length; k++) {
+            if (result.checkpointDue(0)) result.checkpoint(now, k);
+            int j = order[k];
+            if (now < arrival[j]) {
+                timeline.add(Timeline.IDLE, now, arrival[j]);
+                now = arrival[j];
+            }
+            int start = now;
+            result.dispatch(j, start);
+            now += burst[j];
+            timeline.add(j, start, now);
+            result.complete(j, now);
+            result.step(now);
+        }
+        return result;
+    }
+}
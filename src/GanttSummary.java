@@ -0,0 +1,151 @@
+// Multi-resolution summary of a timeline for the Gantt view. Level 0 splits the time axis
+// into fixed-width buckets and every level above halves the bucket count. A bucket keeps
+// its dominant owner (the owner with the longest slice in it) and its busy time, so the
+// panel can paint a zoomed-out view by reading a few buckets per pixel column instead of
+// walking every slice. Repeat blocks with several slices per bucket are spread over the
+// buckets directly, without expanding them.
+class GanttSummary {
+
+    static final int MIN_BUCKETS = 1 << 12;
+    static final int MAX_BUCKETS = 1 << 20;
+
+    final int origin;
+    final int endTime;
+    final int width0; // time units per level-0 bucket
+
+    private final int[][] owner;
+    private final int[][] cover;
+    private final int[][] busy;
+
+    private GanttSummary(int origin, int endTime, int width0, int[][] owner, int[][] cover, int[][] busy) {
+        this.origin = origin;
+        this.endTime = endTime;
+        this.width0 = width0;
+        this.owner = owner;
+        this.cover = cover;
+        this.busy = busy;
+    }
+
+    static GanttSummary build(Timeline timeline) {
+        int origin = timeline.startTime();
+        long span = Math.max(1L, (long) timeline.endTime() - origin);
+
+        int target = Math.max(MIN_BUCKETS, Math.min(MAX_BUCKETS, Integer.highestOneBit((int) Math.max(1, Math.min(MAX_BUCKETS, timeline.sliceCount()))) << 1));
+        int width0 = (int) Math.max(1L, (span + target - 1) / target);
+        int buckets = (int) ((span + width0 - 1) / width0);
+
+        int levels = 32 - Integer.numberOfLeadingZeros(buckets - 1) + 1;
+        int[][] owner = new int[levels][];
+        int[][] cover = new int[levels][];
+        int[][] busy = new int[levels][];
+
+        int[] o = new int[buckets], c = new int[buckets], b = new int[buckets];
+        java.util.Arrays.fill(o, Timeline.IDLE);
+
+        for (Timeline.Cursor s = timeline.cursor(); s.next(); ) {
+            if (s.inRepeat() && s.end() - s.start() < width0) {
+                spreadRepeat(s, origin, width0, o, c, b);
+                s.skipRepeat();
+                continue;
+            }
+            int who = s.owner();
+            long t = s.start();
+            long end = s.end();
+            int bucket = (int) ((t - origin) / width0);
+            while (t < end) {
+                long bucketEnd = origin + (long) (bucket + 1) * width0;
+                int portion = (int) (Math.min(end, bucketEnd) - t);
+                if (who != Timeline.IDLE) {
+                    b[bucket] += portion;
+                    if (portion > c[bucket]) {
+                        c[bucket] = portion;
+                        o[bucket] = who;
+                    }
+                }
+                t += portion;
+                bucket++;
+            }
+        }
+        owner[0] = o;
+        cover[0] = c;
+        busy[0] = b;
+
+        for (int l = 1; l < levels; l++) {
+            int[] po = owner[l - 1], pc = cover[l - 1], pb = busy[l - 1];
+            int n = (po.length + 1) >>> 1;
+            o = new int[n];
+            c = new int[n];
+            b = new int[n];
+            for (int i = 0; i < n; i++) {
+                int left = 2 * i, right = left + 1;
+                o[i] = po[left];
+                c[i] = pc[left];
+                b[i] = pb[left];
+                if (right < po.length) {
+                    if (pc[right] > c[i]) {
+                        o[i] = po[right];
+                        c[i] = pc[right];
+                    }
+                    b[i] += pb[right];
+                }
+            }
+            owner[l] = o;
+            cover[l] = c;
+            busy[l] = b;
+        }
+        return new GanttSummary(origin, timeline.endTime(), width0, owner, cover, busy);
+    }
+
+    // The rest of a repeat block, bucket by bucket. The owner at the middle of the bucket's
+    // portion stands for it, with the share one owner gets of that portion as its cover.
+    private static void spreadRepeat(Timeline.Cursor s, int origin, int width0, int[] o, int[] c, int[] b) {
+        long t = s.start();
+        long end = s.repeatEnd();
+        int slice = s.end() - s.start();
+        int period = s.repeatPeriod();
+        int bucket = (int) ((t - origin) / width0);
+        while (t < end) {
+            long bucketEnd = origin + (long) (bucket + 1) * width0;
+            int portion = (int) (Math.min(end, bucketEnd) - t);
+            int share = portion >= period ? (int) ((long) portion * slice / period) : Math.min(portion, slice);
+            b[bucket] += portion;
+            if (share > c[bucket]) {
+                c[bucket] = share;
+                o[bucket] = s.ownerAt((int) (t + portion / 2));
+            }
+            t += portion;
+            bucket++;
+        }
+    }
+
+    int levels() {
+        return owner.length;
+    }
+
+    // Coarsest level whose buckets are still no wider than the given time span
+    int levelFor(double unitsPerPixel) {
+        int level = 0;
+        while (level + 1 < owner.length && ((long) width0 << (level + 1)) <= unitsPerPixel) level++;
+        return level;
+    }
+
+    long bucketWidth(int level) {
+        return (long) width0 << level;
+    }
+
+    int bucketCount(int level) {
+        return owner[level].length;
+    }
+
+    int owner(int level, int bucket) {
+        return owner[level][bucket];
+    }
+
+    int cover(int level, int bucket) {
+        return cover[level][bucket];
+    }
+
+    int busy(int level, int bucket) {
+        return busy[level][bucket];
+    }
+}
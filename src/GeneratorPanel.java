@@ -0,0 +1,77 @@
+import javax.swing.*;
+import java.awt.*;
+
+// Settings form for WorkloadGenerator, shown inside the "Generate Workload" dialog
+class GeneratorPanel extends JPanel {
+
+    private final JTextField txtJobs = new JTextField("100000", 10);
+    private final JTextField txtSeed = new JTextField("1", 10);
+    private final JComboBox<WorkloadGenerator.Arrivals> cmbArrivals = new JComboBox<>(WorkloadGenerator.Arrivals.values());
+    private final JTextField txtGap = new JTextField("6", 10);
+    private final JTextField txtGroup = new JTextField("20", 10);
+    private final JComboBox<WorkloadGenerator.Bursts> cmbBursts = new JComboBox<>(WorkloadGenerator.Bursts.values());
+    private final JTextField txtMeanBurst = new JTextField("5", 10);
+    private final JTextField txtShape = new JTextField("1.5", 10);
+    private final JTextField txtMaxBurst = new JTextField("100000", 10);
+    private final JTextField txtPriorities = new JTextField("uniform:5", 10);
+
+    GeneratorPanel() {
+        super(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(4, 4, 4, 4);
+        c.anchor = GridBagConstraints.WEST;
+
+        row(c, "Jobs:", txtJobs);
+        row(c, "Seed:", txtSeed);
+        row(c, "Arrivals:", cmbArrivals);
+        row(c, "Mean gap between arrivals:", txtGap);
+        row(c, "Mean group size (bursty):", txtGroup);
+        row(c, "Burst lengths:", cmbBursts);
+        row(c, "Mean burst:", txtMeanBurst);
+        row(c, "Pareto shape (> 1):", txtShape);
+        row(c, "Max burst:", txtMaxBurst);
+        row(c, "Priorities:", txtPriorities);
+
+        c.gridx = 0;
+        c.gridwidth = 2;
+        JLabel hint = new JLabel("Priorities: uniform:n, zipf:n or weights w1,w2,... for priority 1, 2, ...");
+        hint.setFont(hint.getFont().deriveFont(Font.ITALIC, 11f));
+        add(hint, c);
+
+        cmbArrivals.addActionListener(e -> updateEnabled());
+        cmbBursts.addActionListener(e -> updateEnabled());
+        updateEnabled();
+    }
+
+    private void row(GridBagConstraints c, String label, JComponent field) {
+        c.gridx = 0;
+        add(new JLabel(label), c);
+        c.gridx = 1;
+        add(field, c);
+        c.gridy++;
+    }
+
+    private void updateEnabled() {
+        txtGroup.setEnabled(cmbArrivals.getSelectedItem() == WorkloadGenerator.Arrivals.BURSTY);
+        txtShape.setEnabled(cmbBursts.getSelectedItem() == WorkloadGenerator.Bursts.PARETO);
+    }
+
+    // Throws IllegalArgumentException (NumberFormatException included) for invalid fields
+    WorkloadGenerator toGenerator() {
+        WorkloadGenerator gen = new WorkloadGenerator();
+        gen.jobs = Integer.parseInt(txtJobs.getText().trim());
+        gen.seed = Long.parseLong(txtSeed.getText().trim());
+        gen.arrivals = (WorkloadGenerator.Arrivals) cmbArrivals.getSelectedItem();
+        gen.meanInterarrival = Double.parseDouble(txtGap.getText().trim());
+        gen.meanGroupSize = Double.parseDouble(txtGroup.getText().trim());
+        gen.bursts = (WorkloadGenerator.Bursts) cmbBursts.getSelectedItem();
+        gen.meanBurst = Double.parseDouble(txtMeanBurst.getText().trim());
+        gen.paretoShape = Double.parseDouble(txtShape.getText().trim());
+        gen.maxBurst = Integer.parseInt(txtMaxBurst.getText().trim());
+        gen.priorityWeights = WorkloadGenerator.parsePriorities(txtPriorities.getText());
+        if (gen.jobs <= 0) throw new IllegalArgumentException("Jobs must be a positive integer");
+        // Checks the remaining settings without generating anything
+        gen.generate((JobSink) (name, arrival, burst, level) -> { }, 0);
+        return gen;
+    }
+}
@@ -0,0 +1,10 @@
+// Thrown when a line of process data cannot be parsed
+class InputFormatException extends IllegalArgumentException {
+
+    final int line;
+
+    InputFormatException(int line, String message) {
+        super("Error parsing line " + line + ": " + message);
+        this.line = line;
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Arrays;
+
+// Growable FIFO ring buffer of ints (job ids)
+class IntQueue {
+
+    private int[] ring;
+    private int head, size;
+
+    IntQueue(int capacity) {
+        ring = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(int v) {
+        if (size == ring.length) grow();
+        ring[(head + size++) & (ring.length - 1)] = v;
+    }
+
+    int poll() {
+        int v = ring[head];
+        head = (head + 1) & (ring.length - 1);
+        size--;
+        return v;
+    }
+
+    // Takes from the tail, e.g. when another core steals work
+    int pollLast() {
+        return ring[(head + --size) & (ring.length - 1)];
+    }
+
+    int peek() {
+        return ring[head];
+    }
+
+    // i-th element from the head
+    int get(int i) {
+        return ring[(head + i) & (ring.length - 1)];
+    }
+
+    void clear() {
+        head = size = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[ring.length * 2];
+        for (int i = 0; i < size; i++) grown[i] = get(i);
+        ring = grown;
+        head = 0;
+    }
+}
@@ -0,0 +1,156 @@
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Custom Flight Recorder events. The build targets Java 8, which has no jdk.jfr API, so the
+// event types are made through jdk.jfr.EventFactory by reflection, once a recording has been
+// started (e.g. -XX:StartFlightRecording or "jcmd <pid> JFR.start"). Without JFR every call
+// is a no-op.
+//   scheduler.Phase     one per RunProfile phase, with its duration
+//   scheduler.Decision  one per dispatch: job, time, remaining burst. Off by default since a
+//                       large run makes millions; enable it in the recording settings
+//                       (scheduler.Decision#enabled=true).
+final class JfrEvents {
+
+    // Only this class is loaded up front; the rest of jdk.jfr costs tens of milliseconds
+    private static final Method IS_INITIALIZED = method("jdk.jfr.FlightRecorder", "isInitialized");
+
+    // Set by create(), before the factories are published
+    private static Method NEW_EVENT, SET, BEGIN, END, COMMIT, IS_ENABLED;
+    private static volatile Object phaseFactory, decisionFactory, decisionType;
+    private static boolean broken;
+
+    private JfrEvents() {
+    }
+
+    // A started phase event, or null when no recording runs; pass it to endPhase
+    static Object beginPhase() {
+        if (!ready()) return null;
+        try {
+            Object e = NEW_EVENT.invoke(phaseFactory);
+            BEGIN.invoke(e);
+            return e;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static void endPhase(Object event, String phase, String engine, int jobs, long allocated) {
+        if (event == null) return;
+        try {
+            END.invoke(event);
+            SET.invoke(event, 0, phase);
+            SET.invoke(event, 1, engine);
+            SET.invoke(event, 2, jobs);
+            SET.invoke(event, 3, allocated);
+            COMMIT.invoke(event);
+        } catch (ReflectiveOperationException e) {
+            // Dropped
+        }
+    }
+
+    // Whether scheduler.Decision is recorded right now; engines check it every few thousand
+    // steps (see SimulationResult)
+    static boolean decisionsEnabled() {
+        if (!ready()) return false;
+        try {
+            return (Boolean) IS_ENABLED.invoke(decisionType);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    static void decision(String job, int time, int remaining) {
+        Object factory = decisionFactory;
+        if (factory == null) return;
+        try {
+            Object e = NEW_EVENT.invoke(factory);
+            SET.invoke(e, 0, job);
+            SET.invoke(e, 1, time);
+            SET.invoke(e, 2, remaining);
+            COMMIT.invoke(e);
+        } catch (ReflectiveOperationException e) {
+            // Dropped
+        }
+    }
+
+    // True once a recording was started and the event types are registered
+    private static boolean ready() {
+        if (phaseFactory != null) return true;
+        if (IS_INITIALIZED == null) return false;
+        try {
+            if (!(Boolean) IS_INITIALIZED.invoke(null)) return false;
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+        return create();
+    }
+
+    private static synchronized boolean create() {
+        if (phaseFactory != null) return true;
+        if (broken) return false;
+        try {
+            Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+            Method make = factory.getMethod("create", List.class, List.class);
+            NEW_EVENT = factory.getMethod("newEvent");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+            SET = event.getMethod("set", int.class, Object.class);
+            BEGIN = event.getMethod("begin");
+            END = event.getMethod("end");
+            COMMIT = event.getMethod("commit");
+            IS_ENABLED = Class.forName("jdk.jfr.EventType").getMethod("isEnabled");
+
+            decisionFactory = make.invoke(null, annotations("scheduler.Decision", "Scheduling Decision",
+                    "A job gets the CPU", false), Arrays.asList(
+                    field(String.class, "job", "Job"),
+                    field(int.class, "time", "Time"),
+                    field(int.class, "remaining", "Remaining Burst")));
+            decisionType = factory.getMethod("getEventType").invoke(decisionFactory);
+            phaseFactory = make.invoke(null, annotations("scheduler.Phase", "Simulator Phase",
+                    "Time of one step between Run and the results on screen", true), Arrays.asList(
+                    field(String.class, "phase", "Phase"),
+                    field(String.class, "engine", "Algorithm"),
+                    field(int.class, "jobs", "Jobs"),
+                    field(long.class, "allocated", "Allocated Bytes")));
+            return true;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            broken = true;
+            decisionFactory = null;
+            return false;
+        }
+    }
+
+    // Stack traces would only show the reflective calls
+    private static Method method(String type, String name) {
+        try {
+            return Class.forName(type).getMethod(name);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static List<Object> annotations(String name, String label, String description, boolean enabled)
+            throws ReflectiveOperationException {
+        List<Object> list = new ArrayList<>();
+        list.add(annotation("jdk.jfr.Name", name));
+        list.add(annotation("jdk.jfr.Label", label));
+        list.add(annotation("jdk.jfr.Description", description));
+        list.add(annotation("jdk.jfr.Category", new String[]{"Process Scheduler"}));
+        list.add(annotation("jdk.jfr.Enabled", enabled));
+        list.add(annotation("jdk.jfr.StackTrace", false));
+        return list;
+    }
+
+    private static Object annotation(String type, Object value) throws ReflectiveOperationException {
+        Constructor<?> c = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+        return c.newInstance(Class.forName(type), value);
+    }
+
+    private static Object field(Class<?> type, String name, String label) throws ReflectiveOperationException {
+        Constructor<?> c = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+        return c.newInstance(type, name, Collections.singletonList(annotation("jdk.jfr.Label", label)));
+    }
+}
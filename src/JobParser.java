@@ -0,0 +1,28 @@
+// Parses one line of the editor's "ID, Arrival, Burst, Priority" text, large files go through TraceParser.
+class JobParser {
+
+    // TraceParser rejects a non-positive burst with the same message
+    static final String BAD_BURST = "Burst must be a positive integer";
+
+    private JobParser() {
+    }
+
+    // Returns false for blank lines
+    static boolean parseLine(String line, int lineNum, JobSink sink) {
+        if (line.trim().isEmpty()) return false;
+        try {
+            String[] token = line.split(",");
+            if (token.length < 4) {
+                throw new IllegalArgumentException("Missing columns (Format: ID, Arrival, Burst, Priority)");
+            }
+            int arrival = Integer.parseInt(token[1].trim());
+            int burst = Integer.parseInt(token[2].trim());
+            int level = Integer.parseInt(token[3].trim());
+            if (burst <= 0) throw new IllegalArgumentException(BAD_BURST);
+            sink.accept(token[0].trim(), arrival, burst, level);
+            return true;
+        } catch (IllegalArgumentException e) {
+            throw new InputFormatException(lineNum, e.getMessage());
+        }
+    }
+}
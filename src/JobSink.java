@@ -0,0 +1,4 @@
+// Receives parsed jobs one by one, in file order
+interface JobSink {
+    void accept(String name, int arrival, int burst, int level);
+}
@@ -0,0 +1,210 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+// Columnar job store: one primitive array per attribute, indexed by job id (input order).
+// The input columns never change after loading; left/end are per-run state that reset()
+// restores in place, so a rerun does not copy any jobs.
+public class JobTable implements JobSink {
+
+    NameDictionary names;
+    int size;
+
+    // Input columns
+    int[] name;
+    int[] arrival;
+    int[] burst;
+    int[] level;
+
+    // Per-run state
+    int[] left;
+    int[] end;
+
+    private int[] byArrival;
+    private int[] byName;
+    private byte[] digest;
+
+    public JobTable() {
+        this(16);
+    }
+
+    public JobTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        names = new NameDictionary();
+        name = new int[capacity];
+        arrival = new int[capacity];
+        burst = new int[capacity];
+        level = new int[capacity];
+        left = new int[capacity];
+        end = new int[capacity];
+    }
+
+    private JobTable(JobTable src) {
+        names = src.names;
+        size = src.size;
+        name = src.name;
+        arrival = src.arrival;
+        burst = src.burst;
+        level = src.level;
+        byArrival = src.byArrival;
+        byName = src.byName;
+        digest = src.digest;
+        left = Arrays.copyOf(src.burst, size);
+        end = new int[size];
+    }
+
+    private JobTable(NameDictionary names, int size, int[] name, int[] arrival, int[] burst, int[] level) {
+        this.names = names;
+        this.size = size;
+        this.name = name;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.level = level;
+        left = Arrays.copyOf(burst, size);
+        end = new int[size];
+    }
+
+    // A table over ready-made columns of the given size, which it takes over; the orders
+    // may be null and are then sorted on first use (see LiveInput)
+    static JobTable of(NameDictionary names, int size, int[] name, int[] arrival, int[] burst, int[] level,
+                       int[] byArrival, int[] byName) {
+        JobTable t = new JobTable(names, size, name, arrival, burst, level);
+        t.byArrival = byArrival;
+        t.byName = byName;
+        return t;
+    }
+
+    @Override
+    public void accept(String name, int arrival, int burst, int level) {
+        add(name, arrival, burst, level);
+    }
+
+    public int add(String jobName, int jobArrival, int jobBurst, int jobLevel) {
+        if (size == name.length) grow();
+        name[size] = names.intern(jobName);
+        arrival[size] = jobArrival;
+        burst[size] = jobBurst;
+        level[size] = jobLevel;
+        left[size] = jobBurst;
+        end[size] = 0;
+        byArrival = byName = null;
+        digest = null;
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String name(int job) {
+        return names.get(name[job]);
+    }
+
+    public void clear() {
+        size = 0;
+        names = new NameDictionary();
+        byArrival = byName = null;
+        digest = null;
+    }
+
+    // Restores the per-run state before the next simulation
+    public void reset() {
+        System.arraycopy(burst, 0, left, 0, size);
+        Arrays.fill(end, 0, size, 0);
+    }
+
+    // Independent run state over the same input columns, which are shared and must not
+    // be modified through the fork
+    public JobTable fork() {
+        return new JobTable(this);
+    }
+
+    // Job ids ordered by arrival, ties in input order. Cached until the next add().
+    public int[] arrivalOrder() {
+        if (byArrival == null) {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) keys[i] = ((long) arrival[i] << 32) | i;
+            byArrival = sortedIds(keys);
+        }
+        return byArrival;
+    }
+
+    // Job ids ordered by name (as the results table shows them), ties in input order.
+    // Cached until the next add().
+    public int[] nameOrder() {
+        if (byName == null) byName = sortByName();
+        return byName;
+    }
+
+    private int[] sortByName() {
+        String[] sorted = names.toArray();
+        Arrays.sort(sorted);
+        int[] rank = new int[sorted.length];
+        for (int id = 0; id < rank.length; id++) rank[id] = Arrays.binarySearch(sorted, names.get(id));
+
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) keys[i] = ((long) rank[name[i]] << 32) | i;
+        return sortedIds(keys);
+    }
+
+    // SHA-256 over the jobs (name, arrival, burst, priority) in input order, equal for equal
+    // inputs. Cached until the next add() and shared with forks; the result cache keys on it.
+    public byte[] digest() {
+        if (digest == null) {
+            MessageDigest md;
+            try {
+                md = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+            buf.putInt(size);
+            byte[][] encoded = new byte[names.size()][];
+            for (int i = 0; i < size; i++) {
+                byte[] bytes = encoded[name[i]];
+                if (bytes == null) bytes = encoded[name[i]] = names.get(name[i]).getBytes(StandardCharsets.UTF_8);
+                if (buf.remaining() < 16 + bytes.length) flush(md, buf);
+                if (bytes.length > buf.remaining() - 16) {
+                    buf.putInt(bytes.length);
+                    flush(md, buf);
+                    md.update(bytes);
+                } else {
+                    buf.putInt(bytes.length).put(bytes);
+                }
+                buf.putInt(arrival[i]).putInt(burst[i]).putInt(level[i]);
+            }
+            flush(md, buf);
+            digest = md.digest();
+        }
+        return digest.clone();
+    }
+
+    private static void flush(MessageDigest md, ByteBuffer buf) {
+        md.update(buf.array(), 0, buf.position());
+        buf.clear();
+    }
+
+    // Sorts (key << 32 | id) pairs and returns the ids
+    private static int[] sortedIds(long[] keys) {
+        Arrays.sort(keys);
+        int[] ids = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) ids[i] = (int) keys[i];
+        return ids;
+    }
+
+    private void grow() {
+        int cap = name.length + (name.length >> 1) + 1;
+        name = Arrays.copyOf(name, cap);
+        arrival = Arrays.copyOf(arrival, cap);
+        burst = Arrays.copyOf(burst, cap);
+        level = Arrays.copyOf(level, cap);
+        left = Arrays.copyOf(left, cap);
+        end = Arrays.copyOf(end, cap);
+    }
+}
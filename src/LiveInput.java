@@ -0,0 +1,212 @@
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+// The editor text as parsed lines, kept up to date edit by edit for live mode. Only lines
+// an edit added or replaced are parsed again, and each line remembers the job id it had in
+// the last built table, so build() can say which jobs kept their data (and under which new
+// id) and from which arrival time on the schedule can differ. The arrival and name orders
+// of the new table are patched from the previous ones instead of sorted again.
+class LiveInput {
+
+    // Per line: name id, -1 for a blank line; the raw text while the line still needs parsing
+    private int[] nameId = new int[64];
+    private int[] arrival = new int[64];
+    private int[] burst = new int[64];
+    private int[] level = new int[64];
+    // Job id in the last built table, -1 for lines added or changed since
+    private int[] oldJob = new int[64];
+    private String[] raw = new String[64];
+    private int lines;
+
+    // Shared with the tables already built, so a new name is added to a copy
+    private NameDictionary names = new NameDictionary();
+    private boolean namesShared;
+
+    private JobTable last;
+    // Earliest arrival among the jobs removed, added or changed since the last build
+    private int changedFrom = Integer.MAX_VALUE;
+
+    LiveInput(String text) {
+        String[] all = text.split("\n", -1);
+        edit(0, 0, all);
+    }
+
+    // A built table and how it relates to the previous one
+    static final class Build {
+        final JobTable jobs;
+        // Previous job id -> new id, -1 if the job changed; null if no kept job moved
+        final int[] newId;
+        // No job arriving before this time changed
+        final int changedFrom;
+
+        Build(JobTable jobs, int[] newId, int changedFrom) {
+            this.jobs = jobs;
+            this.newId = newId;
+            this.changedFrom = changedFrom;
+        }
+    }
+
+    // Replaces `removed` lines starting at `line` with the added texts
+    void edit(int line, int removed, String[] added) {
+        for (int l = line; l < line + removed; l++) {
+            if (raw[l] == null && nameId[l] >= 0) changedFrom = Math.min(changedFrom, arrival[l]);
+        }
+
+        int shift = added.length - removed;
+        if (lines + shift > nameId.length) grow(Math.max(lines + shift, nameId.length * 2));
+        int tail = lines - (line + removed);
+        System.arraycopy(nameId, line + removed, nameId, line + added.length, tail);
+        System.arraycopy(arrival, line + removed, arrival, line + added.length, tail);
+        System.arraycopy(burst, line + removed, burst, line + added.length, tail);
+        System.arraycopy(level, line + removed, level, line + added.length, tail);
+        System.arraycopy(oldJob, line + removed, oldJob, line + added.length, tail);
+        System.arraycopy(raw, line + removed, raw, line + added.length, tail);
+        lines += shift;
+        if (shift < 0) Arrays.fill(raw, lines, lines - shift, null);
+
+        for (int i = 0; i < added.length; i++) {
+            raw[line + i] = added[i];
+            oldJob[line + i] = -1;
+        }
+    }
+
+    // Parses the pending lines and builds the table. A bad line throws InputFormatException
+    // and keeps every change pending, so the next build after the fix still sees them.
+    Build build() {
+        int[] parsed = new int[3];
+        for (int l = 0; l < lines; l++) {
+            if (raw[l] == null) continue;
+            String[] token = new String[1];
+            boolean job = JobParser.parseLine(raw[l], l + 1, (name, a, b, lv) -> {
+                token[0] = name;
+                parsed[0] = a;
+                parsed[1] = b;
+                parsed[2] = lv;
+            });
+            nameId[l] = job ? intern(token[0]) : -1;
+            if (job) {
+                arrival[l] = parsed[0];
+                burst[l] = parsed[1];
+                level[l] = parsed[2];
+                changedFrom = Math.min(changedFrom, parsed[0]);
+            }
+            raw[l] = null;
+        }
+
+        int size = 0;
+        for (int l = 0; l < lines; l++) {
+            if (nameId[l] >= 0) size++;
+        }
+        int[] name = new int[size], arr = new int[size], bur = new int[size], lev = new int[size];
+        int[] newId = new int[last == null ? 0 : last.size()];
+        Arrays.fill(newId, -1);
+        int[] added = new int[size];
+        int nAdded = 0;
+        boolean moved = false;
+        int j = 0;
+        for (int l = 0; l < lines; l++) {
+            if (nameId[l] < 0) {
+                oldJob[l] = -1;
+                continue;
+            }
+            name[j] = nameId[l];
+            arr[j] = arrival[l];
+            bur[j] = burst[l];
+            lev[j] = level[l];
+            if (oldJob[l] >= 0) {
+                newId[oldJob[l]] = j;
+                if (oldJob[l] != j) moved = true;
+            } else {
+                added[nAdded++] = j;
+            }
+            oldJob[l] = j;
+            j++;
+        }
+
+        // Patching costs O(n) against O(n log n) for sorting, which wins unless most jobs changed
+        int[] byArrival = null, byName = null;
+        if (last != null && nAdded <= size / 8) {
+            NameDictionary dict = names;
+            IntBinaryOperator arrivalOrder = (a, b) -> arr[a] != arr[b] ? Integer.compare(arr[a], arr[b]) : Integer.compare(a, b);
+            IntBinaryOperator nameOrder = (a, b) -> {
+                int c = dict.get(name[a]).compareTo(dict.get(name[b]));
+                return c != 0 ? c : Integer.compare(a, b);
+            };
+            int[] fresh = Arrays.copyOf(added, nAdded);
+            byArrival = patch(last.arrivalOrder(), newId, sorted(fresh, arrivalOrder), arrivalOrder);
+            byName = patch(last.nameOrder(), newId, sorted(fresh, nameOrder), nameOrder);
+        }
+        JobTable jobs = JobTable.of(names, size, name, arr, bur, lev, byArrival, byName);
+        namesShared = true;
+
+        Build b = new Build(jobs, moved ? newId : null, changedFrom);
+        last = jobs;
+        changedFrom = Integer.MAX_VALUE;
+        return b;
+    }
+
+    // A new name goes into a copy of the dictionary the built tables share
+    private int intern(String name) {
+        int id = names.find(name);
+        if (id >= 0) return id;
+        if (namesShared) {
+            names = names.copy();
+            namesShared = false;
+        }
+        return names.intern(name);
+    }
+
+    private static int[] sorted(int[] ids, IntBinaryOperator order) {
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) boxed[i] = ids[i];
+        Arrays.sort(boxed, (a, b) -> order.applyAsInt(a, b));
+        int[] out = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) out[i] = boxed[i];
+        return out;
+    }
+
+    // Merges the kept jobs of a previous order (translated to new ids, which keeps their
+    // relative order) with the sorted new jobs. Only the new jobs are compared: each one
+    // finds its place by binary search, the merge itself just copies.
+    private static int[] patch(int[] previous, int[] newId, int[] fresh, IntBinaryOperator order) {
+        int[] at = new int[fresh.length];
+        for (int f = 0; f < fresh.length; f++) at[f] = insertionPoint(previous, newId, fresh[f], order);
+
+        int[] out = new int[previous.length + fresh.length];
+        int n = 0, f = 0;
+        for (int i = 0; i < previous.length; i++) {
+            while (f < fresh.length && at[f] == i) out[n++] = fresh[f++];
+            int id = newId[previous[i]];
+            if (id >= 0) out[n++] = id;
+        }
+        while (f < fresh.length) out[n++] = fresh[f++];
+        return Arrays.copyOf(out, n);
+    }
+
+    // First position in the previous order whose kept job comes after the given one;
+    // dropped jobs (new id -1) are skipped
+    private static int insertionPoint(int[] previous, int[] newId, int job, IntBinaryOperator order) {
+        int lo = 0, hi = previous.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1, m = mid;
+            while (m < hi && newId[previous[m]] < 0) m++;
+            if (m == hi) {
+                hi = mid;
+            } else if (order.applyAsInt(newId[previous[m]], job) < 0) {
+                lo = m + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void grow(int capacity) {
+        nameId = Arrays.copyOf(nameId, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        level = Arrays.copyOf(level, capacity);
+        oldJob = Arrays.copyOf(oldJob, capacity);
+        raw = Arrays.copyOf(raw, capacity);
+    }
+}
@@ -0,0 +1,75 @@
+// Live mode: re-simulates the editor text after every batch of edits. Resumable engines
+// keep checkpoints, and when the engine did not change since the last run the new run
+// continues from the latest checkpoint before the earliest changed arrival, so an edit
+// near the end of a large trace only re-simulates the tail of the schedule.
+class LiveSession {
+
+    private static final SimulationMonitor MONITOR = new SimulationMonitor() {
+        @Override
+        public void progress(SimulationResult partial, int now) {
+        }
+
+        @Override
+        public boolean keepCheckpoints() {
+            return true;
+        }
+    };
+
+    private final LiveInput input;
+    private SimulationResult previous;
+    private String previousEngine;
+
+    // Checkpoint time the last update resumed from, -1 for a full run
+    private int resumedAt = -1;
+
+    LiveSession(String text) {
+        input = new LiveInput(text);
+    }
+
+    // Called on the EDT for every document change
+    void edit(int line, int removed, String[] added) {
+        synchronized (input) {
+            input.edit(line, removed, added);
+        }
+    }
+
+    // Parses the edited lines and re-simulates; called on one worker thread at a time
+    SimulationResult update(SchedulerEngine engine) {
+        LiveInput.Build build;
+        synchronized (input) {
+            build = input.build();
+        }
+        JobTable jobs = build.jobs;
+        if (jobs.isEmpty()) {
+            previous = null;
+            throw new IllegalArgumentException("Input area is empty or invalid.");
+        }
+
+        Checkpoint from = null;
+        if (previous != null && engine instanceof ResumableEngine && engine.name().equals(previousEngine)) {
+            from = previous.checkpointBefore(build.changedFrom);
+        }
+        try {
+            SimulationResult result;
+            if (from != null) {
+                boolean readyHoldsIds = engine instanceof RoundRobinEngine;
+                SimulationResult partial = previous.resumeAt(from, jobs, MONITOR, build.newId, readyHoldsIds);
+                result = ((ResumableEngine) engine).resume(partial, from.remap(build.newId, readyHoldsIds));
+                resumedAt = from.now;
+            } else {
+                result = engine.run(jobs, MONITOR);
+                resumedAt = -1;
+            }
+            previous = result;
+            previousEngine = engine.name();
+            return result;
+        } catch (RuntimeException e) {
+            previous = null;
+            throw e;
+        }
+    }
+
+    int resumedAt() {
+        return resumedAt;
+    }
+}
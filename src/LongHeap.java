@@ -0,0 +1,68 @@
+import java.util.Arrays;
+
+// Primitive binary min-heap of longs. Engines pack (key << 32 | tie-break) so that
+// ordering and the job id travel in a single value without boxing.
+class LongHeap {
+
+    private long[] heap;
+    private int size;
+
+    LongHeap(int capacity) {
+        heap = new long[Math.max(capacity, 1)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long v) {
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= v) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+    }
+
+    long peek() {
+        return heap[0];
+    }
+
+    long poll() {
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+            if (last <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    // Subtracts delta from every key; keys must not go negative. The order stays the same.
+    void lowerKeys(int delta) {
+        long d = (long) delta << 32;
+        for (int i = 0; i < size; i++) heap[i] -= d;
+    }
+
+    // The entries in heap order
+    long[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.SplittableRandom;
+
+// Lottery scheduling: every quantum goes to a ticket drawn at random, so a job's share of the
+// CPU is its share of the tickets held by the ready jobs. The tickets are kept in a Fenwick
+// tree indexed by arrival position (see TicketTree), which makes a draw, an arrival and a
+// completion O(log n). The draws come from a SplittableRandom with the given seed, so the
+// same input, quantum and seed always give the same schedule.
+public class LotteryEngine extends ProportionalShareEngine {
+
+    static final long DEFAULT_SEED = 1;
+
+    private final long seed;
+
+    public LotteryEngine(int quantum) {
+        this(quantum, DEFAULT_SEED);
+    }
+
+    public LotteryEngine(int quantum, long seed) {
+        super(quantum);
+        this.seed = seed;
+    }
+
+    @Override
+    public String name() {
+        return "Lottery (q=" + quantum + ", seed=" + seed + ")";
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        SimulationResult result = new SimulationResult(jobs, monitor);
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, left = jobs.left, level = jobs.level;
+        int total = order.length;
+
+        TicketTree tickets = new TicketTree(total);
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int now = 0, doneCount = 0, idx = 0, ready = 0;
+
+        while (doneCount < total) {
+            while (idx < total && arrival[order[idx]] <= now) {
+                tickets.add(idx, tickets(level[order[idx]]));
+                idx++;
+                ready++;
+            }
+
+            if (ready == 0) {
+                int nextArr = arrival[order[idx]];
+                timeline.add(Timeline.IDLE, now, nextArr);
+                now = nextArr;
+                continue;
+            }
+
+            int pos = ready == 1 ? tickets.find(0) : tickets.find(rnd.nextLong(tickets.total()));
+            int job = order[pos];
+            result.dispatch(job, now);
+            int exec = slice(left[job], now, idx < total ? arrival[order[idx]] : Integer.MAX_VALUE, ready == 1);
+
+            timeline.add(job, now, now + exec);
+            now += exec;
+            left[job] -= exec;
+
+            if (left[job] == 0) {
+                tickets.add(pos, -tickets(level[job]));
+                ready--;
+                result.complete(job, now);
+                doneCount++;
+            }
+            result.step(now);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,207 @@
+import java.util.Arrays;
+
+// Multilevel feedback queue. Every level is an intrusive FIFO list threaded through a
+// per-job next[] array, and a bitmap marks the non-empty levels, so picking the next job
+// is one numberOfTrailingZeros regardless of how many jobs wait.
+//   - A job enters the level of its priority (1 or lower = top level, clamped to the last).
+//   - Using up the quantum of its level moves it one level down; a job preempted by a
+//     higher-level arrival keeps its level and the rest of its quantum.
+//   - Every boostInterval time units all waiting jobs move to the top level (aging). The
+//     lists are spliced in O(levels) and the per-job quantum usage is reset lazily through
+//     an epoch counter, so no waiting job is touched at a boost.
+public class MlfqEngine implements SchedulerEngine {
+
+    // Boost interval used when none is given, in multiples of the top-level quantum
+    static final int DEFAULT_BOOST_FACTOR = 25;
+
+    private static final int NONE = -1;
+
+    private final int[] quanta;
+    private final int boostInterval;
+
+    // quanta[k] is the time slice of level k (0 = top); boostInterval <= 0 disables aging
+    public MlfqEngine(int[] quanta, int boostInterval) {
+        if (quanta.length == 0 || quanta.length > 64) {
+            throw new IllegalArgumentException("MLFQ needs between 1 and 64 levels.");
+        }
+        for (int q : quanta) {
+            if (q <= 0) throw new IllegalArgumentException("Time Quantum must be a positive integer.");
+        }
+        this.quanta = quanta.clone();
+        this.boostInterval = Math.max(boostInterval, 0);
+    }
+
+    // Three levels with doubling quanta and the default boost interval, capped at MAX_VALUE
+    public static MlfqEngine withQuantum(int quantum) {
+        if (quantum <= 0) throw new IllegalArgumentException("Time Quantum must be a positive integer.");
+        return new MlfqEngine(doubling(quantum), defaultBoost(quantum));
+    }
+
+    // DEFAULT_BOOST_FACTOR top-level quanta
+    public static int defaultBoost(int topQuantum) {
+        return saturated((long) DEFAULT_BOOST_FACTOR * topQuantum);
+    }
+
+    private static int[] doubling(int q) {
+        return new int[]{q, saturated(2L * q), saturated(4L * q)};
+    }
+
+    private static int saturated(long v) {
+        return (int) Math.min(v, Integer.MAX_VALUE);
+    }
+
+    // "q" for the doubling default levels, or one quantum per level: "2,4,8,16"
+    public static int[] parseQuanta(String spec) {
+        String[] parts = spec.trim().split("\\s*,\\s*");
+        if (parts.length == 1) {
+            int q = Integer.parseInt(parts[0]);
+            return q <= 0 ? new int[]{q} : doubling(q);
+        }
+        int[] quanta = new int[parts.length];
+        for (int k = 0; k < parts.length; k++) quanta[k] = Integer.parseInt(parts[k]);
+        return quanta;
+    }
+
+    @Override
+    public String name() {
+        return "MLFQ (q=" + Arrays.toString(quanta).replace(" ", "")
+                + (boostInterval > 0 ? ", boost=" + boostInterval : "") + ")";
+    }
+
+    public int[] quanta() {
+        return quanta.clone();
+    }
+
+    public int boostInterval() {
+        return boostInterval;
+    }
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        SimulationResult result = new SimulationResult(jobs, monitor);
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, left = jobs.left;
+        int total = order.length;
+        int levels = quanta.length;
+
+        // Level lists: head/tail job per level, next[] links the jobs of one list
+        int[] head = new int[levels], tail = new int[levels];
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+        int[] next = new int[jobs.size()];
+        long nonEmpty = 0;
+
+        // Time used of the current level's quantum, valid only if usedEpoch matches epoch
+        int[] used = new int[jobs.size()];
+        int[] usedEpoch = new int[jobs.size()];
+        int epoch = 0;
+
+        long nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+        int now = 0, doneCount = 0, idx = 0;
+
+        while (doneCount < total) {
+            while (idx < total && arrival[order[idx]] <= now) {
+                int j = order[idx++];
+                int lvl = entryLevel(jobs, j);
+                nonEmpty = pushBack(head, tail, next, nonEmpty, lvl, j);
+                used[j] = 0;
+                usedEpoch[j] = epoch;
+            }
+
+            if (now >= nextBoost) {
+                // Splice every lower list behind the top one
+                for (int lvl = 1; lvl < levels; lvl++) {
+                    if (head[lvl] == NONE) continue;
+                    if (head[0] == NONE) head[0] = head[lvl]; else next[tail[0]] = head[lvl];
+                    tail[0] = tail[lvl];
+                    head[lvl] = tail[lvl] = NONE;
+                }
+                nonEmpty = head[0] == NONE ? 0 : 1;
+                epoch++;
+                nextBoost = ((long) now / boostInterval + 1) * boostInterval;
+            }
+
+            if (nonEmpty == 0) {
+                int nextArr = arrival[order[idx]];
+                timeline.add(Timeline.IDLE, now, nextArr);
+                now = nextArr;
+                // Boosts inside the idle gap had nothing to move
+                if (nextBoost < now) nextBoost = ((long) now + boostInterval - 1) / boostInterval * boostInterval;
+                continue;
+            }
+
+            int lvl = Long.numberOfTrailingZeros(nonEmpty);
+            int job = head[lvl];
+            head[lvl] = next[job];
+            if (head[lvl] == NONE) {
+                tail[lvl] = NONE;
+                nonEmpty &= ~(1L << lvl);
+            }
+            result.dispatch(job, now);
+            if (usedEpoch[job] != epoch) {
+                used[job] = 0;
+                usedEpoch[job] = epoch;
+            }
+
+            // The slice ends early at a boost or when a job for a higher level arrives.
+            // Arrivals for this level or lower are queued as they come.
+            long limit = Math.min((long) now + Math.min(left[job], quanta[lvl] - used[job]), nextBoost);
+            while (idx < total && arrival[order[idx]] < limit) {
+                int j = order[idx];
+                int entry = entryLevel(jobs, j);
+                if (entry < lvl) {
+                    limit = arrival[j];
+                    break;
+                }
+                nonEmpty = pushBack(head, tail, next, nonEmpty, entry, j);
+                used[j] = 0;
+                usedEpoch[j] = epoch;
+                idx++;
+            }
+
+            int end = (int) limit;
+            timeline.add(job, now, end);
+            left[job] -= end - now;
+            used[job] += end - now;
+            now = end;
+
+            // Same order as Round Robin: arrivals at this instant queue before the job
+            while (idx < total && arrival[order[idx]] <= now) {
+                int j = order[idx++];
+                int entry = entryLevel(jobs, j);
+                nonEmpty = pushBack(head, tail, next, nonEmpty, entry, j);
+                used[j] = 0;
+                usedEpoch[j] = epoch;
+            }
+
+            if (left[job] == 0) {
+                result.complete(job, now);
+                doneCount++;
+            } else if (used[job] >= quanta[lvl]) {
+                int down = Math.min(lvl + 1, levels - 1);
+                used[job] = 0;
+                nonEmpty = pushBack(head, tail, next, nonEmpty, down, job);
+            } else {
+                // Preempted (or boosted) before its quantum ran out: resumes first on its level
+                next[job] = head[lvl];
+                head[lvl] = job;
+                if (tail[lvl] == NONE) tail[lvl] = job;
+                nonEmpty |= 1L << lvl;
+            }
+            result.step(now);
+        }
+        return result;
+    }
+
+    private int entryLevel(JobTable jobs, int job) {
+        return Math.max(0, Math.min(jobs.level[job] - 1, quanta.length - 1));
+    }
+
+    private static long pushBack(int[] head, int[] tail, int[] next, long nonEmpty, int lvl, int job) {
+        next[job] = NONE;
+        if (tail[lvl] == NONE) head[lvl] = job; else next[tail[lvl]] = job;
+        tail[lvl] = job;
+        return nonEmpty | (1L << lvl);
+    }
+}
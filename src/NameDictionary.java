@@ -0,0 +1,70 @@
+// Interns job IDs into dense int ids so the job table stores one int per job
+// and equal names share a single String.
+class NameDictionary {
+
+    private String[] names = new String[16];
+    private int size;
+
+    // Open addressing table holding id + 1, 0 marks an empty slot
+    private int[] slots = new int[32];
+
+    int intern(String name) {
+        int mask = slots.length - 1;
+        int i = mix(name.hashCode()) & mask;
+        for (int id; (id = slots[i]) != 0; i = (i + 1) & mask) {
+            if (names[id - 1].equals(name)) return id - 1;
+        }
+
+        if (size == names.length) names = java.util.Arrays.copyOf(names, size * 2);
+        names[size] = name;
+        slots[i] = ++size;
+        if (size * 2 > slots.length) rehash();
+        return size - 1;
+    }
+
+    // The id of a name already interned, -1 otherwise
+    int find(String name) {
+        int mask = slots.length - 1;
+        for (int i = mix(name.hashCode()) & mask, id; (id = slots[i]) != 0; i = (i + 1) & mask) {
+            if (names[id - 1].equals(name)) return id - 1;
+        }
+        return -1;
+    }
+
+    // Independent dictionary with the same ids
+    NameDictionary copy() {
+        NameDictionary c = new NameDictionary();
+        c.names = names.clone();
+        c.size = size;
+        c.slots = slots.clone();
+        return c;
+    }
+
+    String get(int id) {
+        return names[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    String[] toArray() {
+        return java.util.Arrays.copyOf(names, size);
+    }
+
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = mix(names[id].hashCode()) & mask;
+            while (grown[i] != 0) i = (i + 1) & mask;
+            grown[i] = id + 1;
+        }
+        slots = grown;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,55 @@
+// Event-driven core shared by SJF and Priority: jobs are admitted in arrival order
+// into a heap, idle gaps jump straight to the next arrival.
+abstract class NonPreemptiveEngine implements ResumableEngine {
+
+    // Heap key of a job; ties are broken on arrival and then input order
+    protected abstract int key(JobTable jobs, int job);
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        return resume(new SimulationResult(jobs, monitor), null);
+    }
+
+    @Override
+    public SimulationResult resume(SimulationResult result, Checkpoint from) {
+        JobTable jobs = result.jobs;
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, burst = jobs.burst;
+
+        // Entries are (key << 32 | position in arrival order), the position encodes both tie-breaks
+        LongHeap readyQ = new LongHeap(64);
+
+        int now = 0, idx = 0;
+        int total = order.length;
+        if (from != null) {
+            now = from.now;
+            idx = from.admitted;
+            from.refill(readyQ, jobs, order);
+        }
+
+        while (idx < total || !readyQ.isEmpty()) {
+            if (result.checkpointDue(readyQ.size())) result.checkpoint(now, idx, readyQ, order);
+            while (idx < total && arrival[order[idx]] <= now) {
+                readyQ.add(((long) key(jobs, order[idx]) << 32) | idx);
+                idx++;
+            }
+
+            if (readyQ.isEmpty()) {
+                int nextArr = arrival[order[idx]];
+                timeline.add(Timeline.IDLE, now, nextArr);
+                now = nextArr;
+                continue;
+            }
+
+            int picked = order[(int) readyQ.poll()];
+            int start = now;
+            result.dispatch(picked, start);
+            now += burst[picked];
+            timeline.add(picked, start, now);
+            result.complete(picked, now);
+            result.step(now);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,582 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+// Online counterpart of the single-CPU engines for unbounded job feeds. Jobs arrive one by
+// one in arrival order (accept) and the schedule is advanced as far as the jobs seen so
+// far decide it: a decision at time t needs every arrival up to t, which is known once a
+// job arriving after t came in (or the stream ended, see finish). Finished jobs and
+// timeline slices go to a StreamSink as they happen. Only jobs that arrived and have not
+// finished are kept, in a slot table whose slots are reused, so memory follows the active
+// set rather than the length of the stream. The schedule is the one the batch engine
+// computes for the same jobs, with ties broken on arrival order in the same way.
+public abstract class OnlineScheduler implements JobSink {
+
+    static final int NONE = -1;
+
+    private final String algorithm;
+    final StreamSink sink;
+    final StreamStats stats = new StreamStats();
+
+    // Slot table of the active jobs; seq is the job's position in the stream
+    String[] name = new String[64];
+    int[] arrival = new int[64];
+    int[] burst = new int[64];
+    int[] level = new int[64];
+    int[] left = new int[64];
+    long[] seq = new long[64];
+    private int slots;
+    private int[] free = new int[64];
+    private int freeCount;
+
+    // Accepted jobs not admitted yet, in arrival order; the latest one is always among them
+    // until the stream ends
+    final IntQueue pending = new IntQueue(64);
+    // Arrival time of the latest job: every arrival before it is known
+    private int horizon = Integer.MIN_VALUE;
+    boolean finished;
+    int now;
+
+    // Slice not passed on yet, it may still grow; owner is the job's seq, NONE for idle
+    private long sliceOwner = NONE;
+    private String sliceName;
+    private int sliceStart, sliceEnd;
+    private boolean slicePending;
+    private long lastOwner = NONE;
+
+    OnlineScheduler(SchedulerEngine engine, StreamSink sink) {
+        this.algorithm = engine.name();
+        this.sink = sink;
+    }
+
+    // The single-CPU engines: FCFS, SJF, SRTF, both Priority modes, Round Robin and MLFQ
+    public static OnlineScheduler forEngine(SchedulerEngine engine, StreamSink sink) {
+        if (engine instanceof FcfsEngine) return new Fcfs(engine, sink);
+        if (engine instanceof SjfEngine) {
+            return new NonPreemptive(engine, sink) {
+                @Override
+                int key(int slot) {
+                    return burst[slot];
+                }
+            };
+        }
+        if (engine instanceof PriorityEngine) {
+            return new NonPreemptive(engine, sink) {
+                @Override
+                int key(int slot) {
+                    return level[slot];
+                }
+            };
+        }
+        if (engine instanceof SrtfEngine) {
+            return new Preemptive(engine, sink) {
+                @Override
+                int key(int slot) {
+                    return left[slot];
+                }
+            };
+        }
+        if (engine instanceof PreemptivePriorityEngine) {
+            return new Preemptive(engine, sink) {
+                @Override
+                int key(int slot) {
+                    return level[slot];
+                }
+            };
+        }
+        if (engine instanceof RoundRobinEngine) return new RoundRobin(engine, sink, ((RoundRobinEngine) engine).quantum());
+        if (engine instanceof MlfqEngine) return new Mlfq((MlfqEngine) engine, sink);
+        throw new IllegalArgumentException(engine.name() + " cannot run on a stream, only single-CPU algorithms can.");
+    }
+
+    public String name() {
+        return algorithm;
+    }
+
+    // Live metrics; only the thread feeding the scheduler may read them, others use a copy()
+    public StreamStats stats() {
+        return stats;
+    }
+
+    @Override
+    public void accept(String jobName, int jobArrival, int jobBurst, int jobLevel) {
+        if (finished) throw new IllegalStateException("The stream has ended");
+        if (jobArrival < horizon) {
+            throw new IllegalArgumentException("Arrival time " + jobArrival + " is before the previous job's ("
+                    + horizon + "), a stream must be in arrival order");
+        }
+        int s = allocate();
+        name[s] = jobName;
+        arrival[s] = jobArrival;
+        burst[s] = jobBurst;
+        level[s] = jobLevel;
+        left[s] = jobBurst;
+        seq[s] = stats.arrived;
+        stats.arrive(jobArrival);
+        pending.add(s);
+        horizon = jobArrival;
+        advance();
+    }
+
+    // No more jobs: runs the schedule to its end
+    public void finish() {
+        if (finished) return;
+        finished = true;
+        advance();
+        flushSlice();
+        sink.flush();
+    }
+
+    // Feeds "ID, Arrival, Burst, Priority" lines from the stream until it ends, then
+    // finishes; returns the number of jobs
+    public long run(InputStream in) throws IOException {
+        long n = TraceParser.parse(in, this, sink::flush);
+        finish();
+        return n;
+    }
+
+    // Runs the schedule up to the first decision that needs an arrival not seen yet
+    abstract void advance();
+
+    // A decision at time t may be taken once every arrival up to t is known
+    final boolean known(int t) {
+        return finished || t < horizon;
+    }
+
+    final int nextArrival() {
+        return arrival[pending.peek()];
+    }
+
+    // --- Helpers shared with the policies, the counterparts of SimulationResult and Timeline ---
+
+    // Called whenever a job gets the CPU, before its remaining time is charged
+    final void dispatch(int slot, int at) {
+        if (left[slot] == burst[slot]) stats.responseHist.record(at - arrival[slot]);
+    }
+
+    final void complete(int slot, int at) {
+        stats.complete(arrival[slot], burst[slot], at);
+        sink.completed(name[slot], arrival[slot], burst[slot], level[slot], at);
+        name[slot] = null;
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = slot;
+    }
+
+    final void idle(int start, int end) {
+        if (end <= start) return;
+        emit(NONE, null, start, end);
+    }
+
+    final void run(int slot, int start, int end) {
+        if (end <= start) return;
+        long owner = seq[slot];
+        if (lastOwner != NONE && lastOwner != owner) stats.switches++;
+        lastOwner = owner;
+        emit(owner, name[slot], start, end);
+    }
+
+    // Round Robin fast-forward, see Timeline.addRepeat
+    final void rounds(int[] pattern, String[] names, int width, int start, int quantum, int k) {
+        if (width == 1) {
+            run(pattern[0], start, start + quantum * k);
+            return;
+        }
+        if (lastOwner != NONE && lastOwner != seq[pattern[0]]) stats.switches++;
+        stats.switches += (long) width * k - 1;
+        lastOwner = seq[pattern[width - 1]];
+        flushSlice();
+        for (int i = 0; i < width; i++) names[i] = name[pattern[i]];
+        sink.rounds(names, width, start, quantum, k);
+        stats.now = start + quantum * width * k;
+    }
+
+    private void emit(long owner, String ownerName, int start, int end) {
+        stats.now = end;
+        if (slicePending && owner == sliceOwner && start == sliceEnd) {
+            sliceEnd = end;
+            return;
+        }
+        flushSlice();
+        slicePending = true;
+        sliceOwner = owner;
+        sliceName = ownerName;
+        sliceStart = start;
+        sliceEnd = end;
+    }
+
+    private void flushSlice() {
+        if (!slicePending) return;
+        slicePending = false;
+        sink.slice(sliceName, sliceStart, sliceEnd);
+        sliceName = null;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) return free[--freeCount];
+        if (slots == name.length) grow(slots * 2);
+        return slots++;
+    }
+
+    // Policies with per-slot state of their own extend this
+    void grow(int capacity) {
+        name = Arrays.copyOf(name, capacity);
+        arrival = Arrays.copyOf(arrival, capacity);
+        burst = Arrays.copyOf(burst, capacity);
+        level = Arrays.copyOf(level, capacity);
+        left = Arrays.copyOf(left, capacity);
+        seq = Arrays.copyOf(seq, capacity);
+    }
+
+    // --- Policies, each one the batch engine's loop with the input checks above ---
+
+    // The next job in arrival order never depends on later arrivals, so it can run at once
+    static class Fcfs extends OnlineScheduler {
+
+        Fcfs(SchedulerEngine engine, StreamSink sink) {
+            super(engine, sink);
+        }
+
+        @Override
+        void advance() {
+            while (!pending.isEmpty()) {
+                int j = pending.poll();
+                if (now < arrival[j]) {
+                    idle(now, arrival[j]);
+                    now = arrival[j];
+                }
+                int start = now;
+                dispatch(j, start);
+                now += burst[j];
+                left[j] = 0;
+                run(j, start, now);
+                complete(j, now);
+            }
+        }
+    }
+
+    // SJF and Priority, see NonPreemptiveEngine
+    abstract static class NonPreemptive extends OnlineScheduler {
+
+        private final SlotHeap readyQ = new SlotHeap(64);
+
+        NonPreemptive(SchedulerEngine engine, StreamSink sink) {
+            super(engine, sink);
+        }
+
+        abstract int key(int slot);
+
+        @Override
+        void advance() {
+            while (!pending.isEmpty() || !readyQ.isEmpty()) {
+                if (!known(now)) return;
+                while (!pending.isEmpty() && nextArrival() <= now) {
+                    int j = pending.poll();
+                    readyQ.add(key(j), seq[j], j);
+                }
+
+                if (readyQ.isEmpty()) {
+                    int nextArr = nextArrival();
+                    idle(now, nextArr);
+                    now = nextArr;
+                    continue;
+                }
+
+                int picked = readyQ.poll();
+                int start = now;
+                dispatch(picked, start);
+                now += burst[picked];
+                left[picked] = 0;
+                run(picked, start, now);
+                complete(picked, now);
+            }
+        }
+    }
+
+    // SRTF and preemptive Priority, see PreemptiveEngine. The running job is kept across
+    // calls, since the arrivals that may preempt it can still be missing.
+    abstract static class Preemptive extends OnlineScheduler {
+
+        private final SlotHeap readyQ = new SlotHeap(64);
+        private int running = NONE;
+        private int start;
+
+        Preemptive(SchedulerEngine engine, StreamSink sink) {
+            super(engine, sink);
+        }
+
+        abstract int key(int slot);
+
+        @Override
+        void advance() {
+            while (true) {
+                if (running == NONE) {
+                    if (pending.isEmpty() && readyQ.isEmpty()) return;
+                    if (!known(now)) return;
+                    while (!pending.isEmpty() && nextArrival() <= now) {
+                        int j = pending.poll();
+                        readyQ.add(key(j), seq[j], j);
+                    }
+
+                    if (readyQ.isEmpty()) {
+                        int nextArr = nextArrival();
+                        idle(now, nextArr);
+                        now = nextArr;
+                        continue;
+                    }
+
+                    running = readyQ.poll();
+                    start = now;
+                    dispatch(running, start);
+                }
+
+                // Run until completion or until an arrival outranks the job
+                int job = running;
+                boolean preempted = false;
+                while (!pending.isEmpty() && nextArrival() < now + left[job]) {
+                    int at = nextArrival();
+                    if (!known(at)) return;
+                    left[job] -= at - now;
+                    now = at;
+                    int currentKey = key(job);
+                    boolean outranked = false;
+                    while (!pending.isEmpty() && nextArrival() == now) {
+                        int j = pending.poll();
+                        int k = key(j);
+                        readyQ.add(k, seq[j], j);
+                        if (SlotHeap.less(k, seq[j], currentKey, seq[job])) outranked = true;
+                    }
+                    if (outranked) {
+                        run(job, start, now);
+                        readyQ.add(currentKey, seq[job], job);
+                        preempted = true;
+                        break;
+                    }
+                }
+                if (!preempted) {
+                    now += left[job];
+                    left[job] = 0;
+                    run(job, start, now);
+                    complete(job, now);
+                }
+                running = NONE;
+            }
+        }
+    }
+
+    // See RoundRobinEngine, including the fast-forward over full rounds
+    static class RoundRobin extends OnlineScheduler {
+
+        private final int quantum;
+        private final IntQueue readyQ = new IntQueue(64);
+        private int[] round = new int[64];
+        private String[] roundNames = new String[64];
+        private int holdOff;
+
+        RoundRobin(SchedulerEngine engine, StreamSink sink, int quantum) {
+            super(engine, sink);
+            this.quantum = quantum;
+        }
+
+        @Override
+        void advance() {
+            int q = quantum;
+            while (true) {
+                if (readyQ.isEmpty()) {
+                    if (pending.isEmpty()) return;
+                    int nextArr = Math.max(now, nextArrival());
+                    if (!known(nextArr)) return;
+                    idle(now, nextArr);
+                    now = nextArr;
+                    admit();
+                    continue;
+                }
+
+                // The slice needs the arrivals up to its end, which queue before the job
+                int current = readyQ.peek();
+                int exec = Math.min(left[current], q);
+                if (!known(now + exec)) return;
+
+                if (holdOff > 0) {
+                    holdOff--;
+                } else {
+                    int m = readyQ.size();
+                    long room = (pending.isEmpty() ? Integer.MAX_VALUE : nextArrival()) - (long) now - 1;
+                    long rounds = room / ((long) m * q);
+                    if (rounds > 0) {
+                        int rmin = Integer.MAX_VALUE;
+                        for (int i = 0; i < m; i++) rmin = Math.min(rmin, left[readyQ.get(i)]);
+                        rounds = Math.min(rounds, (rmin - 1) / q);
+                        if (rounds > 0) {
+                            int k = (int) rounds;
+                            if (round.length < m) {
+                                round = Arrays.copyOf(round, Math.max(m, round.length * 2));
+                                roundNames = new String[round.length];
+                            }
+                            for (int i = 0; i < m; i++) {
+                                int j = readyQ.get(i);
+                                round[i] = j;
+                                dispatch(j, now + i * q);
+                                left[j] -= k * q;
+                            }
+                            rounds(round, roundNames, m, now, q, k);
+                            now += k * m * q;
+                            continue;
+                        }
+                        holdOff = m;
+                    }
+                }
+
+                readyQ.poll();
+                dispatch(current, now);
+                run(current, now, now + exec);
+                now += exec;
+                left[current] -= exec;
+                admit();
+
+                if (left[current] > 0) {
+                    readyQ.add(current);
+                } else {
+                    complete(current, now);
+                }
+            }
+        }
+
+        private void admit() {
+            while (!pending.isEmpty() && nextArrival() <= now) readyQ.add(pending.poll());
+        }
+    }
+
+    // See MlfqEngine. A slice may be cut short by an arrival for a higher level, so it only
+    // starts once every arrival before its end is known; until then the job stays at the
+    // head of its level.
+    static class Mlfq extends OnlineScheduler {
+
+        private final int[] quanta;
+        private final int boostInterval;
+        private final int[] head, tail;
+        private int[] next = new int[64];
+        private int[] used = new int[64];
+        private int[] usedEpoch = new int[64];
+        private long nonEmpty;
+        private int epoch;
+        private long nextBoost;
+
+        Mlfq(MlfqEngine engine, StreamSink sink) {
+            super(engine, sink);
+            quanta = engine.quanta();
+            boostInterval = engine.boostInterval();
+            head = new int[quanta.length];
+            tail = new int[quanta.length];
+            Arrays.fill(head, NONE);
+            Arrays.fill(tail, NONE);
+            nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+        }
+
+        @Override
+        void grow(int capacity) {
+            super.grow(capacity);
+            next = Arrays.copyOf(next, capacity);
+            used = Arrays.copyOf(used, capacity);
+            usedEpoch = Arrays.copyOf(usedEpoch, capacity);
+        }
+
+        @Override
+        void advance() {
+            int levels = quanta.length;
+            while (nonEmpty != 0 || !pending.isEmpty()) {
+                if (!known(now)) return;
+                admit();
+
+                if (now >= nextBoost) {
+                    // Splice every lower list behind the top one
+                    for (int lvl = 1; lvl < levels; lvl++) {
+                        if (head[lvl] == NONE) continue;
+                        if (head[0] == NONE) head[0] = head[lvl]; else next[tail[0]] = head[lvl];
+                        tail[0] = tail[lvl];
+                        head[lvl] = tail[lvl] = NONE;
+                    }
+                    nonEmpty = head[0] == NONE ? 0 : 1;
+                    epoch++;
+                    nextBoost = ((long) now / boostInterval + 1) * boostInterval;
+                }
+
+                if (nonEmpty == 0) {
+                    int nextArr = nextArrival();
+                    idle(now, nextArr);
+                    now = nextArr;
+                    // Boosts inside the idle gap had nothing to move
+                    if (nextBoost < now) nextBoost = ((long) now + boostInterval - 1) / boostInterval * boostInterval;
+                    continue;
+                }
+
+                int lvl = Long.numberOfTrailingZeros(nonEmpty);
+                int job = head[lvl];
+                if (usedEpoch[job] != epoch) {
+                    used[job] = 0;
+                    usedEpoch[job] = epoch;
+                }
+
+                // Arrivals for this level or lower are queued as they come
+                long limit = Math.min((long) now + Math.min(left[job], quanta[lvl] - used[job]), nextBoost);
+                while (!pending.isEmpty() && nextArrival() < limit) {
+                    int j = pending.peek();
+                    if (!known(arrival[j])) return;
+                    int entry = entryLevel(j);
+                    if (entry < lvl) {
+                        limit = arrival[j];
+                        break;
+                    }
+                    pending.poll();
+                    pushBack(entry, j);
+                }
+                if (!known((int) limit)) return;
+
+                head[lvl] = next[job];
+                if (head[lvl] == NONE) {
+                    tail[lvl] = NONE;
+                    nonEmpty &= ~(1L << lvl);
+                }
+                dispatch(job, now);
+
+                int end = (int) limit;
+                run(job, now, end);
+                left[job] -= end - now;
+                used[job] += end - now;
+                now = end;
+
+                // Same order as Round Robin: arrivals at this instant queue before the job
+                admit();
+
+                if (left[job] == 0) {
+                    complete(job, now);
+                } else if (used[job] >= quanta[lvl]) {
+                    used[job] = 0;
+                    pushBack(Math.min(lvl + 1, levels - 1), job);
+                } else {
+                    // Preempted (or boosted) before its quantum ran out: resumes first on its level
+                    next[job] = head[lvl];
+                    head[lvl] = job;
+                    if (tail[lvl] == NONE) tail[lvl] = job;
+                    nonEmpty |= 1L << lvl;
+                }
+            }
+        }
+
+        private void admit() {
+            while (!pending.isEmpty() && nextArrival() <= now) pushBack(entryLevel(pending.peek()), pending.poll());
+        }
+
+        private int entryLevel(int slot) {
+            return Math.max(0, Math.min(level[slot] - 1, quanta.length - 1));
+        }
+
+        private void pushBack(int lvl, int job) {
+            next[job] = NONE;
+            if (tail[lvl] == NONE) head[lvl] = job; else next[tail[lvl]] = job;
+            tail[lvl] = job;
+            nonEmpty |= 1L << lvl;
+            used[job] = 0;
+            usedEpoch[job] = epoch;
+        }
+    }
+}
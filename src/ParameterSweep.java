@@ -0,0 +1,124 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Runs every algorithm once and Round Robin for a range of quanta over the same input, one
+// task per configuration on the common fork/join pool. Every run works on its own fork of the
+// job table and keeps no timeline, only the aggregates. With a result cache, configurations
+// already simulated on the same input are loaded instead.
+public class ParameterSweep {
+
+    public static class Row {
+        public final String algorithm;
+        // Time slice (the top level's for MLFQ), 0 for the algorithms without one
+        public final int quantum;
+        public final boolean roundRobin;
+        public final double avgWait, avgTurnaround, utilization;
+        public final long contextSwitches;
+        public final long elapsedNanos;
+
+        Row(SchedulerEngine engine, SimulationResult r, long elapsedNanos) {
+            this.algorithm = engine.name();
+            this.quantum = quantum(engine);
+            this.roundRobin = engine instanceof RoundRobinEngine;
+            this.avgWait = r.avgWait();
+            this.avgTurnaround = r.avgTurnaround();
+            this.utilization = r.utilization();
+            this.contextSwitches = r.contextSwitches();
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private static int quantum(SchedulerEngine engine) {
+            if (engine instanceof RoundRobinEngine) return ((RoundRobinEngine) engine).quantum();
+            if (engine instanceof MlfqEngine) return ((MlfqEngine) engine).quanta()[0];
+            if (engine instanceof ProportionalShareEngine) return ((ProportionalShareEngine) engine).quantum();
+            return 0;
+        }
+    }
+
+    // Most Round Robin quanta one sweep may try
+    static final int MAX_QUANTA = 10_000;
+
+    private final AtomicInteger finished = new AtomicInteger();
+    private volatile boolean cancelled;
+    private final ResultCache cache;
+
+    public ParameterSweep() {
+        this(null);
+    }
+
+    public ParameterSweep(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    // The other algorithms once, followed by Round Robin for every quantum in [from, to]
+    public static List<SchedulerEngine> engines(int from, int to, int step) {
+        if (from <= 0 || to < from || step <= 0) {
+            throw new IllegalArgumentException("Quantum range must satisfy 0 < from <= to and step > 0");
+        }
+        long quanta = ((long) to - from) / step + 1;
+        if (quanta > MAX_QUANTA) {
+            throw new IllegalArgumentException(String.format("Quantum range has %,d values, at most %,d are allowed; "
+                    + "use a larger step", quanta, MAX_QUANTA));
+        }
+        List<SchedulerEngine> engines = new ArrayList<>();
+        engines.add(new FcfsEngine());
+        engines.add(new SjfEngine());
+        engines.add(new SrtfEngine());
+        engines.add(new PriorityEngine());
+        engines.add(new PreemptivePriorityEngine());
+        engines.add(MlfqEngine.withQuantum(from));
+        engines.add(new LotteryEngine(from));
+        engines.add(new StrideEngine(from));
+        // long, so that a range ending near Integer.MAX_VALUE cannot overflow
+        for (long q = from; q <= to; q += step) engines.add(new RoundRobinEngine((int) q));
+        return engines;
+    }
+
+    // Rows are returned in the order of the engines
+    public List<Row> run(JobTable jobs, List<SchedulerEngine> engines) {
+        // Computed once here so that all forks share the cached order and digest
+        jobs.arrivalOrder();
+        if (cache != null) jobs.digest();
+
+        SimulationMonitor monitor = new SimulationMonitor() {
+            @Override
+            public void progress(SimulationResult partial, int now) {
+                if (cancelled) throw new CancellationException();
+            }
+
+            @Override
+            public boolean keepTimeline() {
+                return false;
+            }
+        };
+
+        return IntStream.range(0, engines.size()).parallel()
+                .mapToObj(i -> {
+                    if (cancelled) throw new CancellationException();
+                    SchedulerEngine engine = engines.get(i);
+                    long t0 = System.nanoTime();
+                    JobTable fork = jobs.fork();
+                    SimulationResult r = cache == null ? null : cache.get(fork, engine, false);
+                    if (r == null) {
+                        r = engine.run(fork, monitor);
+                        if (cache != null) cache.put(fork, engine, r);
+                    }
+                    Row row = new Row(engine, r, System.nanoTime() - t0);
+                    finished.incrementAndGet();
+                    return row;
+                })
+                .collect(Collectors.toList());
+    }
+
+    public int finished() {
+        return finished.get();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+}
@@ -0,0 +1,83 @@
+// Event-driven core shared by SRTF and preemptive Priority. The only events are arrivals and
+// completions: the running job is charged up to the next arrival instant, the newcomers are
+// admitted, and only then is the ready queue asked whether someone now ranks higher.
+abstract class PreemptiveEngine implements ResumableEngine {
+
+    // Heap key of a job at this moment; ties are broken on arrival and then input order,
+    // so an equal newcomer never preempts the running job
+    protected abstract int key(JobTable jobs, int job);
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        return resume(new SimulationResult(jobs, monitor), null);
+    }
+
+    @Override
+    public SimulationResult resume(SimulationResult result, Checkpoint from) {
+        JobTable jobs = result.jobs;
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, left = jobs.left;
+
+        // Entries are (key << 32 | position in arrival order)
+        LongHeap readyQ = new LongHeap(64);
+
+        int now = 0, idx = 0;
+        int total = order.length;
+        if (from != null) {
+            now = from.now;
+            idx = from.admitted;
+            from.refill(readyQ, jobs, order);
+        }
+
+        while (idx < total || !readyQ.isEmpty()) {
+            if (result.checkpointDue(readyQ.size())) result.checkpoint(now, idx, readyQ, order);
+            while (idx < total && arrival[order[idx]] <= now) {
+                readyQ.add(((long) key(jobs, order[idx]) << 32) | idx);
+                idx++;
+            }
+
+            if (readyQ.isEmpty()) {
+                int nextArr = arrival[order[idx]];
+                timeline.add(Timeline.IDLE, now, nextArr);
+                now = nextArr;
+                continue;
+            }
+
+            int pos = (int) readyQ.poll();
+            int job = order[pos];
+            int start = now;
+            result.dispatch(job, start);
+
+            // Run until completion or until an arrival outranks the job
+            boolean preempted = false;
+            while (idx < total && arrival[order[idx]] < now + left[job]) {
+                int at = arrival[order[idx]];
+                left[job] -= at - now;
+                now = at;
+                long current = ((long) key(jobs, job) << 32) | pos;
+                long best = Long.MAX_VALUE;
+                while (idx < total && arrival[order[idx]] == now) {
+                    long entry = ((long) key(jobs, order[idx]) << 32) | idx;
+                    readyQ.add(entry);
+                    if (entry < best) best = entry;
+                    idx++;
+                }
+                if (best < current) {
+                    timeline.add(job, start, now);
+                    readyQ.add(current);
+                    preempted = true;
+                    break;
+                }
+            }
+            if (!preempted) {
+                now += left[job];
+                left[job] = 0;
+                timeline.add(job, start, now);
+                result.complete(job, now);
+            }
+            result.step(now);
+        }
+        return result;
+    }
+}
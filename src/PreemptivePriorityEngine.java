@@ -0,0 +1,12 @@
+public class PreemptivePriorityEngine extends PreemptiveEngine {
+
+    @Override
+    public String name() {
+        return "Priority (Preemptive)";
+    }
+
+    @Override
+    protected int key(JobTable jobs, int job) {
+        return jobs.level[job];
+    }
+}
@@ -0,0 +1,12 @@
+public class PriorityEngine extends NonPreemptiveEngine {
+
+    @Override
+    public String name() {
+        return "Priority (Non-Preemptive)";
+    }
+
+    @Override
+    protected int key(JobTable jobs, int job) {
+        return jobs.level[job];
+    }
+}
@@ -1,13 +1,25 @@
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.JTableHeader;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 public class ProcessScheduler extends JFrame {
 
@@ -17,73 +29,60 @@ public class ProcessScheduler extends JFrame {
     private final Color BG_COLOR = new Color(236, 240, 241);     // Açık Gri
     private final Color TEXT_COLOR = new Color(44, 62, 80);      // Koyu Lacivert
 
-    // Job Class
-    static class Job implements Comparable<Job> {
-        String name;
-        int arrival;
-        int duration;
-        int level;
-
-        int start;
-        int end;
-        int turnaround;
-        int wait;
-        int left;
-
-        public Job(String name, int arrival, int duration, int level) {
-            this.name = name;
-            this.arrival = arrival;
-            this.duration = duration;
-            this.level = level;
-            this.left = duration;
-        }
-
-        public Job duplicate() {
-            return new Job(this.name, this.arrival, this.duration, this.level);
-        }
-
-        @Override
-        public int compareTo(Job other) {
-            return Integer.compare(this.arrival, other.arrival);
-        }
-    }
-
-    // Chart Segment
-    static class ChartSegment {
-        String owner;
-        int in;
-        int out;
+    // Files above this size are streamed from disk, the editor only shows a preview
+    private static final long PREVIEW_THRESHOLD = 1 << 20;
+    private static final int PREVIEW_LINES = 1000;
+    private static final String INPUT_TITLE = " Edit Process Data Here (P_ID, Arrival, Burst, Priority) ";
 
-        public ChartSegment(String owner, int in, int out) {
-            this.owner = owner;
-            this.in = in;
-            this.out = out;
-        }
-    }
-
-    // Read-Only Table Model
-    class NonEditableTableModel extends DefaultTableModel {
-        NonEditableTableModel(Object[] columnNames, int rowCount) {
-            super(columnNames, rowCount);
-        }
-
-        @Override
-        public boolean isCellEditable(int row, int column) {
-            return false;
-        }
-    }
+    // Minimum gap between two partial updates of a running simulation
+    private static final long PUBLISH_INTERVAL_NS = 250_000_000L;
+    // Live mode waits this long after the last keystroke before it re-simulates
+    private static final int LIVE_DELAY_MS = 200;
 
     // GUI Components
     private JTextArea txtInput;
     private JTable tblStats;
-    private NonEditableTableModel modelStats;
+    private ResultsTableModel modelStats;
+    private JTextField txtFilter;
+    private JLabel lblRows;
     private VisualizationPanel pnlChart;
     private JComboBox<String> cmbStrategy;
-    private JTextField txtQuantum;
-    private JLabel lblAvgWait, lblAvgTurn, lblUtil;
+    private JTextField txtQuantum, txtBoost, txtSeed, txtCpus;
+    private JComboBox<String> cmbBalancer, cmbAffinity;
+    private JLabel lblAvgWait, lblAvgTurn, lblUtil, lblThroughput, lblSwitches;
+    private JLabel lblWaitPct, lblTurnPct, lblResponsePct;
+    private TitledBorder inputBorder;
+    private JButton btnRun, btnCancel, btnExport;
+    // Open while the user looks at the phase breakdown of the runs
+    private DiagnosticsDialog diagnostics;
+    private JCheckBox chkLive;
+    private JProgressBar prgRun;
 
     // Veri kaynağımız dinamik, Run butonuna basınca doldurulacak.
-    private List<Job> rawData = new ArrayList<>();
+    private JobTable rawData;
+    // The input changed since rawData was parsed
+    private boolean inputDirty = true;
+    // The result on screen, for Export, and where its time went, for Diagnostics
+    private SimulationResult shownResult;
+    private GanttSummary[] shownSummaries;
+    private RunProfile shownProfile;
+
+    private SimulationWorker worker;
+    // Finished runs by input and engine, see ResultCache
+    private final ResultCache cache = ResultCache.standard();
+
+    // Live mode: the parsed editor text, the run in progress and the debounce timer
+    private LiveSession live;
+    private LiveWorker liveWorker;
+    private javax.swing.Timer liveTimer;
+    // Edits arrived while a run was busy
+    private boolean livePending;
+    private int editCount;
+
+    // Set while a large file is loaded in preview mode; Run parses the file instead of the editor
+    private File traceFile;
+    // Set while a generated workload is loaded; Run generates the jobs straight into the table
+    private WorkloadGenerator generator;
 
     public ProcessScheduler() {
         setTitle("Gokberk Ceviker OS_HOMEWORK");
@@ -99,17 +98,46 @@ public class ProcessScheduler extends JFrame {
     }
 
     private void initUI() {
-        // --- Top Panel ---
-        JPanel pnlTop = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 15));
+        // --- Top Panel --- (input and algorithm on the first row, CPUs and run controls on the second)
+        JPanel pnlTop = new JPanel(new GridLayout(2, 1));
         pnlTop.setBackground(Color.WHITE);
         pnlTop.setBorder(BorderFactory.createMatteBorder(0, 0, 2, 0, new Color(189, 195, 199)));
+        JPanel pnlRow1 = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 10));
+        JPanel pnlRow2 = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 5));
+        pnlRow1.setBackground(Color.WHITE);
+        pnlRow2.setBackground(Color.WHITE);
 
         JButton btnLoad = createStyledButton("Load File", PRIMARY_COLOR);
+        JButton btnGenerate = createStyledButton("Generate...", PRIMARY_COLOR);
 
         // --- DEĞİŞİKLİK: Run butonu artık PRIMARY_COLOR (Mavi) ---
-        JButton btnRun = createStyledButton("Run Simulation", PRIMARY_COLOR);
-
-        cmbStrategy = new JComboBox<>(new String[]{"FCFS", "SJF (Non-Preemptive)", "Priority (Non-Preemptive)", "Round Robin"});
+        btnRun = createStyledButton("Run Simulation", PRIMARY_COLOR);
+        btnCancel = createStyledButton("Cancel", new Color(231, 76, 60));
+        btnCancel.setEnabled(false);
+        JButton btnCompare = createStyledButton("Compare...", PRIMARY_COLOR);
+        JButton btnStream = createStyledButton("Stream...", PRIMARY_COLOR);
+        btnStream.setToolTipText("Schedule jobs online as they come from a file, named pipe or localhost port");
+        btnExport = createStyledButton("Export...", PRIMARY_COLOR);
+        btnExport.setToolTipText("Write the per-job results and the timeline of the last run to CSV or binary files");
+        btnExport.setEnabled(false);
+        JButton btnDiagnostics = createStyledButton("Diagnostics...", PRIMARY_COLOR);
+        btnDiagnostics.setToolTipText("Where the time of the last run went: parse, simulation, GC, table and chart");
+
+        chkLive = new JCheckBox("Live");
+        chkLive.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        chkLive.setForeground(TEXT_COLOR);
+        chkLive.setBackground(Color.WHITE);
+        chkLive.setToolTipText("Re-simulate while you edit the process data");
+        liveTimer = new javax.swing.Timer(LIVE_DELAY_MS, e -> runLive());
+        liveTimer.setRepeats(false);
+
+        prgRun = new JProgressBar();
+        prgRun.setStringPainted(true);
+        prgRun.setString("Idle");
+        prgRun.setPreferredSize(new Dimension(230, 26));
+
+        cmbStrategy = new JComboBox<>(new String[]{"FCFS", "SJF (Non-Preemptive)", "SRTF (Preemptive)",
+                "Priority (Non-Preemptive)", "Priority (Preemptive)", "Round Robin", "MLFQ", "Lottery", "Stride"});
         cmbStrategy.setFont(new Font("Segoe UI", Font.PLAIN, 14));
         cmbStrategy.setBackground(Color.WHITE);
 
@@ -117,23 +145,83 @@ public class ProcessScheduler extends JFrame {
         txtQuantum.setFont(new Font("Segoe UI", Font.BOLD, 14));
         txtQuantum.setHorizontalAlignment(JTextField.CENTER);
         txtQuantum.setEnabled(false);
+        txtQuantum.setToolTipText("Round Robin, Lottery, Stride: one quantum. MLFQ: the top-level quantum (levels double) or one per level, e.g. 2,4,8");
+
+        // MLFQ only: empty = 25 x the top-level quantum, 0 = no boosts
+        txtBoost = new JTextField("", 4);
+        txtBoost.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        txtBoost.setHorizontalAlignment(JTextField.CENTER);
+        txtBoost.setEnabled(false);
+        txtBoost.setBackground(new Color(220, 220, 220));
+        txtBoost.setToolTipText("MLFQ boost interval: all jobs move to the top level this often (empty = 25 x top quantum, 0 = off)");
+
+        // Lottery only: the same seed gives the same draws
+        txtSeed = new JTextField(String.valueOf(LotteryEngine.DEFAULT_SEED), 4);
+        txtSeed.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        txtSeed.setHorizontalAlignment(JTextField.CENTER);
+        txtSeed.setEnabled(false);
+        txtSeed.setBackground(new Color(220, 220, 220));
+        txtSeed.setToolTipText("Lottery random seed: the same seed always draws the same schedule");
 
         cmbStrategy.addActionListener(e -> {
-            boolean isRR = ((String) cmbStrategy.getSelectedItem()).startsWith("Round");
-            txtQuantum.setEnabled(isRR);
-            txtQuantum.setBackground(isRR ? Color.WHITE : new Color(220, 220, 220));
+            String selected = (String) cmbStrategy.getSelectedItem();
+            boolean isMlfq = selected.startsWith("MLFQ");
+            boolean isLottery = selected.startsWith("Lottery");
+            boolean usesQuantum = selected.startsWith("Round") || isMlfq || isLottery || selected.startsWith("Stride");
+            txtQuantum.setEnabled(usesQuantum);
+            txtQuantum.setBackground(usesQuantum ? Color.WHITE : new Color(220, 220, 220));
+            txtBoost.setEnabled(isMlfq);
+            txtBoost.setBackground(isMlfq ? Color.WHITE : new Color(220, 220, 220));
+            txtSeed.setEnabled(isLottery);
+            txtSeed.setBackground(isLottery ? Color.WHITE : new Color(220, 220, 220));
+            if (live != null) liveTimer.restart();
         });
 
-        pnlTop.add(createLabel("Input File:"));
-        pnlTop.add(btnLoad);
-        pnlTop.add(Box.createHorizontalStrut(20));
-        pnlTop.add(createLabel("Algorithm:"));
-        pnlTop.add(cmbStrategy);
-        pnlTop.add(createLabel("Time Quantum:"));
-        pnlTop.add(txtQuantum);
-        pnlTop.add(Box.createHorizontalStrut(20));
-        pnlTop.add(btnRun);
-
+        // Multi-CPU settings; the balancer and affinity only matter for more than one CPU
+        txtCpus = new JTextField("1", 3);
+        txtCpus.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        txtCpus.setHorizontalAlignment(JTextField.CENTER);
+        txtCpus.setToolTipText("Number of CPUs. FCFS, SJF, Priority (Non-Preemptive) and Round Robin run on more than one.");
+
+        cmbBalancer = new JComboBox<>(new String[]{"Global queue", "Per-core + work stealing"});
+        cmbBalancer.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        cmbBalancer.setBackground(Color.WHITE);
+        cmbAffinity = new JComboBox<>(new String[]{"None", "Soft", "Hard"});
+        cmbAffinity.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        cmbAffinity.setBackground(Color.WHITE);
+        cmbAffinity.setEnabled(false);
+        cmbAffinity.setToolTipText("Where a preempted job is queued again with per-core queues (Hard = never stolen)");
+        cmbBalancer.addActionListener(e -> cmbAffinity.setEnabled(cmbBalancer.getSelectedIndex() == 1));
+
+        pnlRow1.add(createLabel("Input File:"));
+        pnlRow1.add(btnLoad);
+        pnlRow1.add(btnGenerate);
+        pnlRow1.add(Box.createHorizontalStrut(20));
+        pnlRow1.add(createLabel("Algorithm:"));
+        pnlRow1.add(cmbStrategy);
+        pnlRow1.add(createLabel("Time Quantum:"));
+        pnlRow1.add(txtQuantum);
+        pnlRow1.add(createLabel("Boost:"));
+        pnlRow1.add(txtBoost);
+        pnlRow1.add(createLabel("Seed:"));
+        pnlRow1.add(txtSeed);
+        pnlRow2.add(createLabel("CPUs:"));
+        pnlRow2.add(txtCpus);
+        pnlRow2.add(cmbBalancer);
+        pnlRow2.add(createLabel("Affinity:"));
+        pnlRow2.add(cmbAffinity);
+        pnlRow2.add(Box.createHorizontalStrut(20));
+        pnlRow2.add(btnRun);
+        pnlRow2.add(btnCancel);
+        pnlRow2.add(chkLive);
+        pnlRow2.add(prgRun);
+        pnlRow2.add(btnCompare);
+        pnlRow2.add(btnStream);
+        pnlRow2.add(btnExport);
+        pnlRow2.add(btnDiagnostics);
+
+        pnlTop.add(pnlRow1);
+        pnlTop.add(pnlRow2);
         add(pnlTop, BorderLayout.NORTH);
 
         // --- Center Panel ---
@@ -147,16 +235,27 @@ public class ProcessScheduler extends JFrame {
         txtInput.setEditable(true);
         txtInput.setFont(new Font("Monospaced", Font.PLAIN, 14));
         txtInput.setBorder(new EmptyBorder(5,5,5,5));
+        txtInput.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { inputChanged(e); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { inputChanged(e); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
 
         JScrollPane scrollInput = new JScrollPane(txtInput);
-        scrollInput.setBorder(BorderFactory.createTitledBorder(
-                BorderFactory.createLineBorder(PRIMARY_COLOR, 2), " Edit Process Data Here (P_ID, Arrival, Burst, Priority) ",
-                0, 0, new Font("Segoe UI", Font.BOLD, 12), PRIMARY_COLOR));
+        inputBorder = BorderFactory.createTitledBorder(
+                BorderFactory.createLineBorder(PRIMARY_COLOR, 2), INPUT_TITLE,
+                0, 0, new Font("Segoe UI", Font.BOLD, 12), PRIMARY_COLOR);
+        scrollInput.setBorder(inputBorder);
         scrollInput.setBackground(Color.WHITE);
 
-        String[] cols = {"ID", "Arrival", "Burst", "Priority", "Finish", "Turnaround", "Waiting"};
-        modelStats = new NonEditableTableModel(cols, 0);
+        modelStats = new ResultsTableModel();
         tblStats = new JTable(modelStats);
+        modelStats.install(tblStats);
 
         tblStats.setRowHeight(25);
         tblStats.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -175,19 +274,59 @@ public class ProcessScheduler extends JFrame {
                 0, 0, new Font("Segoe UI", Font.BOLD, 12), ACCENT_COLOR));
         scrollTable.getViewport().setBackground(Color.WHITE);
 
-        JPanel pnlStats = new JPanel(new FlowLayout(FlowLayout.CENTER, 40, 10));
+        // Averages on the first row, latency percentiles on the second
+        JPanel pnlStats = new JPanel(new GridLayout(2, 1));
         pnlStats.setBackground(Color.WHITE);
         pnlStats.setBorder(new EmptyBorder(5,0,5,0));
+        JPanel pnlAverages = new JPanel(new FlowLayout(FlowLayout.CENTER, 40, 5));
+        JPanel pnlPercentiles = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 5));
+        pnlAverages.setBackground(Color.WHITE);
+        pnlPercentiles.setBackground(Color.WHITE);
 
         lblAvgTurn = createStatLabel("Avg Turnaround: 0.0");
         lblAvgWait = createStatLabel("Avg Waiting: 0.0");
         lblUtil = createStatLabel("CPU Utilization: 0%");
-
-        pnlStats.add(lblAvgTurn);
-        pnlStats.add(lblAvgWait);
-        pnlStats.add(lblUtil);
+        lblThroughput = createStatLabel("Throughput: 0");
+        lblSwitches = createStatLabel("Context Switches: 0");
+        lblWaitPct = createPercentileLabel("Waiting", null);
+        lblTurnPct = createPercentileLabel("Turnaround", null);
+        lblResponsePct = createPercentileLabel("Response", null);
+        lblResponsePct.setToolTipText("Time from arrival to the first time on the CPU");
+
+        pnlAverages.add(lblAvgTurn);
+        pnlAverages.add(lblAvgWait);
+        pnlAverages.add(lblUtil);
+        pnlAverages.add(lblThroughput);
+        pnlAverages.add(lblSwitches);
+        pnlPercentiles.add(lblWaitPct);
+        pnlPercentiles.add(lblTurnPct);
+        pnlPercentiles.add(lblResponsePct);
+        pnlStats.add(pnlAverages);
+        pnlStats.add(pnlPercentiles);
+
+        // Filters the results by job ID as you type
+        txtFilter = new JTextField(12);
+        txtFilter.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        txtFilter.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { applyFilter(); }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) { applyFilter(); }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        lblRows = new JLabel(" ");
+        lblRows.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        JPanel pnlFilter = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 2));
+        pnlFilter.setBackground(BG_COLOR);
+        pnlFilter.add(new JLabel("Filter ID:"));
+        pnlFilter.add(txtFilter);
+        pnlFilter.add(lblRows);
 
         JPanel pnlCenterBottom = new JPanel(new BorderLayout());
+        pnlCenterBottom.add(pnlFilter, BorderLayout.NORTH);
         pnlCenterBottom.add(scrollTable, BorderLayout.CENTER);
         pnlCenterBottom.add(pnlStats, BorderLayout.SOUTH);
 
@@ -206,7 +345,7 @@ public class ProcessScheduler extends JFrame {
         pnlChart = new VisualizationPanel();
         pnlChart.setPreferredSize(new Dimension(1000, 140));
         pnlChart.setBorder(BorderFactory.createTitledBorder(
-                BorderFactory.createLineBorder(Color.GRAY), " Gantt Visualization ",
+                BorderFactory.createLineBorder(Color.GRAY), " Gantt Visualization (wheel: zoom, drag: pan, double-click: reset) ",
                 0, 0, new Font("Segoe UI", Font.BOLD, 12), Color.DARK_GRAY));
         pnlChart.setBackground(Color.WHITE);
 
@@ -219,7 +358,16 @@ public class ProcessScheduler extends JFrame {
 
         // Actions
         btnLoad.addActionListener(e -> browseFile());
+        btnGenerate.addActionListener(e -> openGenerator());
         btnRun.addActionListener(e -> startSimulation());
+        btnCancel.addActionListener(e -> {
+            if (worker != null) worker.cancel(true);
+        });
+        btnCompare.addActionListener(e -> openComparison());
+        btnStream.addActionListener(e -> new StreamDialog(this, this::buildEngine).setVisible(true));
+        btnExport.addActionListener(e -> exportResult());
+        btnDiagnostics.addActionListener(e -> openDiagnostics());
+        chkLive.addActionListener(e -> setLive(chkLive.isSelected()));
     }
 
     // --- Helper Methods ---
@@ -241,47 +389,116 @@ public class ProcessScheduler extends JFrame {
     }
 
     private void loadTextFromFile(File file) {
+        boolean preview = file.length() > PREVIEW_THRESHOLD;
         StringBuilder sb = new StringBuilder();
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
-            while ((line = br.readLine()) != null) {
+            int lines = 0;
+            while ((line = br.readLine()) != null && (!preview || lines++ < PREVIEW_LINES)) {
                 sb.append(line).append("\n");
             }
             txtInput.setText(sb.toString());
             txtInput.setCaretPosition(0);
+
+            // Huge traces are not editable, the full file is parsed on Run
+            traceFile = preview ? file : null;
+            generator = null;
+            inputDirty = true;
+            txtInput.setEditable(!preview);
+            allowLive(!preview);
+            setInputTitle(preview
+                    ? " Preview of " + file.getName() + " (first " + PREVIEW_LINES + " lines, read-only) "
+                    : INPUT_TITLE);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "Read Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private boolean parseInputData() {
-        rawData.clear();
-        String content = txtInput.getText();
-        if (content.trim().isEmpty()) return false;
+    private void setInputTitle(String title) {
+        inputBorder.setTitle(title);
+        txtInput.getParent().getParent().repaint();
+    }
+
+    private void openGenerator() {
+        if (worker != null) return;
+        GeneratorPanel form = new GeneratorPanel();
+        String[] options = {"Load", "Save to File...", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(this, form, "Generate Workload", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+        if (choice != 0 && choice != 1) return;
 
-        String[] lines = content.split("\\n");
-        int lineNum = 0;
+        WorkloadGenerator gen;
         try {
-            for (String line : lines) {
-                lineNum++;
-                if (line.trim().isEmpty()) continue;
-                String[] token = line.split(",");
-                if (token.length < 4) {
-                    throw new Exception("Missing columns (Format: ID, Arrival, Burst, Priority)");
+            gen = form.toGenerator();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid setting: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (choice == 0) {
+            loadGenerated(gen);
+        } else {
+            saveGenerated(gen);
+        }
+    }
+
+    // Only the first jobs are shown; the same seed gives the same prefix for any job count
+    private void loadGenerated(WorkloadGenerator gen) {
+        int shown = Math.min(gen.jobs, PREVIEW_LINES);
+        StringBuilder sb = new StringBuilder();
+        gen.generate((JobSink) (name, arrival, burst, level) ->
+                sb.append(name).append(", ").append(arrival).append(", ").append(burst).append(", ").append(level).append("\n"),
+                shown);
+        txtInput.setText(sb.toString());
+        txtInput.setCaretPosition(0);
+
+        generator = gen;
+        traceFile = null;
+        inputDirty = true;
+        txtInput.setEditable(false);
+        allowLive(false);
+        setInputTitle(String.format(" Generated workload: %,d jobs, seed %d (first %d shown, read-only) ",
+                gen.jobs, gen.seed, shown));
+    }
+
+    private void saveGenerated(WorkloadGenerator gen) {
+        JFileChooser fc = new JFileChooser(new File("."));
+        fc.setSelectedFile(new File("workload.txt"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = fc.getSelectedFile();
+
+        prgRun.setIndeterminate(true);
+        prgRun.setString("Writing " + file.getName() + "...");
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                gen.write(file);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                prgRun.setIndeterminate(false);
+                try {
+                    get();
+                    prgRun.setString(String.format("Wrote %,d jobs", gen.jobs));
+                    loadTextFromFile(file);
+                } catch (InterruptedException | ExecutionException e) {
+                    prgRun.setString("Idle");
+                    JOptionPane.showMessageDialog(ProcessScheduler.this, "Write Error: " + e.getCause().getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
                 }
-                rawData.add(new Job(token[0].trim(),
-                        Integer.parseInt(token[1].trim()),
-                        Integer.parseInt(token[2].trim()),
-                        Integer.parseInt(token[3].trim())));
             }
-            return true;
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this,
-                    "Error parsing line " + lineNum + ": " + e.getMessage() + "\n" +
-                            "Please correct the text in the editor and try again.",
-                    "Data Format Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+        }.execute();
+    }
+
+    // Runs on the worker thread
+    static JobTable parseText(String content) {
+        JobTable jobs = new JobTable();
+        String[] lines = content.split("\\n");
+        for (int i = 0; i < lines.length; i++) {
+            JobParser.parseLine(lines[i], i + 1, jobs);
         }
+        return jobs;
     }
 
     private JButton createStyledButton(String text, Color bg) {
@@ -308,256 +525,537 @@ public class ProcessScheduler extends JFrame {
         return lbl;
     }
 
+    private JLabel createPercentileLabel(String metric, LatencyHistogram hist) {
+        JLabel lbl = new JLabel();
+        lbl.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        lbl.setForeground(new Color(50, 50, 50));
+        setPercentiles(lbl, metric, hist);
+        return lbl;
+    }
+
+    private static void setPercentiles(JLabel lbl, String metric, LatencyHistogram hist) {
+        lbl.setText(metric + ": " + (hist == null || hist.count() == 0 ? "-" : hist.describe()));
+    }
+
     // --- Simulation Logic ---
 
     private void startSimulation() {
-        // Parse current text content
-        if (!parseInputData()) {
-            if (rawData.isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Input area is empty or invalid.", "Warning", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
+        if (worker != null) return;
+
+        if (inputDirty && traceFile == null && generator == null && txtInput.getText().trim().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Input area is empty or invalid.", "Warning", JOptionPane.WARNING_MESSAGE);
             return;
         }
 
-        List<Job> activeJobs = new ArrayList<>();
-        for (Job j : rawData) activeJobs.add(j.duplicate());
-
-        String mode = (String) cmbStrategy.getSelectedItem();
-        List<ChartSegment> timeline = new ArrayList<>();
-
         try {
-            if (mode.startsWith("Round")) {
-                int q = Integer.parseInt(txtQuantum.getText().trim());
-
-                // --- DEĞİŞİKLİK: Time Quantum Kontrolü ---
-                if (q <= 0) {
-                    JOptionPane.showMessageDialog(this, "Time Quantum must be a positive integer.", "Input Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-
-                calcRoundRobin(activeJobs, q, timeline);
-            } else if (mode.startsWith("Priority")) {
-                calcPriority(activeJobs, timeline);
-            } else if (mode.startsWith("SJF")) {
-                calcSJF(activeJobs, timeline);
-            } else {
-                calcFCFS(activeJobs, timeline);
+            SchedulerEngine engine = buildEngine();
+
+            // Unchanged input is not parsed again, the run only gets fresh per-run state
+            RunProfile profile = new RunProfile(engine.name());
+            JobTable forked = null;
+            if (!inputDirty) {
+                profile.setJobs(rawData.size());
+                profile.begin(RunProfile.Phase.COPY);
+                forked = rawData.fork();
+                profile.end(RunProfile.Phase.COPY);
             }
-            renderMetrics(activeJobs, timeline);
+            JobTable input = forked;
+            worker = new SimulationWorker(engine, inputDirty ? pendingInput() : () -> input, profile, inputDirty);
+            setRunning(true);
+            worker.execute();
 
         } catch (NumberFormatException ex) {
             JOptionPane.showMessageDialog(this, "Invalid Time Quantum value.", "Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private void calcRoundRobin(List<Job> jobs, int q, List<ChartSegment> timeline) {
-        jobs.sort(Comparator.comparingInt(j -> j.arrival));
-        Queue<Job> readyQ = new LinkedList<>();
+    // The engine the controls describe; NumberFormatException for a bad quantum, boost or seed
+    private SchedulerEngine buildEngine() {
+        String mode = (String) cmbStrategy.getSelectedItem();
+        int q = 0;
+        if (mode.startsWith("Round") || mode.startsWith("Lottery") || mode.startsWith("Stride")) {
+            q = Integer.parseInt(txtQuantum.getText().trim());
 
-        int now = 0, doneCount = 0, idx = 0;
-        int total = jobs.size();
+            // --- DEĞİŞİKLİK: Time Quantum Kontrolü ---
+            if (q <= 0) throw new IllegalArgumentException("Time Quantum must be a positive integer.");
+        }
 
-        while(idx < total && jobs.get(idx).arrival <= now) {
-            readyQ.add(jobs.get(idx++));
+        SchedulerEngine engine;
+        if (mode.startsWith("MLFQ")) {
+            int[] quanta = MlfqEngine.parseQuanta(txtQuantum.getText());
+            String boost = txtBoost.getText().trim();
+            engine = new MlfqEngine(quanta, boost.isEmpty()
+                    ? MlfqEngine.defaultBoost(quanta[0]) : Integer.parseInt(boost));
+        } else if (mode.startsWith("Lottery")) {
+            engine = new LotteryEngine(q, Long.parseLong(txtSeed.getText().trim()));
+        } else {
+            engine = SchedulerEngine.forName(mode, q);
         }
 
-        while(doneCount < total) {
-            if (readyQ.isEmpty()) {
-                if (idx < total) {
-                    int nextArr = jobs.get(idx).arrival;
-                    timeline.add(new ChartSegment("IDLE", now, nextArr));
-                    now = nextArr;
-                    while(idx < total && jobs.get(idx).arrival <= now) {
-                        readyQ.add(jobs.get(idx++));
-                    }
-                }
-                continue;
-            }
+        int cpus;
+        try {
+            cpus = Integer.parseInt(txtCpus.getText().trim());
+        } catch (NumberFormatException ex) {
+            cpus = 0;
+        }
+        if (cpus <= 0) throw new IllegalArgumentException("CPU count must be a positive integer.");
+        return SmpEngine.forCores(engine, cpus,
+                cmbBalancer.getSelectedIndex() == 0 ? SmpEngine.Balancer.GLOBAL : SmpEngine.Balancer.STEALING,
+                SmpEngine.Affinity.values()[cmbAffinity.getSelectedIndex()]);
+    }
 
-            Job current = readyQ.poll();
-            int exec = Math.min(current.left, q);
+    // --- Live Mode ---
 
-            timeline.add(new ChartSegment(current.name, now, now + exec));
-            now += exec;
-            current.left -= exec;
+    // Starts with a parsed copy of the whole editor text; every edit then updates only its lines
+    private void setLive(boolean on) {
+        live = on ? new LiveSession(txtInput.getText()) : null;
+        if (on) {
+            runLive();
+        } else {
+            liveTimer.stop();
+            livePending = false;
+        }
+    }
 
-            while(idx < total && jobs.get(idx).arrival <= now) {
-                readyQ.add(jobs.get(idx++));
-            }
+    // Previews of large files and generated workloads are read-only, so live mode is off
+    private void allowLive(boolean allowed) {
+        if (!allowed && chkLive.isSelected()) {
+            chkLive.setSelected(false);
+            setLive(false);
+        }
+        chkLive.setEnabled(allowed);
+    }
 
-            if (current.left > 0) {
-                readyQ.add(current);
-            } else {
-                current.end = now;
-                doneCount++;
+    // Passes the replaced lines to the live session; a change within one line has no element change
+    private void inputChanged(DocumentEvent e) {
+        inputDirty = true;
+        editCount++;
+        if (live == null) return;
+
+        Document doc = e.getDocument();
+        Element root = doc.getDefaultRootElement();
+        DocumentEvent.ElementChange change = e.getChange(root);
+        int line = change == null ? root.getElementIndex(e.getOffset()) : change.getIndex();
+        int removed = change == null ? 1 : change.getChildrenRemoved().length;
+        int added = change == null ? 1 : change.getChildrenAdded().length;
+        String[] text = new String[added];
+        try {
+            for (int i = 0; i < added; i++) {
+                Element el = root.getElement(line + i);
+                text[i] = doc.getText(el.getStartOffset(), el.getEndOffset() - el.getStartOffset()).replace("\n", "");
             }
+        } catch (BadLocationException ex) {
+            throw new IllegalStateException(ex);
         }
+        live.edit(line, removed, text);
+        liveTimer.restart();
     }
 
-    private void calcPriority(List<Job> jobs, List<ChartSegment> timeline) {
-        int now = 0, done = 0;
-        Set<String> finished = new HashSet<>();
+    private void runLive() {
+        if (live == null) return;
+        if (worker != null || liveWorker != null) {
+            livePending = true;
+            return;
+        }
+        SchedulerEngine engine;
+        try {
+            engine = buildEngine();
+        } catch (NumberFormatException ex) {
+            prgRun.setString("Live: invalid Time Quantum value");
+            return;
+        } catch (IllegalArgumentException ex) {
+            prgRun.setString("Live: " + ex.getMessage());
+            return;
+        }
+        liveWorker = new LiveWorker(live, engine, editCount);
+        liveWorker.execute();
+    }
 
-        while (done < jobs.size()) {
-            List<Job> ready = new ArrayList<>();
-            for (Job j : jobs) {
-                if (j.arrival <= now && !finished.contains(j.name)) ready.add(j);
-            }
+    private void runPendingLive() {
+        if (!livePending) return;
+        livePending = false;
+        runLive();
+    }
 
-            if (ready.isEmpty()) {
-                timeline.add(new ChartSegment("IDLE", now, ++now));
-            } else {
-                ready.sort((a, b) -> a.level != b.level ? Integer.compare(a.level, b.level) : Integer.compare(a.arrival, b.arrival));
-                Job picked = ready.get(0);
-                int start = now;
-                now += picked.duration;
-                picked.end = now;
-                finished.add(picked.name);
-                done++;
-                timeline.add(new ChartSegment(picked.name, start, now));
+    // Loads the current input on a worker thread: the generated workload, the trace file or the editor text
+    private Callable<JobTable> pendingInput() {
+        WorkloadGenerator gen = generator;
+        File file = traceFile;
+        String text = gen == null && file == null ? txtInput.getText() : null;
+        return () -> {
+            if (gen != null) return gen.generate();
+            if (file != null) {
+                JobTable jobs = new JobTable();
+                TraceParser.parse(file, jobs);
+                return jobs;
             }
-        }
+            return parseText(text);
+        };
     }
 
-    private void calcSJF(List<Job> jobs, List<ChartSegment> timeline) {
-        int now = 0, done = 0;
-        Set<String> finished = new HashSet<>();
-
-        while (done < jobs.size()) {
-            List<Job> ready = new ArrayList<>();
-            for (Job j : jobs) {
-                if (j.arrival <= now && !finished.contains(j.name)) ready.add(j);
+    // Writes <name>-jobs and <name>-timeline next to the chosen file, in the format of the
+    // chosen filter, on a worker thread
+    private void exportResult() {
+        SimulationResult result = shownResult;
+        JFileChooser fc = new JFileChooser(new File("."));
+        FileNameExtensionFilter csv = new FileNameExtensionFilter("CSV (*.csv)", "csv");
+        fc.addChoosableFileFilter(csv);
+        fc.addChoosableFileFilter(new FileNameExtensionFilter("Binary columnar (*.bin)", "bin"));
+        fc.setAcceptAllFileFilterUsed(false);
+        fc.setFileFilter(csv);
+        fc.setSelectedFile(new File("results"));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        ResultExporter.Format format = fc.getFileFilter() == csv ? ResultExporter.Format.CSV : ResultExporter.Format.BINARY;
+        String base = fc.getSelectedFile().getPath().replaceFirst("\\.(csv|bin)$", "");
+        File jobsFile = new File(base + "-jobs." + format.extension());
+        File timelineFile = new File(base + "-timeline." + format.extension());
+        btnExport.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                try (ResultExporter exporter = new ResultExporter(format, jobsFile, timelineFile)) {
+                    exporter.write(result);
+                }
+                return null;
             }
 
-            if (ready.isEmpty()) {
-                timeline.add(new ChartSegment("IDLE", now, ++now));
-            } else {
-                ready.sort((a, b) -> a.duration != b.duration ? Integer.compare(a.duration, b.duration) : Integer.compare(a.arrival, b.arrival));
-                Job picked = ready.get(0);
-                int start = now;
-                now += picked.duration;
-                picked.end = now;
-                finished.add(picked.name);
-                done++;
-                timeline.add(new ChartSegment(picked.name, start, now));
+            @Override
+            protected void done() {
+                btnExport.setEnabled(true);
+                try {
+                    get();
+                    prgRun.setString("Exported to " + jobsFile.getName() + ", " + timelineFile.getName());
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause.getCause() instanceof IOException) cause = cause.getCause();
+                    JOptionPane.showMessageDialog(ProcessScheduler.this, "Write Error: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
             }
-        }
+        }.execute();
     }
 
-    private void calcFCFS(List<Job> jobs, List<ChartSegment> timeline) {
-        jobs.sort(Comparator.comparingInt(j -> j.arrival));
-        int now = 0;
-
-        for (Job j : jobs) {
-            if (now < j.arrival) {
-                timeline.add(new ChartSegment("IDLE", now, j.arrival));
-                now = j.arrival;
-            }
-            int start = now;
-            now += j.duration;
-            j.end = now;
-            timeline.add(new ChartSegment(j.name, start, now));
-        }
+    // The sweep reads the current input, or the last parsed table if it did not change
+    private void openComparison() {
+        JobTable parsed = inputDirty ? null : rawData;
+        new SweepDialog(this, parsed != null ? () -> parsed : pendingInput(), cache).setVisible(true);
     }
 
-    private void renderMetrics(List<Job> jobs, List<ChartSegment> timeline) {
-        modelStats.setRowCount(0);
-        double sumWait = 0, sumTurn = 0, sumBurst = 0;
-        int maxEnd = 0;
+    private void setRunning(boolean running) {
+        btnRun.setEnabled(!running);
+        btnCancel.setEnabled(running);
+        prgRun.setIndeterminate(running);
+        prgRun.setValue(0);
+        prgRun.setString(running ? "Parsing..." : "Idle");
+    }
 
-        jobs.sort(Comparator.comparing(j -> j.name));
+    private void renderMetrics(SimulationResult result, GanttSummary[] summaries, RunProfile profile) {
+        shownResult = result;
+        shownSummaries = summaries;
+        btnExport.setEnabled(true);
+        profile.begin(RunProfile.Phase.TABLE);
+        modelStats.setResult(result);
+        updateRowCount();
+        profile.end(RunProfile.Phase.TABLE);
+
+        profile.begin(RunProfile.Phase.METRICS);
+
+        lblAvgWait.setText(String.format("Avg Waiting: %.2f", result.avgWait()));
+        lblAvgTurn.setText(String.format("Avg Turnaround: %.2f", result.avgTurnaround()));
+        lblThroughput.setText(String.format("Throughput: %.4f jobs/unit", result.throughput()));
+        lblSwitches.setText(String.format("Context Switches: %,d", result.contextSwitches()));
+        setPercentiles(lblWaitPct, "Waiting", result.waitHistogram());
+        setPercentiles(lblTurnPct, "Turnaround", result.turnaroundHistogram());
+        setPercentiles(lblResponsePct, "Response", result.responseHistogram());
+        if (result instanceof SmpResult) {
+            SmpResult smp = (SmpResult) result;
+            double min = 100, max = 0;
+            StringBuilder tip = new StringBuilder("<html>");
+            for (int c = 0; c < smp.cores(); c++) {
+                min = Math.min(min, smp.coreUtilization(c));
+                max = Math.max(max, smp.coreUtilization(c));
+                tip.append(String.format("CPU %d: %.1f%%, %,d dispatches, %,d steals, max queue %,d<br>",
+                        c, smp.coreUtilization(c), smp.dispatches(c), smp.steals(c), smp.maxQueue(c)));
+            }
+            tip.append(String.format("Imbalance: %.3f, contention: %,d, migrations: %,d</html>",
+                    smp.imbalance(), smp.contention(), smp.migrations()));
+            lblUtil.setText(String.format("CPU Utilization: %.1f%% (per CPU %.1f-%.1f%%)", smp.utilization(), min, max));
+            lblUtil.setToolTipText(tip.toString());
+        } else {
+            lblUtil.setText(String.format("CPU Utilization: %.1f%%", result.utilization()));
+            lblUtil.setToolTipText(null);
+        }
+        profile.end(RunProfile.Phase.METRICS);
 
-        for (Job j : jobs) {
-            j.turnaround = j.end - j.arrival;
-            j.wait = j.turnaround - j.duration;
+        showLanes(result.lanes().length);
+        pnlChart.drawData(result.lanes(), result.jobs, result.makespan(), summaries);
+        pnlChart.setProfile(profile);
+        shownProfile = profile;
+        if (diagnostics != null) diagnostics.setProfile(profile);
+    }
 
-            sumWait += j.wait;
-            sumTurn += j.turnaround;
-            sumBurst += j.duration;
-            if (j.end > maxEnd) maxEnd = j.end;
+    // After a cancelled or failed run: the averages and chart that process() replaced with the
+    // partial run go back to the last complete result, which the table and Export still show
+    private void restoreShown() {
+        if (shownResult == null) {
+            lblAvgWait.setText("Avg Waiting: 0.0");
+            lblAvgTurn.setText("Avg Turnaround: 0.0");
+            showLanes(1);
+            pnlChart.drawData((Timeline[]) null, null, 0, null);
+            return;
+        }
+        lblAvgWait.setText(String.format("Avg Waiting: %.2f", shownResult.avgWait()));
+        lblAvgTurn.setText(String.format("Avg Turnaround: %.2f", shownResult.avgTurnaround()));
+        showLanes(shownResult.lanes().length);
+        pnlChart.drawData(shownResult.lanes(), shownResult.jobs, shownResult.makespan(), shownSummaries);
+        pnlChart.setProfile(shownProfile);
+    }
 
-            modelStats.addRow(new Object[]{j.name, j.arrival, j.duration, j.level, j.end, j.turnaround, j.wait});
+    private void openDiagnostics() {
+        if (diagnostics == null) {
+            diagnostics = new DiagnosticsDialog(this);
+            diagnostics.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(WindowEvent e) {
+                    diagnostics = null;
+                }
+            });
+            diagnostics.setProfile(shownProfile);
         }
+        diagnostics.setVisible(true);
+        diagnostics.toFront();
+    }
 
-        lblAvgWait.setText(String.format("Avg Waiting: %.2f", sumWait / jobs.size()));
-        lblAvgTurn.setText(String.format("Avg Turnaround: %.2f", sumTurn / jobs.size()));
+    // Taller chart for multi-CPU runs
+    private void showLanes(int lanes) {
+        int height = lanes == 1 ? 140 : Math.min(400, 60 + 30 * lanes);
+        if (pnlChart.getPreferredSize().height == height) return;
+        pnlChart.setPreferredSize(new Dimension(1000, height));
+        pnlChart.revalidate();
+    }
+
+    private static GanttSummary[] summaries(Timeline[] lanes) {
+        GanttSummary[] summaries = new GanttSummary[lanes.length];
+        for (int i = 0; i < lanes.length; i++) summaries[i] = GanttSummary.build(lanes[i]);
+        return summaries;
+    }
 
-        double util = (maxEnd > 0) ? (sumBurst / maxEnd) * 100.0 : 0.0;
-        lblUtil.setText(String.format("CPU Utilization: %.1f%%", util));
+    private void applyFilter() {
+        modelStats.setFilter(txtFilter.getText());
+        updateRowCount();
+    }
 
-        pnlChart.drawData(timeline, maxEnd);
+    private void updateRowCount() {
+        int total = modelStats.totalRows();
+        lblRows.setText(modelStats.getRowCount() == total ? String.format("%,d jobs", total)
+                : String.format("%,d of %,d jobs", modelStats.getRowCount(), total));
     }
 
-    class VisualizationPanel extends JPanel {
-        private List<ChartSegment> segments;
-        private int totalDuration;
+    // Partial state of a running simulation, built on the worker thread
+    static class Progress {
+        final int done, total, now;
+        final double avgWait, avgTurn;
+        final Timeline[] lanes;
+        final GanttSummary[] summaries;
+
+        Progress(int done, int total, int now, double avgWait, double avgTurn, Timeline[] lanes, GanttSummary[] summaries) {
+            this.done = done;
+            this.total = total;
+            this.now = now;
+            this.avgWait = avgWait;
+            this.avgTurn = avgTurn;
+            this.lanes = lanes;
+            this.summaries = summaries;
+        }
+    }
 
-        public void drawData(List<ChartSegment> segments, int duration) {
-            this.segments = segments;
-            this.totalDuration = duration;
-            repaint();
+    // Parses and simulates off the EDT. Partial results are published at most every
+    // PUBLISH_INTERVAL_NS (longer if building the snapshot is expensive), and Cancel stops
+    // the engine at its next progress check. A run found in the result cache is loaded instead.
+    class SimulationWorker extends SwingWorker<SimulationResult, Progress> {
+        private final SchedulerEngine engine;
+        private final Callable<JobTable> input;
+        private final RunProfile profile;
+        private final boolean parses;
+        private JobTable jobs;
+        private GanttSummary[] summaries;
+        private boolean cached;
+        private long nextPublish = System.nanoTime() + PUBLISH_INTERVAL_NS;
+
+        // parses: input reads and parses the jobs (otherwise it hands over a copy)
+        SimulationWorker(SchedulerEngine engine, Callable<JobTable> input, RunProfile profile, boolean parses) {
+            this.engine = engine;
+            this.input = input;
+            this.profile = profile;
+            this.parses = parses;
         }
 
         @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (segments == null || segments.isEmpty()) return;
-
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-            int h = getHeight();
-            int w = getWidth();
-            int barH = 50;
-            int y = (h - barH) / 2;
-            double pxPerUnit = (double) (w - 60) / totalDuration;
-
-            for (ChartSegment s : segments) {
-                int x = 30 + (int) (s.in * pxPerUnit);
-                int width = (int) ((s.out - s.in) * pxPerUnit);
-
-                if (s.owner.equals("IDLE")) {
-                    g2d.setColor(new Color(220, 220, 220));
-                } else {
-                    g2d.setColor(generateColor(s.owner));
-                }
+        protected SimulationResult doInBackground() throws Exception {
+            if (parses) profile.begin(RunProfile.Phase.PARSE);
+            jobs = input.call();
+            // Before end(), so that the Parse event carries the job count
+            profile.setJobs(jobs.size());
+            if (parses) profile.end(RunProfile.Phase.PARSE);
+            if (jobs.isEmpty()) throw new IllegalArgumentException("Input area is empty or invalid.");
+
+            profile.begin(RunProfile.Phase.CACHE);
+            SimulationResult result = cache.get(jobs, engine, true);
+            profile.end(RunProfile.Phase.CACHE);
+            cached = result != null;
+            if (result == null) {
+                publish(new Progress(0, jobs.size(), 0, 0, 0, null, null));
+                profile.begin(RunProfile.Phase.SIMULATE);
+                result = engine.run(jobs, this::progress);
+                profile.end(RunProfile.Phase.SIMULATE);
+                profile.begin(RunProfile.Phase.CACHE);
+                cache.put(jobs, engine, result);
+                profile.end(RunProfile.Phase.CACHE);
+            }
+            // Cached results keep their decision count
+            profile.setDecisions(result.decisions());
+            profile.begin(RunProfile.Phase.SUMMARIES);
+            summaries = summaries(result.lanes());
+            profile.end(RunProfile.Phase.SUMMARIES);
+            return result;
+        }
 
-                g2d.fillRoundRect(x, y, width, barH, 5, 5);
+        private void progress(SimulationResult partial, int now) {
+            if (isCancelled()) throw new CancellationException();
+            long t = System.nanoTime();
+            if (t < nextPublish) return;
+
+            Timeline[] lanes = partial.lanes();
+            for (int i = 0; i < lanes.length; i++) lanes[i] = lanes[i].snapshot();
+            publish(new Progress(partial.completed(), jobs.size(), now, partial.avgWait(), partial.avgTurnaround(),
+                    lanes, summaries(lanes)));
+            long cost = System.nanoTime() - t;
+            nextPublish = System.nanoTime() + Math.max(PUBLISH_INTERVAL_NS, 4 * cost);
+        }
 
-                g2d.setColor(Color.WHITE);
-                g2d.setStroke(new BasicStroke(1));
-                g2d.drawRoundRect(x, y, width, barH, 5, 5);
+        @Override
+        protected void process(List<Progress> chunks) {
+            if (isCancelled()) return;
+            Progress p = chunks.get(chunks.size() - 1);
+            prgRun.setIndeterminate(false);
+            prgRun.setMaximum(p.total);
+            prgRun.setValue(p.done);
+            prgRun.setString(String.format("%,d / %,d jobs, t = %,d", p.done, p.total, p.now));
+
+            if (p.lanes == null) return;
+            lblAvgWait.setText(String.format("Avg Waiting: %.2f (partial)", p.avgWait));
+            lblAvgTurn.setText(String.format("Avg Turnaround: %.2f (partial)", p.avgTurn));
+            showLanes(p.lanes.length);
+            int end = 0;
+            for (Timeline lane : p.lanes) end = Math.max(end, lane.endTime());
+            pnlChart.drawData(p.lanes, jobs, end, p.summaries);
+        }
 
-                g2d.setColor(s.owner.equals("IDLE") ? Color.GRAY : Color.WHITE);
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
-                FontMetrics fm = g2d.getFontMetrics();
+        @Override
+        protected void done() {
+            worker = null;
+            setRunning(false);
+            try {
+                SimulationResult result = get();
+                rawData = jobs;
+                inputDirty = false;
+                renderMetrics(result, summaries, profile);
+                prgRun.setMaximum(jobs.size());
+                prgRun.setValue(jobs.size());
+                prgRun.setString(String.format(cached ? "Done: %,d jobs (from cache)" : "Done: %,d jobs", jobs.size()));
+            } catch (CancellationException e) {
+                restoreShown();
+                prgRun.setString("Cancelled");
+            } catch (InterruptedException | ExecutionException e) {
+                restoreShown();
+                showRunError(e.getCause() != null ? e.getCause() : e);
+            }
+            runPendingLive();
+        }
+    }
 
-                if(width > 15) {
-                    int txtX = x + (width - fm.stringWidth(s.owner)) / 2;
-                    int txtY = y + (barH + fm.getAscent()) / 2 - 2;
-                    g2d.drawString(s.owner, txtX, txtY);
-                }
+    // One live re-simulation. It is never cancelled: edits made while it runs are simulated
+    // by the next one, and errors only show in the progress bar, not in a dialog.
+    class LiveWorker extends SwingWorker<SimulationResult, Void> {
+        private final LiveSession session;
+        private final SchedulerEngine engine;
+        // Edit count when the run was started
+        private final int version;
+        private GanttSummary[] summaries;
+        private long took;
+        private RunProfile profile;
+
+        LiveWorker(LiveSession session, SchedulerEngine engine, int version) {
+            this.session = session;
+            this.engine = engine;
+            this.version = version;
+        }
 
-                g2d.setColor(Color.DARK_GRAY);
-                g2d.setFont(new Font("SansSerif", Font.PLAIN, 11));
-                g2d.drawString(String.valueOf(s.in), x - 3, y + barH + 18);
+        @Override
+        protected SimulationResult doInBackground() {
+            long t = System.nanoTime();
+            profile = new RunProfile(engine.name() + " (live)");
+            // Parsing the changed lines is part of the update
+            profile.begin(RunProfile.Phase.SIMULATE);
+            SimulationResult result = session.update(engine);
+            profile.setJobs(result.jobs.size());
+            profile.end(RunProfile.Phase.SIMULATE);
+            profile.setDecisions(result.decisions());
+            profile.begin(RunProfile.Phase.SUMMARIES);
+            summaries = summaries(result.lanes());
+            profile.end(RunProfile.Phase.SUMMARIES);
+            took = System.nanoTime() - t;
+            return result;
+        }
+
+        @Override
+        protected void done() {
+            liveWorker = null;
+            try {
+                SimulationResult result = get();
+                if (session != live) return;
+                rawData = result.jobs;
+                inputDirty = editCount != version;
+                renderMetrics(result, summaries, profile);
+                int jobs = result.jobs.size();
+                prgRun.setMaximum(jobs);
+                prgRun.setValue(jobs);
+                prgRun.setString(String.format("Live: %,d jobs in %,d ms (%s)", jobs, took / 1_000_000,
+                        session.resumedAt() < 0 ? "full run" : String.format("resumed at t = %,d", session.resumedAt())));
+            } catch (InterruptedException | ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (session == live) prgRun.setString("Live: " + cause.getMessage());
+            } finally {
+                runPendingLive();
             }
-            int finalX = 30 + (int)(totalDuration * pxPerUnit);
-            g2d.drawString(String.valueOf(totalDuration), finalX - 3, y + barH + 18);
         }
+    }
 
-        private Color generateColor(String seed) {
-            int hash = seed.hashCode();
-            return new Color(
-                    (hash * 123 + 50) % 200,
-                    (hash * 345 + 50) % 200,
-                    (hash * 678 + 50) % 200
-            );
+    private void showRunError(Throwable cause) {
+        if (cause instanceof InputFormatException) {
+            String hint = traceFile != null ? "(" + traceFile.getName() + ")"
+                    : "Please correct the text in the editor and try again.";
+            JOptionPane.showMessageDialog(this, cause.getMessage() + "\n" + hint,
+                    "Data Format Error", JOptionPane.ERROR_MESSAGE);
+        } else if (cause instanceof IOException) {
+            JOptionPane.showMessageDialog(this, "Read Error: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        } else if (cause instanceof IllegalArgumentException) {
+            JOptionPane.showMessageDialog(this, cause.getMessage(), "Warning", JOptionPane.WARNING_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, "Simulation failed: " + cause, "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
     public static void main(String[] args) {
+        // Batch mode and the workload generator never create a window, see SchedulerCli
+        if (args.length > 0 && args[0].startsWith("--")) {
+            SchedulerCli.main(args);
+            return;
+        }
+
         try {
             for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
                 if ("Nimbus".equals(info.getName())) {
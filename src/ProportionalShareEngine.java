@@ -0,0 +1,36 @@
+// Core shared by Lottery and Stride scheduling: the CPU is handed out one quantum at a time
+// in proportion to tickets, so a low-priority job runs less often but never starves the way
+// it does under strict priority (see starvation.txt). Tickets come from the priority:
+// level 1 (or lower) gets TICKETS, level p gets TICKETS / p, at least 1.
+// Arrivals during a slice are admitted when it ends, as with Round Robin. A job that is the
+// only one ready runs up to the first quantum boundary after the next arrival in one slice,
+// since it would win every draw until then anyway.
+abstract class ProportionalShareEngine implements SchedulerEngine {
+
+    // lcm(1..10), so the usual priorities 1-10 divide it evenly
+    static final int TICKETS = 2520;
+
+    protected final int quantum;
+
+    ProportionalShareEngine(int quantum) {
+        if (quantum <= 0) throw new IllegalArgumentException("Time Quantum must be a positive integer.");
+        this.quantum = quantum;
+    }
+
+    public int quantum() {
+        return quantum;
+    }
+
+    static int tickets(int level) {
+        return level <= 1 ? TICKETS : Math.max(1, TICKETS / level);
+    }
+
+    // Length of the next slice of a job with left time to run: one quantum, or for the only
+    // ready job everything up to the quantum boundary at or after nextArrival (MAX_VALUE if none)
+    final int slice(int left, int now, int nextArrival, boolean alone) {
+        if (!alone) return Math.min(left, quantum);
+        if (nextArrival == Integer.MAX_VALUE) return left;
+        long quanta = Math.max(1, ((long) nextArrival - now + quantum - 1) / quantum);
+        return (int) Math.min(left, quanta * quantum);
+    }
+}
@@ -0,0 +1,311 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Two-tier cache of finished simulation results, keyed by SHA-256 over the job table's
+// content (JobTable.digest) and the engine's name, which spells out every parameter.
+// Both tiers hold the same compact encoding: per-job finish times, the aggregates, the
+// decision count and histograms, and the timelines with repeat blocks still compressed. The memory tier is an
+// LRU map bounded by total bytes. The optional disk tier keeps one file per key, bounded by
+// total size with the least recently used files deleted first, so results survive a
+// restart. The cache is best effort: a file that cannot be written or read is a miss.
+public class ResultCache {
+
+    private static final int MAGIC = 0x4F535243; // "OSRC"
+    private static final int VERSION = 2;
+    private static final int HAS_TIMELINE = 1, SMP = 2;
+
+    public static final long DEFAULT_DISK_BYTES = 1L << 30;
+
+    private final long memoryBytes;
+    private final File dir;
+    private final long diskBytes;
+
+    // Access order, the eldest entry is the least recently used
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryUsed;
+
+    private long hits, diskHits, misses;
+
+    // dir == null keeps the memory tier only, memoryBytes == 0 the disk tier only
+    public ResultCache(long memoryBytes, File dir, long diskBytes) {
+        this.memoryBytes = memoryBytes;
+        this.dir = dir;
+        this.diskBytes = diskBytes;
+    }
+
+    // For the window: an eighth of the heap (at most 256 MB), plus a disk tier only in the
+    // directory the scheduler.cache.dir system property names
+    public static ResultCache standard() {
+        String dir = System.getProperty("scheduler.cache.dir", "");
+        return new ResultCache(Math.min(256L << 20, Runtime.getRuntime().maxMemory() / 8),
+                dir.isEmpty() ? null : new File(dir), DEFAULT_DISK_BYTES);
+    }
+
+    // The result of the engine on these jobs, with their finish times written into the
+    // table, or null. A result stored without a timeline only serves callers that do not
+    // need one (e.g. the parameter sweep).
+    public SimulationResult get(JobTable jobs, SchedulerEngine engine, boolean needTimeline) {
+        String key = key(jobs, engine);
+        byte[] data;
+        synchronized (this) {
+            data = memory.get(key);
+        }
+        boolean fromDisk = false;
+        if (data == null && dir != null) {
+            data = readFile(key);
+            fromDisk = data != null;
+        }
+
+        SimulationResult result = null;
+        if (data != null) {
+            try {
+                result = decode(ByteBuffer.wrap(data), key, jobs, needTimeline);
+            } catch (RuntimeException e) {
+                // Corrupt or from another version
+                result = null;
+                if (fromDisk) delete(key);
+            }
+        }
+        synchronized (this) {
+            if (result == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            if (fromDisk) {
+                diskHits++;
+                remember(key, data);
+            }
+        }
+        return result;
+    }
+
+    // Stores a finished result; one without a timeline does not replace one with it
+    public void put(JobTable jobs, SchedulerEngine engine, SimulationResult result) {
+        String key = key(jobs, engine);
+        boolean hasTimeline = result.timeline.stored();
+        synchronized (this) {
+            byte[] old = memory.get(key);
+            if (old != null && !hasTimeline) return;
+        }
+        byte[] data = encode(key, result, hasTimeline);
+        if (data == null) return;
+        synchronized (this) {
+            remember(key, data);
+        }
+        if (dir != null && (hasTimeline || !file(key).exists())) writeFile(key, data);
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    // Hits served by the disk tier
+    public synchronized long diskHits() {
+        return diskHits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long memoryUsed() {
+        return memoryUsed;
+    }
+
+    public synchronized void clear() {
+        memory.clear();
+        memoryUsed = 0;
+        if (dir == null) return;
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".bin"));
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+    }
+
+    private void remember(String key, byte[] data) {
+        if (data.length > memoryBytes) return;
+        byte[] old = memory.put(key, data);
+        if (old != null) memoryUsed -= old.length;
+        memoryUsed += data.length;
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryUsed > memoryBytes && it.hasNext()) {
+            memoryUsed -= it.next().getValue().length;
+            it.remove();
+        }
+    }
+
+    // Hex SHA-256 over the job digest and the engine name
+    private static String key(JobTable jobs, SchedulerEngine engine) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(jobs.digest());
+            md.update(engine.name().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : md.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // --- Encoding ---
+
+    // Null if the result does not fit into one array
+    private static byte[] encode(String key, SimulationResult r, boolean hasTimeline) {
+        Timeline[] lanes = r.lanes();
+        SmpResult smp = r instanceof SmpResult ? (SmpResult) r : null;
+        int n = r.jobs.size();
+
+        long size = 16 + 64 + 4L * n + 40
+                + r.waitHist.encodedSize() + r.turnHist.encodedSize() + r.responseHist.encodedSize() + 4;
+        for (Timeline lane : lanes) size += lane.encodedSize();
+        if (smp != null) size += 20L * lanes.length + 16;
+        if (size > Integer.MAX_VALUE - 16) return null;
+
+        ByteBuffer b = ByteBuffer.allocate((int) size);
+        b.putInt(MAGIC).putInt(VERSION).putInt((hasTimeline ? HAS_TIMELINE : 0) | (smp != null ? SMP : 0)).putInt(n);
+        b.put(key.getBytes(StandardCharsets.US_ASCII));
+        b.asIntBuffer().put(r.jobs.end, 0, n);
+        b.position(b.position() + 4 * n);
+        b.putInt(r.completed).putInt(r.maxEnd).putDouble(r.sumWait).putDouble(r.sumTurn).putDouble(r.sumBurst).putLong(r.decisions);
+        r.waitHist.writeTo(b);
+        r.turnHist.writeTo(b);
+        r.responseHist.writeTo(b);
+        b.putInt(lanes.length);
+        for (Timeline lane : lanes) lane.writeTo(b);
+        if (smp != null) {
+            for (int c = 0; c < lanes.length; c++) {
+                b.putLong(smp.busy[c]).putInt(smp.dispatches[c]).putInt(smp.steals[c]).putInt(smp.maxQueue[c]);
+            }
+            b.putLong(smp.contention).putLong(smp.migrations);
+        }
+        return b.array();
+    }
+
+    private static SimulationResult decode(ByteBuffer b, String key, JobTable jobs, boolean needTimeline) {
+        if (b.getInt() != MAGIC || b.getInt() != VERSION) throw new IllegalStateException("Not a cached result");
+        int flags = b.getInt();
+        if (needTimeline && (flags & HAS_TIMELINE) == 0) return null;
+        int n = b.getInt();
+        byte[] stored = new byte[64];
+        b.get(stored);
+        if (n != jobs.size() || !key.equals(new String(stored, StandardCharsets.US_ASCII))) {
+            throw new IllegalStateException("Cached result is for another input");
+        }
+
+        int[] end = new int[n];
+        b.asIntBuffer().get(end);
+        b.position(b.position() + 4 * n);
+        int completed = b.getInt(), maxEnd = b.getInt();
+        double sumWait = b.getDouble(), sumTurn = b.getDouble(), sumBurst = b.getDouble();
+        long decisions = b.getLong();
+        LatencyHistogram wait = new LatencyHistogram(), turn = new LatencyHistogram(), response = new LatencyHistogram();
+        wait.readFrom(b);
+        turn.readFrom(b);
+        response.readFrom(b);
+        Timeline[] lanes = new Timeline[b.getInt()];
+        for (int c = 0; c < lanes.length; c++) lanes[c] = Timeline.readFrom(b);
+
+        SimulationResult r;
+        if ((flags & SMP) != 0) {
+            SmpResult smp = new SmpResult(jobs, SimulationMonitor.NONE, lanes);
+            for (int c = 0; c < lanes.length; c++) {
+                smp.busy[c] = b.getLong();
+                smp.dispatches[c] = b.getInt();
+                smp.steals[c] = b.getInt();
+                smp.maxQueue[c] = b.getInt();
+            }
+            smp.contention = b.getLong();
+            smp.migrations = b.getLong();
+            r = smp;
+        } else {
+            r = new SimulationResult(jobs, SimulationMonitor.NONE, lanes[0]);
+        }
+
+        // Nothing is written into the table before the whole entry decoded
+        System.arraycopy(end, 0, jobs.end, 0, n);
+        Arrays.fill(jobs.left, 0, n, 0);
+        r.completed = completed;
+        r.maxEnd = maxEnd;
+        r.sumWait = sumWait;
+        r.sumTurn = sumTurn;
+        r.sumBurst = sumBurst;
+        r.decisions = decisions;
+        r.waitHist.add(wait);
+        r.turnHist.add(turn);
+        r.responseHist.add(response);
+        return r;
+    }
+
+    // --- Disk tier ---
+
+    private File file(String key) {
+        return new File(dir, key + ".bin");
+    }
+
+    private byte[] readFile(String key) {
+        File f = file(key);
+        if (!f.isFile()) return null;
+        try {
+            byte[] data = Files.readAllBytes(f.toPath());
+            // Least recently used is judged by the modification time
+            f.setLastModified(System.currentTimeMillis());
+            return data;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Written to a temporary file first, so a reader never sees half a file
+    private void writeFile(String key, byte[] data) {
+        try {
+            Files.createDirectories(dir.toPath());
+            Path tmp = Files.createTempFile(dir.toPath(), key, ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer b = ByteBuffer.wrap(data);
+                while (b.hasRemaining()) ch.write(b);
+            }
+            try {
+                Files.move(tmp, file(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file(key).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            trimDisk();
+        } catch (IOException e) {
+            // Best effort, the result is still in memory
+        }
+    }
+
+    private void delete(String key) {
+        file(key).delete();
+    }
+
+    // Deletes the least recently used files until the directory fits the budget
+    private synchronized void trimDisk() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".bin"));
+        if (files == null) return;
+        long total = 0;
+        for (File f : files) total += f.length();
+        if (total <= diskBytes) return;
+        Arrays.sort(files, (x, y) -> Long.compare(x.lastModified(), y.lastModified()));
+        for (int i = 0; i < files.length && total > diskBytes; i++) {
+            total -= files[i].length();
+            files[i].delete();
+        }
+    }
+}
@@ -0,0 +1,358 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+// Writes the per-job results and the timeline to files, as CSV or in a binary columnar
+// format, while they are produced:
+//   - as the monitor of an engine run, finished jobs are written as they complete and the
+//     timeline every few thousand steps; finish(result) writes the rest of the timeline.
+//     Multi-CPU timelines are written CPU after CPU by finish(result), so that they come out
+//     the same as with write(result).
+//   - as the sink of an OnlineScheduler, jobs and slices are written as they are passed on
+//   - write(result) exports a finished result, e.g. one loaded from the result cache
+// Job rows come in completion order, jobs finishing at the same time in input order; write
+// uses the same order, so a cached result exports the same files as a fresh run. Either file
+// may be null. close() must be called to complete them.
+//
+// CSV: "ID,Arrival,Burst,Priority,Finish,Turnaround,Waiting" and "ID,Start,End" (with a
+// leading CPU column for multi-CPU runs, IDLE as the ID of idle time).
+// Binary: an 8-byte magic ("SCHEDJOB" or "SCHEDTML") and a version int, then blocks of up to
+// BLOCK rows, then an int 0. All ints are little-endian. Each block starts with its row count.
+//   job block: arrival, burst, priority, finish, turnaround and waiting columns (int[rows]
+//     each), the name lengths in bytes (int[rows]) and the UTF-8 names one after another
+//   timeline block: CPU, name count, name lengths and UTF-8 names of the jobs in the block,
+//     then owner (index into those names, -1 for idle), start and end columns (int[rows] each)
+public class ResultExporter implements SimulationMonitor, StreamSink, Closeable {
+
+    public enum Format {
+        CSV, BINARY;
+
+        public static Format forName(String name) {
+            switch (name.toLowerCase()) {
+                case "csv": return CSV;
+                case "bin": case "binary": return BINARY;
+                default: throw new IllegalArgumentException("Unknown export format: " + name);
+            }
+        }
+
+        public String extension() {
+            return this == CSV ? "csv" : "bin";
+        }
+    }
+
+    static final int VERSION = 1;
+    // Rows per binary block
+    static final int BLOCK = 65536;
+
+    private final Format format;
+    private final ChannelOutput jobsOut, timelineOut;
+    private final SimulationMonitor monitor;
+
+    // Binary rows not written yet
+    private String[] jobName;
+    private int[] jobArrival, jobBurst, jobLevel, jobEnd;
+    private int jobRows;
+    // Engine runs: jobs finished at groupEnd, written once the clock moves on
+    private JobTable groupTable;
+    private int[] group = new int[16];
+    private int groupSize, groupEnd;
+    private NameDictionary sliceNames;
+    private int[] sliceOwner, sliceStart, sliceEnd;
+    private int sliceRows, sliceLane;
+
+    // Timeline entries written so far, per CPU; the header is written with the first slice
+    private int[] exported = new int[1];
+    private boolean timelineStarted, multiCpu;
+
+    public ResultExporter(Format format, File jobsFile, File timelineFile) throws IOException {
+        this(format, jobsFile, timelineFile, SimulationMonitor.NONE);
+    }
+
+    // Progress callbacks are passed on to monitor
+    public ResultExporter(Format format, File jobsFile, File timelineFile, SimulationMonitor monitor) throws IOException {
+        this.format = format;
+        this.monitor = monitor;
+        jobsOut = jobsFile == null ? null : new ChannelOutput(jobsFile);
+        try {
+            timelineOut = timelineFile == null ? null : new ChannelOutput(timelineFile);
+        } catch (IOException e) {
+            if (jobsOut != null) jobsOut.close();
+            throw e;
+        }
+
+        if (format == Format.BINARY) {
+            jobName = new String[BLOCK];
+            jobArrival = new int[BLOCK];
+            jobBurst = new int[BLOCK];
+            jobLevel = new int[BLOCK];
+            jobEnd = new int[BLOCK];
+            sliceNames = new NameDictionary();
+            sliceOwner = new int[BLOCK];
+            sliceStart = new int[BLOCK];
+            sliceEnd = new int[BLOCK];
+            if (jobsOut != null) {
+                jobsOut.putAscii("SCHEDJOB");
+                jobsOut.putInt(VERSION);
+            }
+        } else if (jobsOut != null) {
+            jobsOut.putAscii("ID,Arrival,Burst,Priority,Finish,Turnaround,Waiting\n");
+        }
+    }
+
+    // --- Engine runs ---
+
+    @Override
+    public void completed(SimulationResult partial, int job, int now) {
+        if (jobsOut == null) return;
+        if (groupSize > 0 && now != groupEnd) writeGroup();
+        if (groupSize == group.length) group = Arrays.copyOf(group, groupSize * 2);
+        groupTable = partial.jobs;
+        groupEnd = now;
+        group[groupSize++] = job;
+    }
+
+    // Jobs of one finish time in input order, as write(result) has them
+    private void writeGroup() {
+        Arrays.sort(group, 0, groupSize);
+        for (int i = 0; i < groupSize; i++) {
+            int j = group[i];
+            job(groupTable.name(j), groupTable.arrival[j], groupTable.burst[j], groupTable.level[j], groupEnd);
+        }
+        groupSize = 0;
+    }
+
+    @Override
+    public void progress(SimulationResult partial, int now) {
+        // The last entry may still be extended by a merge
+        if (timelineOut != null && partial.lanes().length == 1) export(partial, false);
+        monitor.progress(partial, now);
+    }
+
+    @Override
+    public boolean keepTimeline() {
+        return timelineOut != null || monitor.keepTimeline();
+    }
+
+    @Override
+    public boolean keepCheckpoints() {
+        return monitor.keepCheckpoints();
+    }
+
+    // Writes the timeline entries the run added since the last progress callback
+    public void finish(SimulationResult result) {
+        if (groupSize > 0) writeGroup();
+        if (timelineOut != null) export(result, true);
+    }
+
+    // Exports a whole result that was not run with this exporter as its monitor
+    public void write(SimulationResult result) {
+        if (jobsOut != null) {
+            JobTable jobs = result.jobs;
+            // Completion order: by finish time, then input order
+            long[] byEnd = new long[jobs.size()];
+            for (int j = 0; j < byEnd.length; j++) byEnd[j] = ((long) jobs.end[j] << 32) | j;
+            Arrays.sort(byEnd);
+            for (long e : byEnd) {
+                int j = (int) e;
+                job(jobs.name(j), jobs.arrival[j], jobs.burst[j], jobs.level[j], jobs.end[j]);
+            }
+        }
+        finish(result);
+    }
+
+    private void export(SimulationResult result, boolean all) {
+        Timeline[] lanes = result.lanes();
+        if (exported.length < lanes.length) exported = Arrays.copyOf(exported, lanes.length);
+        if (!timelineStarted) startTimeline(lanes.length > 1);
+        JobTable jobs = result.jobs;
+        for (int lane = 0; lane < lanes.length; lane++) {
+            Timeline t = lanes[lane];
+            if (!t.stored()) continue;
+            int upTo = all ? t.size() : t.size() - 1;
+            if (exported[lane] >= upTo) continue;
+            for (Timeline.Cursor c = t.cursor(exported[lane]); c.next() && c.index() < upTo; ) {
+                slice(lane, c.owner() == Timeline.IDLE ? null : jobs.name(c.owner()), c.start(), c.end());
+            }
+            exported[lane] = upTo;
+        }
+    }
+
+    // --- Online runs ---
+
+    @Override
+    public void completed(String name, int arrival, int burst, int level, int end) {
+        if (jobsOut != null) job(name, arrival, burst, level, end);
+    }
+
+    @Override
+    public void slice(String name, int start, int end) {
+        if (timelineOut == null) return;
+        if (!timelineStarted) startTimeline(false);
+        slice(0, name, start, end);
+    }
+
+    @Override
+    public void rounds(String[] names, int width, int start, int quantum, int rounds) {
+        if (timelineOut != null) StreamSink.super.rounds(names, width, start, quantum, rounds);
+    }
+
+    // The scheduler waits for input: make everything finished so far readable
+    @Override
+    public void flush() {
+        try {
+            if (jobsOut != null) {
+                writeJobs();
+                jobsOut.drain();
+            }
+            if (timelineOut != null) {
+                writeSlices();
+                timelineOut.drain();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // --- Rows ---
+
+    private void job(String name, int arrival, int burst, int level, int end) {
+        if (format == Format.BINARY) {
+            jobName[jobRows] = name;
+            jobArrival[jobRows] = arrival;
+            jobBurst[jobRows] = burst;
+            jobLevel[jobRows] = level;
+            jobEnd[jobRows] = end;
+            if (++jobRows == BLOCK) writeJobs();
+            return;
+        }
+        try {
+            jobsOut.putText(name);
+            jobsOut.put(',');
+            jobsOut.putDecimal(arrival);
+            jobsOut.put(',');
+            jobsOut.putDecimal(burst);
+            jobsOut.put(',');
+            jobsOut.putDecimal(level);
+            jobsOut.put(',');
+            jobsOut.putDecimal(end);
+            jobsOut.put(',');
+            jobsOut.putDecimal(end - arrival);
+            jobsOut.put(',');
+            jobsOut.putDecimal(end - arrival - burst);
+            jobsOut.put('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void startTimeline(boolean lanes) {
+        timelineStarted = true;
+        multiCpu = lanes;
+        try {
+            if (format == Format.BINARY) {
+                timelineOut.putAscii("SCHEDTML");
+                timelineOut.putInt(VERSION);
+            } else {
+                timelineOut.putAscii(lanes ? "CPU,ID,Start,End\n" : "ID,Start,End\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // name is null for idle time
+    private void slice(int lane, String name, int start, int end) {
+        if (format == Format.BINARY) {
+            if (lane != sliceLane) {
+                writeSlices();
+                sliceLane = lane;
+            }
+            sliceOwner[sliceRows] = name == null ? -1 : sliceNames.intern(name);
+            sliceStart[sliceRows] = start;
+            sliceEnd[sliceRows] = end;
+            if (++sliceRows == BLOCK) writeSlices();
+            return;
+        }
+        try {
+            if (multiCpu) {
+                timelineOut.putDecimal(lane);
+                timelineOut.put(',');
+            }
+            if (name == null) timelineOut.putAscii("IDLE"); else timelineOut.putText(name);
+            timelineOut.put(',');
+            timelineOut.putDecimal(start);
+            timelineOut.put(',');
+            timelineOut.putDecimal(end);
+            timelineOut.put('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJobs() {
+        if (jobRows == 0) return;
+        try {
+            jobsOut.putInt(jobRows);
+            jobsOut.putInts(jobArrival, jobRows);
+            jobsOut.putInts(jobBurst, jobRows);
+            jobsOut.putInts(jobLevel, jobRows);
+            jobsOut.putInts(jobEnd, jobRows);
+            for (int i = 0; i < jobRows; i++) jobsOut.putInt(jobEnd[i] - jobArrival[i]);
+            for (int i = 0; i < jobRows; i++) jobsOut.putInt(jobEnd[i] - jobArrival[i] - jobBurst[i]);
+            for (int i = 0; i < jobRows; i++) jobsOut.putInt(ChannelOutput.textLength(jobName[i]));
+            for (int i = 0; i < jobRows; i++) jobsOut.putText(jobName[i]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Arrays.fill(jobName, 0, jobRows, null);
+        jobRows = 0;
+    }
+
+    private void writeSlices() {
+        if (sliceRows == 0) return;
+        try {
+            timelineOut.putInt(sliceRows);
+            timelineOut.putInt(sliceLane);
+            int names = sliceNames.size();
+            timelineOut.putInt(names);
+            for (int id = 0; id < names; id++) timelineOut.putInt(ChannelOutput.textLength(sliceNames.get(id)));
+            for (int id = 0; id < names; id++) timelineOut.putText(sliceNames.get(id));
+            timelineOut.putInts(sliceOwner, sliceRows);
+            timelineOut.putInts(sliceStart, sliceRows);
+            timelineOut.putInts(sliceEnd, sliceRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sliceNames = new NameDictionary();
+        sliceRows = 0;
+    }
+
+    // Writes the rows still buffered and completes the files
+    @Override
+    public void close() throws IOException {
+        try {
+            if (groupSize > 0) writeGroup();
+            if (jobsOut != null && format == Format.BINARY) {
+                writeJobs();
+                jobsOut.putInt(0);
+            }
+            if (timelineOut != null && format == Format.BINARY) {
+                if (!timelineStarted) startTimeline(false);
+                writeSlices();
+                timelineOut.putInt(0);
+            } else if (timelineOut != null && !timelineStarted) {
+                startTimeline(false);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            try {
+                if (jobsOut != null) jobsOut.close();
+            } finally {
+                if (timelineOut != null) timelineOut.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+
+// Read-only view of a SimulationResult for the "Simulation Results" table. Cells are read
+// straight from the job table's primitive columns when the table paints them, so no row
+// objects exist. The view is an int[] of job ids: sorting packs (value << 32 | position in
+// name order) into a long[] and sorts that, filtering keeps the ids whose name matches.
+// Every change fires a single fireTableDataChanged.
+class ResultsTableModel extends AbstractTableModel {
+
+    static final String[] COLUMNS = {"ID", "Arrival", "Burst", "Priority", "Finish", "Turnaround", "Waiting"};
+
+    private SimulationResult result;
+    // All jobs in sort order, and the rows that pass the filter
+    private int[] sorted;
+    private int[] rows = new int[0];
+
+    private int sortColumn = 0;
+    private boolean ascending = true;
+    private String filter = "";
+
+    void setResult(SimulationResult result) {
+        this.result = result;
+        sorted = null;
+        refresh();
+    }
+
+    // Sorts by the given column; ties keep the name order, also when descending
+    void sortBy(int column, boolean ascending) {
+        this.sortColumn = column;
+        this.ascending = ascending;
+        sorted = null;
+        refresh();
+    }
+
+    // Keeps the jobs whose ID contains the text, ignoring case; empty shows all
+    void setFilter(String text) {
+        filter = text.trim().toLowerCase();
+        refresh();
+    }
+
+    int totalRows() {
+        return result == null ? 0 : result.jobs.size();
+    }
+
+    // Column header clicks sort, a second click on the same column reverses the order
+    void install(JTable table) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.convertColumnIndexToModel(header.columnAtPoint(e.getPoint()));
+                if (column < 0) return;
+                sortBy(column, column != sortColumn || !ascending);
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    table.getColumnModel().getColumn(table.convertColumnIndexToView(c)).setHeaderValue(getColumnName(c));
+                }
+                header.repaint();
+            }
+        });
+    }
+
+    private void refresh() {
+        if (result != null && sorted == null) sorted = sorted();
+        rows = result == null ? new int[0] : filter(sorted);
+        fireTableDataChanged();
+    }
+
+    private int[] sorted() {
+        int[] byName = result.rowOrder();
+        int n = byName.length;
+        int[] ids;
+        if (sortColumn == 0) {
+            ids = byName.clone();
+            if (!ascending) {
+                for (int i = 0, j = n - 1; i < j; i++, j--) {
+                    int t = ids[i];
+                    ids[i] = ids[j];
+                    ids[j] = t;
+                }
+            }
+        } else {
+            // Descending sorts on ~value, so that ties stay in name order either way
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                int v = value(byName[i], sortColumn);
+                keys[i] = ((long) (ascending ? v : ~v) << 32) | i;
+            }
+            Arrays.sort(keys);
+            ids = new int[n];
+            for (int i = 0; i < n; i++) ids[i] = byName[(int) keys[i]];
+        }
+        return ids;
+    }
+
+    // Matching is decided once per distinct name, then applied through the name ids
+    private int[] filter(int[] ids) {
+        if (filter.isEmpty()) return ids;
+        int[] kept = new int[ids.length];
+        JobTable jobs = result.jobs;
+        boolean[] match = new boolean[jobs.names.size()];
+        for (int id = 0; id < match.length; id++) match[id] = jobs.names.get(id).toLowerCase().contains(filter);
+        int n = 0;
+        for (int job : ids) {
+            if (match[jobs.name[job]]) kept[n++] = job;
+        }
+        return Arrays.copyOf(kept, n);
+    }
+
+    private int value(int job, int column) {
+        JobTable jobs = result.jobs;
+        switch (column) {
+            case 1: return jobs.arrival[job];
+            case 2: return jobs.burst[job];
+            case 3: return jobs.level[job];
+            case 4: return jobs.end[job];
+            case 5: return result.turnaround(job);
+            default: return result.waiting(job);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (column != sortColumn) return COLUMNS[column];
+        return COLUMNS[column] + (ascending ? " ▲" : " ▼");
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? String.class : Integer.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int job = rows[row];
+        return column == 0 ? result.jobs.name(job) : (Object) value(job, column);
+    }
+}
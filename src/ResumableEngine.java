@@ -0,0 +1,8 @@
+// An engine that can continue a run from one of the checkpoints it took (see Checkpoint).
+// Live editing uses it to re-simulate only the part of the schedule an edit can change.
+interface ResumableEngine extends SchedulerEngine {
+
+    // Continues a result made by SimulationResult.resumeAt from the checkpoint; with a null
+    // checkpoint the result is fresh and the run starts at time 0
+    SimulationResult resume(SimulationResult result, Checkpoint from);
+}
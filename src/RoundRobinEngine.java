@@ -0,0 +1,122 @@
+import java.util.Arrays;
+
+// Round Robin. When the next arrival is far enough away, the engine fast-forwards: with m
+// jobs ready, k = min((rmin - 1) / q, (A - now - 1) / (m * q)) full rounds (rmin = least
+// remaining time, A = next arrival) cannot finish or let in a job, so they only shift
+// every remaining time by k * q and leave the queue order as it is. They are applied in
+// one O(m) pass and recorded as one repeat block of the timeline.
+public class RoundRobinEngine implements ResumableEngine {
+
+    private final int quantum;
+
+    public RoundRobinEngine(int quantum) {
+        if (quantum <= 0) throw new IllegalArgumentException("Time Quantum must be a positive integer.");
+        this.quantum = quantum;
+    }
+
+    @Override
+    public String name() {
+        return "Round Robin (q=" + quantum + ")";
+    }
+
+    public int quantum() {
+        return quantum;
+    }
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        return resume(new SimulationResult(jobs, monitor), null);
+    }
+
+    @Override
+    public SimulationResult resume(SimulationResult result, Checkpoint from) {
+        JobTable jobs = result.jobs;
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, left = jobs.left;
+        IntQueue readyQ = new IntQueue(64);
+
+        int q = quantum;
+        int now = 0, doneCount = 0, idx = 0;
+        int total = order.length;
+        if (from != null) {
+            now = from.now;
+            doneCount = from.completed;
+            idx = from.admitted;
+            from.refill(readyQ, jobs);
+        }
+
+        // Pattern of the rounds being skipped, and slices to run before the next
+        // fast-forward check so that failed checks cost O(1) per slice
+        int[] round = new int[64];
+        int holdOff = 0;
+
+        while(idx < total && arrival[order[idx]] <= now) {
+            readyQ.add(order[idx++]);
+        }
+
+        while(doneCount < total) {
+            if (result.checkpointDue(readyQ.size())) result.checkpoint(now, idx, readyQ);
+            if (readyQ.isEmpty()) {
+                if (idx < total) {
+                    int nextArr = arrival[order[idx]];
+                    timeline.add(Timeline.IDLE, now, nextArr);
+                    now = nextArr;
+                    while(idx < total && arrival[order[idx]] <= now) {
+                        readyQ.add(order[idx++]);
+                    }
+                }
+                continue;
+            }
+
+            if (holdOff > 0) {
+                holdOff--;
+            } else {
+                int m = readyQ.size();
+                long room = (idx < total ? arrival[order[idx]] : Integer.MAX_VALUE) - (long) now - 1;
+                long rounds = room / ((long) m * q);
+                if (rounds > 0) {
+                    int rmin = Integer.MAX_VALUE;
+                    for (int i = 0; i < m; i++) rmin = Math.min(rmin, left[readyQ.get(i)]);
+                    rounds = Math.min(rounds, (rmin - 1) / q);
+                    if (rounds > 0) {
+                        int k = (int) rounds;
+                        if (round.length < m) round = Arrays.copyOf(round, Math.max(m, round.length * 2));
+                        for (int i = 0; i < m; i++) {
+                            int j = readyQ.get(i);
+                            round[i] = j;
+                            result.dispatch(j, now + i * q);
+                            left[j] -= k * q;
+                        }
+                        timeline.addRepeat(round, m, now, q, k);
+                        now += k * m * q;
+                        result.step(now);
+                        continue;
+                    }
+                    holdOff = m;
+                }
+            }
+
+            int current = readyQ.poll();
+            result.dispatch(current, now);
+            int exec = Math.min(left[current], q);
+
+            timeline.add(current, now, now + exec);
+            now += exec;
+            left[current] -= exec;
+
+            while(idx < total && arrival[order[idx]] <= now) {
+                readyQ.add(order[idx++]);
+            }
+
+            if (left[current] > 0) {
+                readyQ.add(current);
+            } else {
+                result.complete(current, now);
+                doneCount++;
+            }
+            result.step(now);
+        }
+        return result;
+    }
+}
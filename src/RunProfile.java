@@ -0,0 +1,194 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+// Where the time of one run went, phase by phase: wall time, CPU time and bytes allocated by
+// the thread that ran the phase, and the collections during it (all threads, so a GC another
+// thread caused counts too). Allocation counts need com.sun.management.ThreadMXBean and are
+// -1 without it. Each phase is also committed as a scheduler.Phase JFR event (see JfrEvents).
+//   profile.begin(RunProfile.Phase.PARSE); ...; profile.end(RunProfile.Phase.PARSE);
+// A profile is filled by one thread at a time (the worker, then the event dispatch thread).
+public class RunProfile {
+
+    public enum Phase {
+        COPY("Copy input"),
+        PARSE("Parse"),
+        CACHE("Result cache"),
+        SIMULATE("Simulate"),
+        SUMMARIES("Chart summaries"),
+        EXPORT("Export"),
+        OUTPUT("Output"),
+        METRICS("Metric labels"),
+        TABLE("Results table"),
+        // Measured on every repaint; the profile keeps the latest
+        PAINT("Chart paint");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+
+    private final String engine;
+    private int jobs;
+    private long decisions;
+
+    private final int n = Phase.values().length;
+    private final long[] wall = new long[n], cpu = new long[n], allocated = new long[n];
+    private final long[] gcCount = new long[n], gcTime = new long[n];
+    private final int[] times = new int[n];
+
+    // Values at begin()
+    private final long[] wall0 = new long[n], cpu0 = new long[n], allocated0 = new long[n];
+    private final long[] gcCount0 = new long[n], gcTime0 = new long[n];
+    private final Object[] events = new Object[n];
+
+    public RunProfile(String engine) {
+        this.engine = engine;
+    }
+
+    public void begin(Phase p) {
+        int i = p.ordinal();
+        events[i] = JfrEvents.beginPhase();
+        gcCount0[i] = gcCount();
+        gcTime0[i] = gcTime();
+        allocated0[i] = allocatedBytes();
+        cpu0[i] = cpuTime();
+        wall0[i] = System.nanoTime();
+    }
+
+    public void end(Phase p) {
+        long t = System.nanoTime();
+        int i = p.ordinal();
+        long c = cpuTime(), a = allocatedBytes();
+        if (p == Phase.PAINT) clear(i);
+        wall[i] += t - wall0[i];
+        cpu[i] += c < 0 ? 0 : c - cpu0[i];
+        if (a >= 0 && allocated[i] >= 0) allocated[i] += a - allocated0[i]; else allocated[i] = -1;
+        gcCount[i] += gcCount() - gcCount0[i];
+        gcTime[i] += gcTime() - gcTime0[i];
+        times[i]++;
+        JfrEvents.endPhase(events[i], p.label, engine, jobs, a >= 0 ? a - allocated0[i] : -1);
+        events[i] = null;
+    }
+
+    private void clear(int i) {
+        wall[i] = cpu[i] = allocated[i] = gcCount[i] = gcTime[i] = 0;
+        times[i] = 0;
+    }
+
+    void setJobs(int jobs) {
+        this.jobs = jobs;
+    }
+
+    void setDecisions(long decisions) {
+        this.decisions = decisions;
+    }
+
+    public String engine() {
+        return engine;
+    }
+
+    public int jobs() {
+        return jobs;
+    }
+
+    // Times a job got the CPU during the run
+    public long decisions() {
+        return decisions;
+    }
+
+    // False for phases this run did not go through
+    public boolean ran(Phase p) {
+        return times[p.ordinal()] > 0;
+    }
+
+    public long wallNanos(Phase p) {
+        return wall[p.ordinal()];
+    }
+
+    // 0 where the JVM does not measure thread CPU time
+    public long cpuNanos(Phase p) {
+        return cpu[p.ordinal()];
+    }
+
+    // -1 where the JVM does not count allocations
+    public long allocatedBytes(Phase p) {
+        return allocated[p.ordinal()];
+    }
+
+    public long gcCount(Phase p) {
+        return gcCount[p.ordinal()];
+    }
+
+    public long gcMillis(Phase p) {
+        return gcTime[p.ordinal()];
+    }
+
+    public long totalWallNanos() {
+        long sum = 0;
+        for (long w : wall) sum += w;
+        return sum;
+    }
+
+    // One line per phase that ran, for the CLI
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase p : Phase.values()) {
+            if (!ran(p)) continue;
+            sb.append(String.format("%-16s %10.3f ms wall %10.3f ms cpu %12s allocated %4d GCs (%d ms)%n", p.label,
+                    wallNanos(p) / 1e6, cpuNanos(p) / 1e6, bytes(allocatedBytes(p)), gcCount(p), gcMillis(p)));
+        }
+        return sb.toString();
+    }
+
+    static String bytes(long b) {
+        if (b < 0) return "n/a";
+        if (b < 1024) return b + " B";
+        if (b < 1024 * 1024) return String.format("%.1f KB", b / 1024.0);
+        return String.format("%.1f MB", b / (1024.0 * 1024));
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long gcCount() {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc : COLLECTORS) sum += Math.max(0, gc.getCollectionCount());
+        return sum;
+    }
+
+    private static long gcTime() {
+        long sum = 0;
+        for (GarbageCollectorMXBean gc : COLLECTORS) sum += Math.max(0, gc.getCollectionTime());
+        return sum;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        try {
+            if (!(THREADS instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+            if (!bean.isThreadAllocatedMemorySupported()) return null;
+            if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        } catch (LinkageError | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+// Headless entry point: runs one simulation without loading any Swing/AWT classes.
+//   java SchedulerCli --batch in.txt --algo rr --quantum 3 [--summary]
+//   java SchedulerCli --batch in.txt --sweep 1:50[:step]
+//   java SchedulerCli --batch in.txt --algo sjf --cpus 4 --balancer steal --affinity soft
+//   java SchedulerCli --batch in.txt --algo rr --cache dir   (reuses results stored in dir)
+//   producer | java SchedulerCli --stream - --algo srtf   (schedules jobs as they arrive)
+//   java SchedulerCli --batch in.txt --algo srtf --export-jobs jobs.bin --export-timeline slices.bin --export-format binary
+//   java SchedulerCli --batch in.txt --algo mlfq --summary --profile   (time and allocations per phase)
+// Instead of --batch, "--jobs n" runs on a generated workload (see WorkloadGenerator) and
+// "--generate out.txt --jobs n" only writes it to a trace file.
+public class SchedulerCli {
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        String input = null, algo = "fcfs";
+        int quantum = 3;
+        boolean summaryOnly = false, profiled = false;
+        String sweep = null;
+        String quanta = null;
+        Integer boost = null;
+        int cpus = 1;
+        SmpEngine.Balancer balancer = SmpEngine.Balancer.GLOBAL;
+        SmpEngine.Affinity affinity = SmpEngine.Affinity.NONE;
+        String generate = null;
+        WorkloadGenerator gen = new WorkloadGenerator();
+        boolean generated = false;
+        Long lotterySeed = null;
+        ResultCache cache = null;
+        String stream = null, slices = null;
+        File exportJobs = null, exportTimeline = null;
+        ResultExporter.Format exportFormat = ResultExporter.Format.CSV;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--batch": input = value(args, ++i); break;
+                    case "--algo": algo = value(args, ++i); break;
+                    case "--quantum": quantum = Integer.parseInt(value(args, ++i)); break;
+                    case "--summary": summaryOnly = true; break;
+                    case "--profile": profiled = true; break;
+                    case "--quanta": quanta = value(args, ++i); break;
+                    case "--lottery-seed": lotterySeed = Long.parseLong(value(args, ++i)); break;
+                    case "--boost": boost = Integer.parseInt(value(args, ++i)); break;
+                    case "--cpus": cpus = Integer.parseInt(value(args, ++i)); break;
+                    case "--balancer": balancer = balancer(value(args, ++i)); break;
+                    case "--affinity": affinity = SmpEngine.Affinity.valueOf(value(args, ++i).toUpperCase()); break;
+                    case "--sweep": sweep = value(args, ++i); break;
+                    case "--cache": cache = new ResultCache(0, new File(value(args, ++i)), ResultCache.DEFAULT_DISK_BYTES); break;
+                    case "--stream": stream = value(args, ++i); break;
+                    case "--slices": slices = value(args, ++i); break;
+                    case "--export-jobs": exportJobs = new File(value(args, ++i)); break;
+                    case "--export-timeline": exportTimeline = new File(value(args, ++i)); break;
+                    case "--export-format": exportFormat = ResultExporter.Format.forName(value(args, ++i)); break;
+                    case "--generate": generate = value(args, ++i); break;
+                    case "--jobs": gen.jobs = Integer.parseInt(value(args, ++i)); generated = true; break;
+                    case "--seed": gen.seed = Long.parseLong(value(args, ++i)); break;
+                    case "--arrivals": gen.arrivals = WorkloadGenerator.Arrivals.valueOf(value(args, ++i).toUpperCase()); break;
+                    case "--gap": gen.meanInterarrival = Double.parseDouble(value(args, ++i)); break;
+                    case "--group": gen.meanGroupSize = Double.parseDouble(value(args, ++i)); break;
+                    case "--bursts": gen.bursts = WorkloadGenerator.Bursts.valueOf(value(args, ++i).toUpperCase()); break;
+                    case "--mean-burst": gen.meanBurst = Double.parseDouble(value(args, ++i)); break;
+                    case "--shape": gen.paretoShape = Double.parseDouble(value(args, ++i)); break;
+                    case "--max-burst": gen.maxBurst = Integer.parseInt(value(args, ++i)); break;
+                    case "--priorities": gen.priorityWeights = WorkloadGenerator.parsePriorities(value(args, ++i)); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (generate != null) {
+                long t0 = System.nanoTime();
+                gen.write(new File(generate));
+                System.out.printf("# Generated: %s%n# Elapsed: %.3f ms%n", gen.describe(), (System.nanoTime() - t0) / 1e6);
+                return 0;
+            }
+
+            SchedulerEngine engine = SchedulerEngine.forName(algo, quantum);
+            if (engine instanceof MlfqEngine && (quanta != null || boost != null)) {
+                int[] q = quanta != null ? MlfqEngine.parseQuanta(quanta) : ((MlfqEngine) engine).quanta();
+                engine = new MlfqEngine(q, boost != null ? boost : MlfqEngine.defaultBoost(q[0]));
+            }
+            if (engine instanceof LotteryEngine && lotterySeed != null) engine = new LotteryEngine(quantum, lotterySeed);
+            if (cpus <= 0) throw new IllegalArgumentException("CPU count must be a positive integer.");
+            engine = SmpEngine.forCores(engine, cpus, balancer, affinity);
+            boolean export = exportJobs != null || exportTimeline != null;
+            if (stream != null) {
+                try (ResultExporter exporter = export ? openExport(exportFormat, exportJobs, exportTimeline) : null) {
+                    return runStream(engine, stream, slices, summaryOnly, exporter);
+                }
+            }
+
+            if (input == null && !generated) throw new IllegalArgumentException("Missing --batch <file>, --jobs <n> or --stream <source>");
+
+            RunProfile profile = new RunProfile(engine.name());
+            profile.begin(RunProfile.Phase.PARSE);
+            JobTable jobs;
+            if (input != null) {
+                jobs = new JobTable();
+                TraceParser.parse(new File(input), jobs);
+            } else {
+                jobs = gen.generate();
+            }
+            profile.setJobs(jobs.size());
+            profile.end(RunProfile.Phase.PARSE);
+            if (jobs.isEmpty()) throw new IllegalArgumentException("Input is empty: " + (input != null ? input : "0 jobs"));
+
+            if (sweep != null) return runSweep(jobs, sweep, cache);
+
+            long t0 = System.nanoTime();
+            SimulationResult result = null;
+            if (cache != null) {
+                profile.begin(RunProfile.Phase.CACHE);
+                result = cache.get(jobs, engine, true);
+                profile.end(RunProfile.Phase.CACHE);
+            }
+            boolean cached = result != null;
+            // Exported while the engine runs, or afterwards for a cached result
+            try (ResultExporter exporter = export ? openExport(exportFormat, exportJobs, exportTimeline) : null) {
+                if (result == null) {
+                    profile.begin(RunProfile.Phase.SIMULATE);
+                    result = engine.run(jobs, exporter != null ? exporter : SimulationMonitor.NONE);
+                    profile.end(RunProfile.Phase.SIMULATE);
+                    if (exporter != null) {
+                        profile.begin(RunProfile.Phase.EXPORT);
+                        exporter.finish(result);
+                        profile.end(RunProfile.Phase.EXPORT);
+                    }
+                    if (cache != null) {
+                        profile.begin(RunProfile.Phase.CACHE);
+                        cache.put(jobs, engine, result);
+                        profile.end(RunProfile.Phase.CACHE);
+                    }
+                } else if (exporter != null) {
+                    profile.begin(RunProfile.Phase.EXPORT);
+                    exporter.write(result);
+                    profile.end(RunProfile.Phase.EXPORT);
+                }
+            }
+            // Cached results keep their decision count
+            profile.setDecisions(result.decisions());
+            long elapsed = System.nanoTime() - t0;
+
+            profile.begin(RunProfile.Phase.OUTPUT);
+            StringBuilder out = new StringBuilder();
+            if (!summaryOnly) {
+                out.append("ID,Arrival,Burst,Priority,Finish,Turnaround,Waiting\n");
+                for (int j : result.rowOrder()) {
+                    out.append(jobs.name(j)).append(',').append(jobs.arrival[j]).append(',').append(jobs.burst[j])
+                            .append(',').append(jobs.level[j]).append(',').append(jobs.end[j]).append(',')
+                            .append(result.turnaround(j)).append(',').append(result.waiting(j)).append('\n');
+                }
+            }
+            out.append(String.format("# Algorithm: %s%n", engine.name()));
+            out.append(String.format("# Jobs: %d%n", jobs.size()));
+            if (input == null) out.append(String.format("# Workload: %s%n", gen.describe()));
+            out.append(String.format("# Avg Turnaround: %.2f%n", result.avgTurnaround()));
+            out.append(String.format("# Avg Waiting: %.2f%n", result.avgWait()));
+            out.append(String.format("# CPU Utilization: %.1f%%%n", result.utilization()));
+            out.append(String.format("# Throughput: %.6f jobs/unit%n", result.throughput()));
+            out.append(String.format("# Context Switches: %d%n", result.contextSwitches()));
+            out.append(String.format("# Waiting: %s%n", result.waitHistogram().describe()));
+            out.append(String.format("# Turnaround: %s%n", result.turnaroundHistogram().describe()));
+            out.append(String.format("# Response: %s (mean %.2f)%n", result.responseHistogram().describe(),
+                    result.responseHistogram().mean()));
+            if (result instanceof SmpResult) {
+                SmpResult smp = (SmpResult) result;
+                for (int c = 0; c < smp.cores(); c++) {
+                    out.append(String.format("# CPU %d: %.1f%% busy, %d dispatches, %d steals, max queue %d%n",
+                            c, smp.coreUtilization(c), smp.dispatches(c), smp.steals(c), smp.maxQueue(c)));
+                }
+                out.append(String.format("# Imbalance: %.3f, contention: %d, migrations: %d%n",
+                        smp.imbalance(), smp.contention(), smp.migrations()));
+            }
+            if (cache != null) out.append(String.format("# Cache: %s%n", cached ? "hit" : "miss"));
+            if (exportJobs != null) out.append(String.format("# Jobs exported to: %s%n", exportJobs));
+            if (exportTimeline != null) out.append(String.format("# Timeline exported to: %s%n", exportTimeline));
+            out.append(String.format("# Elapsed: %.3f ms%n", elapsed / 1e6));
+            System.out.print(out);
+            System.out.flush();
+            profile.end(RunProfile.Phase.OUTPUT);
+            if (profiled) {
+                System.out.printf("# Scheduling decisions: %,d%n", profile.decisions());
+                for (String line : profile.describe().split("\n")) System.out.println("# Phase " + line);
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println((generate != null ? "Write Error: " : "Read Error: ") + e.getMessage());
+            return 1;
+        } catch (UncheckedIOException e) {
+            System.err.println("Export Error: " + e.getCause().getMessage());
+            return 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --batch <file> --algo fcfs|sjf|srtf|priority|priority-p|rr|mlfq|lottery|stride [--quantum n] [--summary]");
+            System.err.println("       --algo mlfq [--quanta q1,q2,...] [--boost interval]");
+            System.err.println("       --algo lottery [--lottery-seed s]");
+            System.err.println("       [--cpus n] [--balancer global|steal] [--affinity none|soft|hard]");
+            System.err.println("       --batch <file> --sweep from:to[:step]");
+            System.err.println("       [--cache <dir>]");
+            System.err.println("       [--export-jobs <file>] [--export-timeline <file>] [--export-format csv|binary]");
+            System.err.println("       [--profile]");
+            System.err.println("       --stream -|<file or pipe>|tcp:<port> --algo ... [--slices <file>] [--summary]");
+            System.err.println("       [--generate <file>] --jobs n [--seed s] [--arrivals poisson|bursty] [--gap mean] [--group mean]");
+            System.err.println("           [--bursts exponential|pareto] [--mean-burst m] [--shape a] [--max-burst b]");
+            System.err.println("           [--priorities uniform:n|zipf:n|w1,w2,...]");
+            return 2;
+        }
+    }
+
+    private static SmpEngine.Balancer balancer(String name) {
+        switch (name.toLowerCase()) {
+            case "global": return SmpEngine.Balancer.GLOBAL;
+            case "steal": case "stealing": return SmpEngine.Balancer.STEALING;
+            default: throw new IllegalArgumentException("Unknown balancer: " + name);
+        }
+    }
+
+    // Compares every algorithm and Round Robin over a range of quanta, in parallel
+    private static int runSweep(JobTable jobs, String range, ResultCache cache) {
+        String[] parts = range.split(":");
+        if (parts.length < 2) throw new IllegalArgumentException("--sweep expects from:to[:step]");
+        int from = Integer.parseInt(parts[0].trim());
+        int to = Integer.parseInt(parts[1].trim());
+        int step = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : 1;
+
+        long t0 = System.nanoTime();
+        List<ParameterSweep.Row> rows = new ParameterSweep(cache).run(jobs, ParameterSweep.engines(from, to, step));
+        long elapsed = System.nanoTime() - t0;
+
+        StringBuilder out = new StringBuilder("Algorithm,Quantum,AvgWaiting,AvgTurnaround,Utilization,ContextSwitches,ElapsedMs\n");
+        for (ParameterSweep.Row r : rows) {
+            out.append(String.format("%s,%d,%.2f,%.2f,%.1f,%d,%.3f%n", csv(r.algorithm), r.quantum,
+                    r.avgWait, r.avgTurnaround, r.utilization, r.contextSwitches, r.elapsedNanos / 1e6));
+        }
+        out.append(String.format("# Runs: %d on %d cores%n", rows.size(), Runtime.getRuntime().availableProcessors()));
+        out.append(String.format("# Elapsed: %.3f ms%n", elapsed / 1e6));
+        System.out.print(out);
+        return 0;
+    }
+
+    // A CSV field, quoted when it holds a comma, quote or line break (RFC 4180)
+    static String csv(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return '"' + field.replace("\"", "\"\"") + '"';
+        }
+        return field;
+    }
+
+        // Schedules the jobs as they come from stdin ("-"), a file or named pipe, or the first
+    // connection to a localhost port ("tcp:<port>", 0 picks a free one). Finished jobs are
+    // printed as they happen, in completion order; rolling metrics go to stderr once a second.
+    private static int runStream(SchedulerEngine engine, String source, String slices, boolean summaryOnly,
+                                 ResultExporter exporter) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        long t0 = System.nanoTime();
+        StreamStats stats;
+        try (InputStream in = open(source);
+             Writer sliceOut = slices == null ? null : Files.newBufferedWriter(Paths.get(slices), StandardCharsets.UTF_8)) {
+            StreamPrinter printer = new StreamPrinter(summaryOnly ? null : out, sliceOut, exporter);
+            OnlineScheduler scheduler = OnlineScheduler.forEngine(engine, printer);
+            printer.stats = stats = scheduler.stats();
+            if (!summaryOnly) out.write("ID,Arrival,Burst,Priority,Finish,Turnaround,Waiting\n");
+            if (sliceOut != null) sliceOut.write("ID,Start,End\n");
+            scheduler.run(in);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            // Whatever finished before an error
+            out.flush();
+        }
+        long elapsed = System.nanoTime() - t0;
+
+        StringBuilder sum = new StringBuilder();
+        sum.append(String.format("# Algorithm: %s (online)%n", engine.name()));
+        sum.append(String.format("# Jobs: %d%n", stats.completed()));
+        sum.append(String.format("# Avg Turnaround: %.2f%n", stats.avgTurnaround()));
+        sum.append(String.format("# Avg Waiting: %.2f%n", stats.avgWait()));
+        sum.append(String.format("# CPU Utilization: %.1f%%%n", stats.utilization()));
+        sum.append(String.format("# Throughput: %.6f jobs/unit%n", stats.throughput()));
+        sum.append(String.format("# Context Switches: %d%n", stats.contextSwitches()));
+        sum.append(String.format("# Waiting: %s%n", stats.waitHistogram().describe()));
+        sum.append(String.format("# Turnaround: %s%n", stats.turnaroundHistogram().describe()));
+        sum.append(String.format("# Response: %s (mean %.2f)%n", stats.responseHistogram().describe(),
+                stats.responseHistogram().mean()));
+        sum.append(String.format("# Peak active jobs: %d%n", stats.peakActive()));
+        sum.append(String.format("# Elapsed: %.3f ms%n", elapsed / 1e6));
+        out.write(sum.toString());
+        out.flush();
+        return 0;
+    }
+
+    // Failing to create the files is reported as an export error, not a read error
+    private static ResultExporter openExport(ResultExporter.Format format, File jobs, File timeline) {
+        try {
+            return new ResultExporter(format, jobs, timeline);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream open(String source) throws IOException {
+        if (source.equals("-")) return System.in;
+        if (source.startsWith("tcp:")) {
+            int port = Integer.parseInt(source.substring(4).trim());
+            try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+                System.err.printf("# Listening on %s:%d%n", server.getInetAddress().getHostAddress(), server.getLocalPort());
+                // Closing the stream closes the connection
+                return server.accept().getInputStream();
+            }
+        }
+        return new FileInputStream(source);
+    }
+
+    // Writes finished jobs and, if asked for, the slices as CSV; flushes whenever the
+    // scheduler waits for input, so a slow feed still sees its results right away
+    private static class StreamPrinter implements StreamSink {
+        private static final long REPORT_INTERVAL_NS = 1_000_000_000L;
+
+        private final Writer out, sliceOut;
+        // Also gets everything, when exporting
+        private final StreamSink export;
+        private StreamStats stats;
+        private long nextReport = System.nanoTime() + REPORT_INTERVAL_NS;
+        private int countdown = 4096;
+
+        StreamPrinter(Writer out, Writer sliceOut, StreamSink export) {
+            this.out = out;
+            this.sliceOut = sliceOut;
+            this.export = export;
+        }
+
+        @Override
+        public void completed(String name, int arrival, int burst, int level, int end) {
+            if (export != null) export.completed(name, arrival, burst, level, end);
+            try {
+                if (out != null) {
+                    out.write(name);
+                    out.write(',');
+                    out.write(Integer.toString(arrival));
+                    out.write(',');
+                    out.write(Integer.toString(burst));
+                    out.write(',');
+                    out.write(Integer.toString(level));
+                    out.write(',');
+                    out.write(Integer.toString(end));
+                    out.write(',');
+                    out.write(Integer.toString(end - arrival));
+                    out.write(',');
+                    out.write(Integer.toString(end - arrival - burst));
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (--countdown == 0) {
+                countdown = 4096;
+                report();
+            }
+        }
+
+        @Override
+        public void slice(String name, int start, int end) {
+            if (export != null) export.slice(name, start, end);
+            if (sliceOut == null) return;
+            try {
+                sliceOut.write(name == null ? "IDLE" : name);
+                sliceOut.write(',');
+                sliceOut.write(Integer.toString(start));
+                sliceOut.write(',');
+                sliceOut.write(Integer.toString(end));
+                sliceOut.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void rounds(String[] names, int width, int start, int quantum, int rounds) {
+            if (sliceOut != null) {
+                StreamSink.super.rounds(names, width, start, quantum, rounds);
+            } else if (export != null) {
+                export.rounds(names, width, start, quantum, rounds);
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (export != null) export.flush();
+            try {
+                if (out != null) out.flush();
+                if (sliceOut != null) sliceOut.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            report();
+        }
+
+        private void report() {
+            long t = System.nanoTime();
+            if (t < nextReport) return;
+            nextReport = t + REPORT_INTERVAL_NS;
+            System.err.printf("# t=%d: %,d done, %,d active, recent avg waiting %.2f, recent throughput %.6f jobs/unit%n",
+                    stats.now(), stats.completed(), stats.active(), stats.recentAvgWait(), stats.recentThroughput());
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+}
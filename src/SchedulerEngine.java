@@ -0,0 +1,31 @@
+// Headless scheduling algorithm. Implementations must not touch Swing/AWT so they can
+// run in batch mode and in tight loops.
+public interface SchedulerEngine {
+
+    String name();
+
+    // Runs the algorithm over the job ids of the table. Only the per-run columns
+    // (left/end) are written; call JobTable.reset() before running the same table again.
+    SimulationResult run(JobTable jobs, SimulationMonitor monitor);
+
+    default SimulationResult run(JobTable jobs) {
+        return run(jobs, SimulationMonitor.NONE);
+    }
+
+    // Resolves both the CLI keys (fcfs, sjf, srtf, priority, priority-p, rr, mlfq,
+    // lottery, stride) and the combo box labels.
+    // MLFQ gets three levels with doubling quanta starting at quantum; Lottery the default seed.
+    static SchedulerEngine forName(String algo, int quantum) {
+        String key = algo.trim().toLowerCase();
+        if (key.equals("rr") || key.startsWith("round")) return new RoundRobinEngine(quantum);
+        if (key.startsWith("mlfq")) return MlfqEngine.withQuantum(quantum);
+        if (key.startsWith("lottery")) return new LotteryEngine(quantum);
+        if (key.startsWith("stride")) return new StrideEngine(quantum);
+        if (key.equals("priority-p") || key.equals("priority (preemptive)")) return new PreemptivePriorityEngine();
+        if (key.startsWith("priority")) return new PriorityEngine();
+        if (key.startsWith("srtf")) return new SrtfEngine();
+        if (key.startsWith("sjf")) return new SjfEngine();
+        if (key.equals("fcfs")) return new FcfsEngine();
+        throw new IllegalArgumentException("Unknown algorithm: " + algo);
+    }
+}
@@ -0,0 +1,22 @@
+// Progress hook for long runs. Engines call it every few thousand scheduling steps with the
+// partial result; throwing CancellationException from it stops the run cooperatively.
+public interface SimulationMonitor {
+
+    SimulationMonitor NONE = (partial, now) -> { };
+
+    void progress(SimulationResult partial, int now);
+
+    // Called when a job finishes, e.g. to export it right away (see ResultExporter)
+    default void completed(SimulationResult partial, int job, int now) {
+    }
+
+    // Runs that only need the aggregates (e.g. parameter sweeps) can skip storing the timeline
+    default boolean keepTimeline() {
+        return true;
+    }
+
+    // Live editing asks resumable engines for checkpoints to restart from (see LiveSession)
+    default boolean keepCheckpoints() {
+        return false;
+    }
+}
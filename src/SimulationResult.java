@@ -0,0 +1,249 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of one engine run: the job table with its finish times, the timeline and the
+// aggregate metrics shown in the stats panel. Engines fill it while they run, so a partial
+// result (see SimulationMonitor) already holds the completed jobs and the timeline so far.
+// Waiting, turnaround and response times also go into fixed-size histograms for the
+// percentiles, so the metrics cost the same memory for any job count.
+public class SimulationResult {
+
+    // Scheduling steps between two monitor callbacks
+    private static final int CHECK_INTERVAL = 4096;
+    // Checkpoints kept at most; at the limit every other one is dropped and the interval
+    // doubles, so any run length keeps them evenly spread
+    private static final int MAX_CHECKPOINTS = 128;
+
+    final JobTable jobs;
+    final Timeline timeline;
+
+    private final SimulationMonitor monitor;
+    private int countdown = CHECK_INTERVAL;
+
+    // Times a job got the CPU; each is a scheduler.Decision JFR event while that is enabled
+    long decisions;
+    private boolean recordDecisions = JfrEvents.decisionsEnabled();
+
+    // Aggregates over the completed jobs
+    int completed;
+    double sumWait, sumTurn, sumBurst;
+    int maxEnd;
+
+    final LatencyHistogram waitHist = new LatencyHistogram();
+    final LatencyHistogram turnHist = new LatencyHistogram();
+    final LatencyHistogram responseHist = new LatencyHistogram();
+
+    // Ascending by time, only when the monitor keeps checkpoints
+    private final List<Checkpoint> checkpoints;
+    private int checkpointInterval;
+    private int checkpointCountdown;
+    private long checkpointBudget;
+
+    SimulationResult(JobTable jobs, SimulationMonitor monitor) {
+        this(jobs, monitor, new Timeline(0, monitor.keepTimeline()));
+    }
+
+    // For results with more than one lane, the timeline is the first one
+    SimulationResult(JobTable jobs, SimulationMonitor monitor, Timeline timeline) {
+        this.jobs = jobs;
+        this.monitor = monitor;
+        this.timeline = timeline;
+        checkpoints = monitor.keepCheckpoints() ? new ArrayList<>() : null;
+        // Scheduling steps between two checkpoints
+        checkpointInterval = checkpointCountdown = Math.max(1024, jobs.size() / 64);
+        // Ready entries all checkpoints together may copy
+        checkpointBudget = 4L * jobs.size() + 65536;
+    }
+
+    // Called by resumable engines at the top of their loop with the number of ready jobs.
+    // Older checkpoints are thinned out to make room in the budget, a checkpoint that
+    // still does not fit is skipped.
+    boolean checkpointDue(int ready) {
+        if (checkpoints == null || --checkpointCountdown > 0) return false;
+        checkpointCountdown = checkpointInterval;
+        while (ready > checkpointBudget && checkpoints.size() > 1) thin();
+        if (ready > checkpointBudget) return false;
+        checkpointBudget -= ready;
+        return true;
+    }
+
+    // FCFS: nothing is ready between two jobs
+    void checkpoint(int now, int admitted) {
+        keep(new Checkpoint(this, now, admitted, new long[0], new int[0]));
+    }
+
+    // Heap entries hold positions in arrival order
+    void checkpoint(int now, int admitted, LongHeap readyQ, int[] order) {
+        long[] ready = readyQ.toArray();
+        int[] left = new int[ready.length];
+        for (int i = 0; i < ready.length; i++) left[i] = jobs.left[order[(int) ready[i]]];
+        keep(new Checkpoint(this, now, admitted, ready, left));
+    }
+
+    // Queue entries are job ids
+    void checkpoint(int now, int admitted, IntQueue readyQ) {
+        long[] ready = new long[readyQ.size()];
+        int[] left = new int[ready.length];
+        for (int i = 0; i < ready.length; i++) {
+            ready[i] = readyQ.get(i);
+            left[i] = jobs.left[readyQ.get(i)];
+        }
+        keep(new Checkpoint(this, now, admitted, ready, left));
+    }
+
+    private void keep(Checkpoint c) {
+        checkpoints.add(c);
+        if (checkpoints.size() >= MAX_CHECKPOINTS) thin();
+    }
+
+    // Drops every other checkpoint, keeping the latest, and doubles the interval
+    private void thin() {
+        List<Checkpoint> all = new ArrayList<>(checkpoints);
+        checkpoints.clear();
+        for (int i = 0; i < all.size(); i++) {
+            if ((all.size() - 1 - i) % 2 == 0) checkpoints.add(all.get(i)); else checkpointBudget += all.get(i).ready.length;
+        }
+        checkpointInterval = (int) Math.min(Integer.MAX_VALUE / 2, 2L * checkpointInterval);
+    }
+
+    // Continues this run from one of its checkpoints on an edited input in which job j of
+    // this run's table is job newId[j] (-1 if it changed; null when no job moved). The
+    // result holds the state of the checkpoint and the earlier checkpoints; the engine then
+    // resumes it (see ResumableEngine).
+    SimulationResult resumeAt(Checkpoint from, JobTable edited, SimulationMonitor monitor, int[] newId, boolean readyHoldsIds) {
+        SimulationResult r = new SimulationResult(edited, monitor, timeline.restore(from.mark, newId));
+        r.completed = from.completed;
+        r.maxEnd = from.maxEnd;
+        r.sumWait = from.sumWait;
+        r.sumTurn = from.sumTurn;
+        r.sumBurst = from.sumBurst;
+        r.waitHist.add(from.waitHist);
+        r.turnHist.add(from.turnHist);
+        r.responseHist.add(from.responseHist);
+        if (r.checkpoints != null) {
+            for (Checkpoint c : checkpoints) {
+                if (c.now > from.now) break;
+                r.checkpoints.add(c.remap(newId, readyHoldsIds));
+                r.checkpointBudget -= c.ready.length;
+            }
+        }
+
+        // Finish times of the jobs done by then; the others are overwritten when they finish
+        for (int j = 0; j < jobs.size(); j++) {
+            int n = newId == null ? j : newId[j];
+            if (n >= 0) edited.end[n] = jobs.end[j];
+        }
+        return r;
+    }
+
+    // The latest checkpoint taken before the given time, or null
+    Checkpoint checkpointBefore(int time) {
+        if (checkpoints == null) return null;
+        Checkpoint best = null;
+        for (Checkpoint c : checkpoints) {
+            if (c.now >= time) break;
+            best = c;
+        }
+        return best;
+    }
+
+    // Called whenever a job gets the CPU, before its remaining time is charged; the first
+    // time (nothing run yet) gives the response time
+    void dispatch(int job, int now) {
+        if (jobs.left[job] == jobs.burst[job]) responseHist.record(now - jobs.arrival[job]);
+        decisions++;
+        if (recordDecisions) JfrEvents.decision(jobs.name(job), now, jobs.left[job]);
+    }
+
+    // Records a finished job
+    void complete(int job, int now) {
+        jobs.end[job] = now;
+        int turnaround = now - jobs.arrival[job];
+        sumWait += turnaround - jobs.burst[job];
+        sumTurn += turnaround;
+        waitHist.record(turnaround - jobs.burst[job]);
+        turnHist.record(turnaround);
+        sumBurst += jobs.burst[job];
+        if (now > maxEnd) maxEnd = now;
+        completed++;
+        monitor.completed(this, job, now);
+    }
+
+    // Called by the engines once per scheduling step
+    void step(int now) {
+        if (--countdown == 0) {
+            countdown = CHECK_INTERVAL;
+            recordDecisions = JfrEvents.decisionsEnabled();
+            monitor.progress(this, now);
+        }
+    }
+
+    public int turnaround(int job) {
+        return jobs.end[job] - jobs.arrival[job];
+    }
+
+    public int waiting(int job) {
+        return jobs.end[job] - jobs.arrival[job] - jobs.burst[job];
+    }
+
+    // Job ids in the order the results table lists them
+    public int[] rowOrder() {
+        return jobs.nameOrder();
+    }
+
+    public int completed() {
+        return completed;
+    }
+
+    // Times a job got the CPU; a Round Robin fast-forward counts once per job, however many
+    // rounds it skips
+    public long decisions() {
+        return decisions;
+    }
+
+    public double avgWait() {
+        return completed == 0 ? 0.0 : sumWait / completed;
+    }
+
+    public double avgTurnaround() {
+        return completed == 0 ? 0.0 : sumTurn / completed;
+    }
+
+    // CPU utilization in percent
+    public double utilization() {
+        return (maxEnd > 0) ? (sumBurst / maxEnd) * 100.0 : 0.0;
+    }
+
+    public int makespan() {
+        return maxEnd;
+    }
+
+    // Completed jobs per time unit, from the first arrival to the last completion
+    public double throughput() {
+        if (completed == 0) return 0.0;
+        long span = maxEnd - (long) jobs.arrival[jobs.arrivalOrder()[0]];
+        return span > 0 ? completed / (double) span : 0.0;
+    }
+
+    public LatencyHistogram waitHistogram() {
+        return waitHist;
+    }
+
+    public LatencyHistogram turnaroundHistogram() {
+        return turnHist;
+    }
+
+    // Time from arrival to the first time on the CPU
+    public LatencyHistogram responseHistogram() {
+        return responseHist;
+    }
+
+    public long contextSwitches() {
+        return timeline.contextSwitches();
+    }
+
+    // One timeline per CPU; a single-CPU run has just the main timeline
+    public Timeline[] lanes() {
+        return new Timeline[]{timeline};
+    }
+}
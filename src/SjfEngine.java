@@ -0,0 +1,12 @@
+public class SjfEngine extends NonPreemptiveEngine {
+
+    @Override
+    public String name() {
+        return "SJF (Non-Preemptive)";
+    }
+
+    @Override
+    protected int key(JobTable jobs, int job) {
+        return jobs.burst[job];
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.Arrays;
+
+// Binary min-heap of slot numbers ordered by (key, sequence number). The online scheduler
+// reuses slots, so unlike the LongHeap entries of the batch engines the tie-break cannot be
+// packed next to the key; both travel with the entry instead.
+class SlotHeap {
+
+    private int[] key;
+    private long[] seq;
+    private int[] slot;
+    private int size;
+
+    SlotHeap(int capacity) {
+        capacity = Math.max(capacity, 1);
+        key = new int[capacity];
+        seq = new long[capacity];
+        slot = new int[capacity];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(int k, long s, int v) {
+        if (size == key.length) {
+            key = Arrays.copyOf(key, size * 2);
+            seq = Arrays.copyOf(seq, size * 2);
+            slot = Arrays.copyOf(slot, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(k, s, key[parent], seq[parent])) break;
+            key[i] = key[parent];
+            seq[i] = seq[parent];
+            slot[i] = slot[parent];
+            i = parent;
+        }
+        key[i] = k;
+        seq[i] = s;
+        slot[i] = v;
+    }
+
+    int poll() {
+        int top = slot[0];
+        size--;
+        int k = key[size], v = slot[size];
+        long s = seq[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && less(key[child + 1], seq[child + 1], key[child], seq[child])) child++;
+            if (!less(key[child], seq[child], k, s)) break;
+            key[i] = key[child];
+            seq[i] = seq[child];
+            slot[i] = slot[child];
+            i = child;
+        }
+        key[i] = k;
+        seq[i] = s;
+        slot[i] = v;
+        return top;
+    }
+
+    static boolean less(int k1, long s1, int k2, long s2) {
+        return k1 != k2 ? k1 < k2 : s1 < s2;
+    }
+}
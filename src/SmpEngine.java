@@ -0,0 +1,235 @@
+import java.util.Arrays;
+
+// Runs FCFS, SJF, Priority or Round Robin on several CPUs. Like the single-CPU engines it
+// jumps from event to event; the events are arrivals and the ends of the slices running on
+// the cores (a small heap keyed by end time). At every instant finished slices are retired
+// first, then arrivals are queued, then preempted Round Robin jobs, and finally every idle
+// core takes its next job, so with one CPU the schedule equals the single-CPU engine's.
+//   GLOBAL   - one ready queue shared by all cores
+//   STEALING - one queue per core; arrivals go to the least loaded core and an idle core
+//              with an empty queue steals from the longest queue
+// Affinity decides where a preempted job is queued again: NONE = least loaded core,
+// SOFT = the core it ran on, HARD = the core it ran on and it is never stolen. Affinity
+// only applies to per-core queues, and only to jobs that already ran: a job waiting for its
+// first slice can always be stolen, so FCFS, SJF and Priority never see a difference.
+public class SmpEngine implements SchedulerEngine {
+
+    public enum Balancer { GLOBAL, STEALING }
+
+    public enum Affinity { NONE, SOFT, HARD }
+
+    private static final int NONE = -1;
+
+    private final SchedulerEngine policy;
+    private final NonPreemptiveEngine keyed;
+    private final int quantum;
+    private final int cores;
+    private final Balancer balancer;
+    private final Affinity affinity;
+
+    public SmpEngine(SchedulerEngine policy, int cores, Balancer balancer, Affinity affinity) {
+        if (cores < 1) throw new IllegalArgumentException("CPU count must be a positive integer.");
+        if (policy instanceof RoundRobinEngine) {
+            quantum = ((RoundRobinEngine) policy).quantum();
+            keyed = null;
+        } else if (policy instanceof FcfsEngine) {
+            quantum = Integer.MAX_VALUE;
+            keyed = null;
+        } else if (policy instanceof SjfEngine || policy instanceof PriorityEngine) {
+            quantum = Integer.MAX_VALUE;
+            keyed = (NonPreemptiveEngine) policy;
+        } else {
+            throw new IllegalArgumentException(policy.name() + " is not supported with more than one CPU.");
+        }
+        this.policy = policy;
+        this.cores = cores;
+        this.balancer = balancer;
+        this.affinity = affinity;
+    }
+
+    // The policy itself for one CPU, the SMP wrapper otherwise
+    public static SchedulerEngine forCores(SchedulerEngine policy, int cores, Balancer balancer, Affinity affinity) {
+        return cores == 1 ? policy : new SmpEngine(policy, cores, balancer, affinity);
+    }
+
+    @Override
+    public String name() {
+        String mode = balancer == Balancer.GLOBAL ? "global queue"
+                : "work stealing" + (affinity == Affinity.NONE ? "" : ", " + affinity.name().toLowerCase() + " affinity");
+        return policy.name() + " on " + cores + " CPUs (" + mode + ")";
+    }
+
+    public int cores() {
+        return cores;
+    }
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        SmpResult result = new SmpResult(jobs, monitor, cores);
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, left = jobs.left;
+        int total = order.length;
+
+        int queues = balancer == Balancer.GLOBAL ? 1 : cores;
+        long[] queued = new long[total];
+        RunQueue[] readyQ = new RunQueue[queues];
+        for (int q = 0; q < queues; q++) readyQ[q] = new RunQueue(keyed != null, queued);
+        int[] lastTake = new int[queues];
+        Arrays.fill(lastTake, NONE);
+
+        // Position in arrival order of the job on each core
+        int[] running = new int[cores];
+        Arrays.fill(running, NONE);
+        int[] lastCore = new int[jobs.size()];
+        Arrays.fill(lastCore, NONE);
+        int[] preempted = new int[cores];
+
+        // Slice ends as (end << 32 | core)
+        LongHeap slices = new LongHeap(cores);
+
+        int now = 0, idx = 0, doneCount = 0;
+        while (doneCount < total) {
+            int nPreempted = 0;
+            while (!slices.isEmpty() && (slices.peek() >>> 32) == now) {
+                int core = (int) slices.poll();
+                int job = order[running[core]];
+                if (left[job] == 0) {
+                    result.complete(job, now);
+                    doneCount++;
+                    running[core] = NONE;
+                } else {
+                    // Still marked as running until it is queued again below
+                    preempted[nPreempted++] = core;
+                }
+            }
+
+            while (idx < total && arrival[order[idx]] <= now) {
+                enqueue(result, readyQ, queues == 1 ? 0 : leastLoaded(readyQ, running), idx, false, jobs, order);
+                idx++;
+            }
+
+            for (int i = 0; i < nPreempted; i++) {
+                int core = preempted[i];
+                int pos = running[core];
+                running[core] = NONE;
+                int target = queues == 1 ? 0 : affinity != Affinity.NONE ? core : leastLoaded(readyQ, running);
+                enqueue(result, readyQ, target, pos, queues > 1 && affinity == Affinity.HARD, jobs, order);
+            }
+
+            for (int core = 0; core < cores; core++) {
+                if (running[core] != NONE) continue;
+                int q = queues == 1 ? 0 : core;
+                if (readyQ[q].size() == 0) {
+                    if (balancer != Balancer.STEALING) continue;
+                    q = longest(readyQ);
+                    if (q == NONE) continue;
+                    result.steals[core]++;
+                }
+                if (lastTake[q] == now) result.contention++;
+                lastTake[q] = now;
+                int pos = q == core || queues == 1 ? readyQ[q].poll() : readyQ[q].steal();
+
+                int job = order[pos];
+                if (lastCore[job] != NONE && lastCore[job] != core) result.migrations++;
+                lastCore[job] = core;
+                result.dispatch(job, now);
+                int exec = Math.min(left[job], quantum);
+                left[job] -= exec;
+                result.lanes[core].add(job, now, now + exec);
+                result.busy[core] += exec;
+                result.dispatches[core]++;
+                running[core] = pos;
+                slices.add(((long) (now + exec) << 32) | core);
+                result.step(now);
+            }
+
+            if (doneCount == total) break;
+            long next = slices.isEmpty() ? Long.MAX_VALUE : slices.peek() >>> 32;
+            if (idx < total) next = Math.min(next, arrival[order[idx]]);
+            now = (int) next;
+        }
+
+        // Every lane spans the whole run
+        for (Timeline lane : result.lanes) lane.add(Timeline.IDLE, lane.endTime(), result.makespan());
+        return result;
+    }
+
+    private void enqueue(SmpResult result, RunQueue[] readyQ, int q, int pos, boolean pin, JobTable jobs, int[] order) {
+        readyQ[q].add(pos, keyed == null ? 0 : keyed.key(jobs, order[pos]), pin);
+        if (readyQ[q].size() > result.maxQueue[q]) result.maxQueue[q] = readyQ[q].size();
+    }
+
+    // Queue length plus the running job; ties go to the lower core
+    private static int leastLoaded(RunQueue[] readyQ, int[] running) {
+        int best = 0, bestLoad = Integer.MAX_VALUE;
+        for (int q = 0; q < readyQ.length; q++) {
+            int load = readyQ[q].size() + (running[q] != NONE ? 1 : 0);
+            if (load < bestLoad) {
+                best = q;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    // The queue with the most jobs a thief may take, NONE if there are none
+    private static int longest(RunQueue[] readyQ) {
+        int best = NONE, bestSize = 0;
+        for (int q = 0; q < readyQ.length; q++) {
+            if (readyQ[q].stealable() > bestSize) {
+                best = q;
+                bestSize = readyQ[q].stealable();
+            }
+        }
+        return best;
+    }
+
+    // FIFO for FCFS and Round Robin, a heap on (key, arrival position) for SJF and Priority.
+    // Pinned FIFO entries wait in their own queue, so a thief takes the last unpinned entry
+    // in O(1); the owner takes whichever head was queued first. Keyed policies never preempt,
+    // so their heap holds no pinned jobs.
+    private static final class RunQueue {
+        private final IntQueue free, held;
+        private final LongHeap heap;
+        // Enqueue order of the queued arrival positions, shared by all queues
+        private final long[] queued;
+        private long count;
+
+        RunQueue(boolean keyed, long[] queued) {
+            free = keyed ? null : new IntQueue(64);
+            held = keyed ? null : new IntQueue(16);
+            heap = keyed ? new LongHeap(64) : null;
+            this.queued = queued;
+        }
+
+        void add(int pos, int key, boolean pin) {
+            if (heap != null) {
+                heap.add(((long) key << 32) | pos);
+                return;
+            }
+            queued[pos] = count++;
+            if (pin) held.add(pos); else free.add(pos);
+        }
+
+        int poll() {
+            if (heap != null) return (int) heap.poll();
+            if (held.isEmpty()) return free.poll();
+            if (free.isEmpty() || queued[held.peek()] < queued[free.peek()]) return held.poll();
+            return free.poll();
+        }
+
+        // A thief takes the last unpinned FIFO entry (the job the owner would run last of
+        // those) or the heap minimum; only called while stealable() > 0
+        int steal() {
+            return heap != null ? (int) heap.poll() : free.pollLast();
+        }
+
+        int size() {
+            return heap != null ? heap.size() : free.size() + held.size();
+        }
+
+        int stealable() {
+            return heap != null ? heap.size() : free.size();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+// Result of a multi-CPU run: one timeline lane per core plus the per-core counters that show
+// imbalance and queue contention. The inherited timeline is lane 0.
+public class SmpResult extends SimulationResult {
+
+    final Timeline[] lanes;
+
+    // Per core
+    final long[] busy;
+    final int[] dispatches;
+    final int[] steals;
+    final int[] maxQueue;
+
+    // Dispatches that hit a queue another core already took from at the same instant
+    long contention;
+    // Slices that ran on a different core than the job's previous slice
+    long migrations;
+
+    SmpResult(JobTable jobs, SimulationMonitor monitor, int cores) {
+        this(jobs, monitor, lanes(cores, monitor.keepTimeline()));
+    }
+
+    // Over existing lanes, e.g. read from the result cache
+    SmpResult(JobTable jobs, SimulationMonitor monitor, Timeline[] lanes) {
+        super(jobs, monitor, lanes[0]);
+        this.lanes = lanes;
+        int cores = lanes.length;
+        busy = new long[cores];
+        dispatches = new int[cores];
+        steals = new int[cores];
+        maxQueue = new int[cores];
+    }
+
+    private static Timeline[] lanes(int cores, boolean store) {
+        Timeline[] lanes = new Timeline[cores];
+        for (int c = 0; c < cores; c++) lanes[c] = new Timeline(0, store);
+        return lanes;
+    }
+
+    public int cores() {
+        return lanes.length;
+    }
+
+    @Override
+    public Timeline[] lanes() {
+        return lanes.clone();
+    }
+
+    // Share of the whole machine, in percent
+    @Override
+    public double utilization() {
+        return maxEnd > 0 ? sumBurst / ((double) maxEnd * lanes.length) * 100.0 : 0.0;
+    }
+
+    public double coreUtilization(int core) {
+        return maxEnd > 0 ? busy[core] * 100.0 / maxEnd : 0.0;
+    }
+
+    @Override
+    public long contextSwitches() {
+        long sum = 0;
+        for (Timeline lane : lanes) sum += lane.contextSwitches();
+        return sum;
+    }
+
+    // (max - min) / mean of the per-core busy time, 0 when perfectly balanced
+    public double imbalance() {
+        long min = Long.MAX_VALUE, max = 0, sum = 0;
+        for (long b : busy) {
+            min = Math.min(min, b);
+            max = Math.max(max, b);
+            sum += b;
+        }
+        return sum == 0 ? 0.0 : (max - min) * (double) lanes.length / sum;
+    }
+
+    public long steals() {
+        long sum = 0;
+        for (int s : steals) sum += s;
+        return sum;
+    }
+
+    public long contention() {
+        return contention;
+    }
+
+    public long migrations() {
+        return migrations;
+    }
+
+    public long busy(int core) {
+        return busy[core];
+    }
+
+    public int dispatches(int core) {
+        return dispatches[core];
+    }
+
+    public int steals(int core) {
+        return steals[core];
+    }
+
+    public int maxQueue(int core) {
+        return maxQueue[core];
+    }
+}
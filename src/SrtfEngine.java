@@ -0,0 +1,13 @@
+public class SrtfEngine extends PreemptiveEngine {
+
+    @Override
+    public String name() {
+        return "SRTF (Preemptive)";
+    }
+
+    // Remaining time: only the running job's changes, and it is re-keyed when requeued
+    @Override
+    protected int key(JobTable jobs, int job) {
+        return jobs.left[job];
+    }
+}
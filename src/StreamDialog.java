@@ -0,0 +1,383 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+// Online mode window: feeds the jobs of a file, named pipe or localhost connection to an
+// OnlineScheduler as they come and shows rolling metrics and the most recent stretch of
+// the schedule, which scrolls along as the stream goes on. Nothing is kept per finished
+// job, so a feed can run for hours.
+class StreamDialog extends JDialog {
+
+    private static final Font UI_FONT = new Font("Segoe UI", Font.PLAIN, 13);
+    private static final Font UI_BOLD = new Font("Segoe UI", Font.BOLD, 13);
+    private static final long PUBLISH_INTERVAL_NS = 250_000_000L;
+
+    private final Callable<SchedulerEngine> engine;
+    private final JComboBox<String> cmbSource = new JComboBox<>(new String[]{"File or named pipe", "Localhost port"});
+    private final JTextField txtSource = new JTextField(24);
+    private final JButton btnBrowse = new JButton("Browse...");
+    private final JButton btnStart = new JButton("Start");
+    private final JButton btnStop = new JButton("Stop");
+    private final JTextField txtWindow = new JTextField("200", 5);
+    private final JProgressBar prgStream = new JProgressBar();
+    private final JLabel lblJobs = label(), lblWait = label(), lblTurn = label(), lblThroughput = label();
+    private final JLabel lblUtil = label(), lblSwitches = label();
+    private final JLabel lblWaitPct = label(), lblTurnPct = label(), lblResponsePct = label();
+    private final Strip strip = new Strip();
+
+    private StreamWorker worker;
+
+    // The engine is taken from the main window's settings when the stream starts
+    StreamDialog(Frame owner, Callable<SchedulerEngine> engine) {
+        super(owner, "Online Stream", false);
+        this.engine = engine;
+        setSize(1000, 520);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel pnlTop = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        pnlTop.add(cmbSource);
+        pnlTop.add(txtSource);
+        pnlTop.add(btnBrowse);
+        pnlTop.add(btnStart);
+        pnlTop.add(btnStop);
+        pnlTop.add(boldLabel("Window:"));
+        pnlTop.add(txtWindow);
+        prgStream.setStringPainted(true);
+        prgStream.setString("Idle");
+        prgStream.setPreferredSize(new Dimension(220, 24));
+        pnlTop.add(prgStream);
+        add(pnlTop, BorderLayout.NORTH);
+
+        JPanel pnlStats = new JPanel(new GridLayout(3, 3, 20, 6));
+        pnlStats.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createTitledBorder(" Rolling metrics (recent = last " + StreamStats.RECENT + " jobs) "),
+                new EmptyBorder(6, 10, 6, 10)));
+        for (JLabel l : new JLabel[]{lblJobs, lblWait, lblTurn, lblThroughput, lblUtil, lblSwitches,
+                lblWaitPct, lblTurnPct, lblResponsePct}) {
+            pnlStats.add(l);
+        }
+        showStats(new StreamStats());
+
+        strip.setBackground(Color.WHITE);
+        strip.setPreferredSize(new Dimension(980, 140));
+        strip.setBorder(BorderFactory.createTitledBorder(" Latest slices "));
+
+        JPanel pnlCenter = new JPanel(new BorderLayout(10, 10));
+        pnlCenter.setBorder(new EmptyBorder(0, 10, 10, 10));
+        pnlCenter.add(pnlStats, BorderLayout.NORTH);
+        pnlCenter.add(strip, BorderLayout.CENTER);
+        add(pnlCenter, BorderLayout.CENTER);
+
+        txtSource.setToolTipText("Path of a trace file or named pipe in arrival order, or a port to accept one connection on");
+        txtWindow.setToolTipText("Time units the chart shows");
+        cmbSource.addActionListener(e -> btnBrowse.setEnabled(cmbSource.getSelectedIndex() == 0));
+        btnBrowse.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser(".");
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                txtSource.setText(chooser.getSelectedFile().getPath());
+            }
+        });
+        btnStop.setEnabled(false);
+        btnStart.addActionListener(e -> start());
+        btnStop.addActionListener(e -> {
+            if (worker != null) worker.stop();
+        });
+    }
+
+    private static JLabel label() {
+        JLabel lbl = new JLabel();
+        lbl.setFont(UI_FONT);
+        return lbl;
+    }
+
+    private static JLabel boldLabel(String text) {
+        JLabel lbl = new JLabel(text);
+        lbl.setFont(UI_BOLD);
+        return lbl;
+    }
+
+    private void start() {
+        SchedulerEngine selected;
+        try {
+            selected = engine.call();
+            // Rejects multi-CPU settings before anything is opened
+            OnlineScheduler.forEngine(selected, (n, a, b, l, e) -> { });
+            strip.setWindow(Integer.parseInt(txtWindow.getText().trim()));
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid number: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String source = txtSource.getText().trim();
+        if (source.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Enter a file, named pipe or port.", "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        worker = new StreamWorker(selected, cmbSource.getSelectedIndex() == 1, source);
+        btnStart.setEnabled(false);
+        btnStop.setEnabled(true);
+        prgStream.setIndeterminate(true);
+        prgStream.setString(selected.name());
+        worker.execute();
+    }
+
+    private void showStats(StreamStats s) {
+        lblJobs.setText(String.format("Jobs: %,d done, %,d active (peak %,d)", s.completed(), s.active(), s.peakActive()));
+        lblWait.setText(String.format("Avg Waiting: %.2f (recent %.2f)", s.avgWait(), s.recentAvgWait()));
+        lblTurn.setText(String.format("Avg Turnaround: %.2f (recent %.2f)", s.avgTurnaround(), s.recentAvgTurnaround()));
+        lblThroughput.setText(String.format("Throughput: %.4f (recent %.4f) jobs/unit", s.throughput(), s.recentThroughput()));
+        lblUtil.setText(String.format("CPU Utilization: %.1f%%, time %,d", s.utilization(), s.now()));
+        lblSwitches.setText(String.format("Context Switches: %,d", s.contextSwitches()));
+        setPercentiles(lblWaitPct, "Waiting", s.waitHistogram());
+        setPercentiles(lblTurnPct, "Turnaround", s.turnaroundHistogram());
+        setPercentiles(lblResponsePct, "Response", s.responseHistogram());
+    }
+
+    private static void setPercentiles(JLabel lbl, String metric, LatencyHistogram hist) {
+        lbl.setText(metric + ": " + (hist.count() == 0 ? "-" : hist.describe()));
+        lbl.setToolTipText(lbl.getText());
+    }
+
+    // Metrics and the latest slices at one moment, built on the worker thread
+    static class Snapshot {
+        final StreamStats stats;
+        final String[] names;
+        final int[] starts, ends;
+
+        Snapshot(StreamStats stats, String[] names, int[] starts, int[] ends) {
+            this.stats = stats;
+            this.names = names;
+            this.starts = starts;
+            this.ends = ends;
+        }
+    }
+
+    // Runs the scheduler off the EDT. The sink keeps the latest slices in a ring and
+    // publishes a snapshot at most every PUBLISH_INTERVAL_NS.
+    class StreamWorker extends SwingWorker<StreamStats, Snapshot> implements StreamSink {
+        private static final int RING = 4096;
+
+        private final SchedulerEngine engine;
+        private final boolean port;
+        private final String source;
+        private volatile ServerSocket server;
+        private volatile boolean stopped;
+        private OnlineScheduler scheduler;
+
+        private final String[] names = new String[RING];
+        private final int[] starts = new int[RING], ends = new int[RING];
+        private long slices;
+        private int countdown = 4096;
+        private long nextPublish = System.nanoTime() + PUBLISH_INTERVAL_NS;
+
+        StreamWorker(SchedulerEngine engine, boolean port, String source) {
+            this.engine = engine;
+            this.port = port;
+            this.source = source;
+        }
+
+        @Override
+        protected StreamStats doInBackground() throws Exception {
+            scheduler = OnlineScheduler.forEngine(engine, this);
+            try (InputStream in = open()) {
+                scheduler.run(in);
+            } catch (IOException e) {
+                if (stopped) throw new CancellationException();
+                throw e;
+            }
+            return scheduler.stats();
+        }
+
+        // Reading a file or pipe through a channel lets Stop interrupt a blocked read
+        private InputStream open() throws IOException {
+            if (!port) return Channels.newInputStream(FileChannel.open(new File(source).toPath(), StandardOpenOption.READ));
+            int number = Integer.parseInt(source);
+            try (ServerSocket listen = new ServerSocket(number, 1, InetAddress.getLoopbackAddress())) {
+                server = listen;
+                publish(new Snapshot(null, null, null, null));
+                Socket socket = listen.accept();
+                return socket.getInputStream();
+            } finally {
+                server = null;
+            }
+        }
+
+        void stop() {
+            stopped = true;
+            ServerSocket listen = server;
+            if (listen != null) {
+                try {
+                    listen.close();
+                } catch (IOException ignored) {
+                    // Closing only wakes up accept()
+                }
+            }
+            cancel(true);
+        }
+
+        @Override
+        public void completed(String name, int arrival, int burst, int level, int end) {
+            if (--countdown == 0) {
+                countdown = 4096;
+                maybePublish();
+            }
+        }
+
+        @Override
+        public void slice(String name, int start, int end) {
+            int i = (int) (slices++ % RING);
+            names[i] = name;
+            starts[i] = start;
+            ends[i] = end;
+            if (--countdown == 0) {
+                countdown = 4096;
+                maybePublish();
+            }
+        }
+
+        // Only the last rounds can still be in the ring
+        @Override
+        public void rounds(String[] roundNames, int width, int start, int quantum, int rounds) {
+            int keep = Math.min(rounds, RING / width + 1);
+            int skip = rounds - keep;
+            StreamSink.super.rounds(roundNames, width, start + skip * width * quantum, quantum, keep);
+        }
+
+        @Override
+        public void flush() {
+            maybePublish();
+        }
+
+        private void maybePublish() {
+            if (stopped) throw new CancellationException();
+            long t = System.nanoTime();
+            if (t < nextPublish) return;
+            nextPublish = t + PUBLISH_INTERVAL_NS;
+            publish(snapshot(scheduler.stats().copy()));
+        }
+
+        // The ring in time order
+        private Snapshot snapshot(StreamStats stats) {
+            int n = (int) Math.min(slices, RING);
+            String[] n2 = new String[n];
+            int[] s2 = new int[n], e2 = new int[n];
+            for (int k = 0; k < n; k++) {
+                int i = (int) ((slices - n + k) % RING);
+                n2[k] = names[i];
+                s2[k] = starts[i];
+                e2[k] = ends[i];
+            }
+            return new Snapshot(stats, n2, s2, e2);
+        }
+
+        @Override
+        protected void process(List<Snapshot> chunks) {
+            if (isDone()) return;
+            Snapshot latest = chunks.get(chunks.size() - 1);
+            if (latest.stats == null) {
+                prgStream.setString("Waiting for a connection...");
+                return;
+            }
+            prgStream.setString(String.format("%,d jobs in", latest.stats.arrived()));
+            showStats(latest.stats);
+            strip.setSlices(latest.names, latest.starts, latest.ends);
+        }
+
+        @Override
+        protected void done() {
+            worker = null;
+            btnStart.setEnabled(true);
+            btnStop.setEnabled(false);
+            prgStream.setIndeterminate(false);
+            try {
+                StreamStats stats = get();
+                Snapshot last = snapshot(stats);
+                showStats(stats);
+                strip.setSlices(last.names, last.starts, last.ends);
+                prgStream.setString(String.format("Done: %,d jobs", stats.completed()));
+            } catch (CancellationException e) {
+                prgStream.setString("Stopped");
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof CancellationException) {
+                    prgStream.setString("Stopped");
+                } else {
+                    prgStream.setString("Failed");
+                    JOptionPane.showMessageDialog(StreamDialog.this, cause.getMessage(), "Stream Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+    }
+
+    // Gantt strip of the last `window` time units, ending at the latest slice
+    static class Strip extends JPanel {
+        private static final Color IDLE_COLOR = new Color(220, 220, 220);
+        private static final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 11);
+
+        private String[] names = new String[0];
+        private int[] starts = new int[0], ends = new int[0];
+        private int window = 200;
+
+        void setWindow(int window) {
+            if (window <= 0) throw new NumberFormatException("the window must be positive");
+            this.window = window;
+        }
+
+        void setSlices(String[] names, int[] starts, int[] ends) {
+            this.names = names;
+            this.starts = starts;
+            this.ends = ends;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            int n = ends.length;
+            if (n == 0) return;
+            Graphics2D g2d = (Graphics2D) g;
+            Insets in = getInsets();
+            int left = in.left + 10, right = getWidth() - in.right - 10;
+            int top = in.top + 10, bottom = getHeight() - in.bottom - 25;
+            int w = Math.max(1, right - left);
+            int to = ends[n - 1];
+            long from = (long) to - window;
+            double scale = w / (double) window;
+
+            g2d.setFont(LABEL_FONT);
+            FontMetrics fm = g2d.getFontMetrics();
+            for (int i = n - 1; i >= 0 && ends[i] > from; i--) {
+                int x1 = left + (int) ((Math.max(starts[i], from) - from) * scale);
+                int x2 = left + (int) ((ends[i] - from) * scale);
+                boolean idle = names[i] == null;
+                g2d.setColor(idle ? IDLE_COLOR : VisualizationPanel.generateColor(names[i]));
+                g2d.fillRect(x1, top, Math.max(1, x2 - x1), bottom - top);
+                if (!idle && fm.stringWidth(names[i]) + 4 < x2 - x1) {
+                    g2d.setColor(Color.WHITE);
+                    g2d.drawString(names[i], x1 + (x2 - x1 - fm.stringWidth(names[i])) / 2, (top + bottom) / 2 + 4);
+                }
+            }
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.drawLine(left, bottom, right, bottom);
+            g2d.drawString(String.valueOf(Math.max(from, starts[0])), left, bottom + 15);
+            String end = String.valueOf(to);
+            g2d.drawString(end, right - fm.stringWidth(end), bottom + 15);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+// Receives the output of an OnlineScheduler as the schedule unfolds: every finished job and
+// the CPU timeline slice by slice, in time order. Adjacent slices of the same job are merged
+// before they are passed on, as in Timeline.
+interface StreamSink {
+
+    void completed(String name, int arrival, int burst, int level, int end);
+
+    // name is null for idle time
+    default void slice(String name, int start, int end) {
+    }
+
+    // Round Robin fast-forward: rounds times, each of the first width names runs one
+    // quantum, in order. The array is only valid during the call.
+    default void rounds(String[] names, int width, int start, int quantum, int rounds) {
+        int t = start;
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 0; i < width; i++, t += quantum) slice(names[i], t, t + quantum);
+        }
+    }
+
+    // Called whenever the input has no more data ready, before the scheduler waits for it
+    default void flush() {
+    }
+}
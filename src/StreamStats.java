@@ -0,0 +1,156 @@
+// Metrics of an online run, updated job by job: the same totals and latency histograms as
+// SimulationResult, plus rolling averages over the last RECENT completions. Fixed size, so
+// an unbounded stream does not grow it. copy() gives a snapshot for another thread.
+public class StreamStats {
+
+    // Completions the rolling averages cover
+    static final int RECENT = 1024;
+
+    long arrived, completed;
+    double sumWait, sumTurn, sumBurst;
+    int firstArrival, maxEnd;
+    int now;
+    long switches;
+    // Jobs that arrived and have not finished, and the most at any time
+    int active, peakActive;
+
+    final LatencyHistogram waitHist = new LatencyHistogram();
+    final LatencyHistogram turnHist = new LatencyHistogram();
+    final LatencyHistogram responseHist = new LatencyHistogram();
+
+    // Ring of the latest completions
+    private final int[] recentWait = new int[RECENT];
+    private final int[] recentTurn = new int[RECENT];
+    private final int[] recentEnd = new int[RECENT];
+    private long recentWaitSum, recentTurnSum;
+
+    void arrive(int arrival) {
+        if (arrived++ == 0) firstArrival = arrival;
+        if (++active > peakActive) peakActive = active;
+    }
+
+    void complete(int arrival, int burst, int end) {
+        int turnaround = end - arrival;
+        sumWait += turnaround - burst;
+        sumTurn += turnaround;
+        waitHist.record(turnaround - burst);
+        turnHist.record(turnaround);
+        sumBurst += burst;
+        if (end > maxEnd) maxEnd = end;
+        active--;
+
+        int i = (int) (completed % RECENT);
+        if (completed >= RECENT) {
+            recentWaitSum -= recentWait[i];
+            recentTurnSum -= recentTurn[i];
+        }
+        recentWait[i] = turnaround - burst;
+        recentTurn[i] = turnaround;
+        recentEnd[i] = end;
+        recentWaitSum += recentWait[i];
+        recentTurnSum += turnaround;
+        completed++;
+    }
+
+    public StreamStats copy() {
+        StreamStats s = new StreamStats();
+        s.arrived = arrived;
+        s.completed = completed;
+        s.sumWait = sumWait;
+        s.sumTurn = sumTurn;
+        s.sumBurst = sumBurst;
+        s.firstArrival = firstArrival;
+        s.maxEnd = maxEnd;
+        s.now = now;
+        s.switches = switches;
+        s.active = active;
+        s.peakActive = peakActive;
+        s.waitHist.add(waitHist);
+        s.turnHist.add(turnHist);
+        s.responseHist.add(responseHist);
+        System.arraycopy(recentWait, 0, s.recentWait, 0, RECENT);
+        System.arraycopy(recentTurn, 0, s.recentTurn, 0, RECENT);
+        System.arraycopy(recentEnd, 0, s.recentEnd, 0, RECENT);
+        s.recentWaitSum = recentWaitSum;
+        s.recentTurnSum = recentTurnSum;
+        return s;
+    }
+
+    public long arrived() {
+        return arrived;
+    }
+
+    public long completed() {
+        return completed;
+    }
+
+    // Simulated time the schedule has reached
+    public int now() {
+        return now;
+    }
+
+    public int active() {
+        return active;
+    }
+
+    public int peakActive() {
+        return peakActive;
+    }
+
+    public double avgWait() {
+        return completed == 0 ? 0.0 : sumWait / completed;
+    }
+
+    public double avgTurnaround() {
+        return completed == 0 ? 0.0 : sumTurn / completed;
+    }
+
+    // CPU utilization in percent
+    public double utilization() {
+        return (maxEnd > 0) ? (sumBurst / maxEnd) * 100.0 : 0.0;
+    }
+
+    // Completed jobs per time unit, from the first arrival to the last completion
+    public double throughput() {
+        if (completed == 0) return 0.0;
+        long span = maxEnd - (long) firstArrival;
+        return span > 0 ? completed / (double) span : 0.0;
+    }
+
+    public long contextSwitches() {
+        return switches;
+    }
+
+    private int recentCount() {
+        return (int) Math.min(completed, RECENT);
+    }
+
+    public double recentAvgWait() {
+        return completed == 0 ? 0.0 : (double) recentWaitSum / recentCount();
+    }
+
+    public double recentAvgTurnaround() {
+        return completed == 0 ? 0.0 : (double) recentTurnSum / recentCount();
+    }
+
+    // Completions per time unit between the oldest and the latest of the recent jobs
+    public double recentThroughput() {
+        int n = recentCount();
+        if (n < 2) return 0.0;
+        int latest = recentEnd[(int) ((completed - 1) % RECENT)];
+        int oldest = recentEnd[(int) ((completed - n) % RECENT)];
+        return latest > oldest ? (n - 1) / (double) (latest - oldest) : 0.0;
+    }
+
+    public LatencyHistogram waitHistogram() {
+        return waitHist;
+    }
+
+    public LatencyHistogram turnaroundHistogram() {
+        return turnHist;
+    }
+
+    public LatencyHistogram responseHistogram() {
+        return responseHist;
+    }
+}
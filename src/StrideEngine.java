@@ -0,0 +1,83 @@
+// Stride scheduling, the deterministic counterpart of lottery scheduling: every job has a
+// stride inversely proportional to its tickets and a pass value, the job with the lowest
+// pass gets the next quantum and its pass advances by its stride. Over any stretch of time
+// each ready job gets its ticket share of the CPU, give or take one quantum.
+//   - Ready jobs are in a min-heap of (pass << 32 | arrival position); equal passes go to
+//     the earlier arrival.
+//   - A job joins with the pass of the last job picked plus its own stride, so a newcomer
+//     does not make up for the time before it arrived.
+//   - Passes are kept relative to that last pick and rebased once it passes REBASE, so they
+//     fit in the 31 bits of the heap key however long the run is.
+public class StrideEngine extends ProportionalShareEngine {
+
+    // Stride of a job with one ticket; a full TICKETS job strides STRIDE1 / TICKETS
+    static final int STRIDE1 = 1 << 20;
+    private static final int REBASE = 1 << 30;
+
+    public StrideEngine(int quantum) {
+        super(quantum);
+    }
+
+    @Override
+    public String name() {
+        return "Stride (q=" + quantum + ")";
+    }
+
+    static int stride(int level) {
+        return STRIDE1 / tickets(level);
+    }
+
+    @Override
+    public SimulationResult run(JobTable jobs, SimulationMonitor monitor) {
+        SimulationResult result = new SimulationResult(jobs, monitor);
+        Timeline timeline = result.timeline;
+        int[] order = jobs.arrivalOrder();
+        int[] arrival = jobs.arrival, left = jobs.left, level = jobs.level;
+        int total = order.length;
+
+        LongHeap readyQ = new LongHeap(64);
+        // Pass of the last job picked
+        long virtual = 0;
+        int now = 0, doneCount = 0, idx = 0;
+
+        while (doneCount < total) {
+            while (idx < total && arrival[order[idx]] <= now) {
+                readyQ.add(((virtual + stride(level[order[idx]])) << 32) | idx);
+                idx++;
+            }
+
+            if (readyQ.isEmpty()) {
+                int nextArr = arrival[order[idx]];
+                timeline.add(Timeline.IDLE, now, nextArr);
+                now = nextArr;
+                continue;
+            }
+
+            long top = readyQ.poll();
+            int pos = (int) top;
+            int job = order[pos];
+            boolean alone = readyQ.isEmpty();
+            // Alone, the job's pass only matters relative to later arrivals: start over at 0
+            virtual = alone ? 0 : top >>> 32;
+            if (virtual > REBASE) {
+                readyQ.lowerKeys((int) virtual);
+                virtual = 0;
+            }
+            result.dispatch(job, now);
+            int exec = slice(left[job], now, idx < total ? arrival[order[idx]] : Integer.MAX_VALUE, alone);
+
+            timeline.add(job, now, now + exec);
+            now += exec;
+            left[job] -= exec;
+
+            if (left[job] > 0) {
+                readyQ.add(((virtual + stride(level[job])) << 32) | pos);
+            } else {
+                result.complete(job, now);
+                doneCount++;
+            }
+            result.step(now);
+        }
+        return result;
+    }
+}
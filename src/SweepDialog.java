@@ -0,0 +1,254 @@
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+// Algorithm comparison window: runs a ParameterSweep in the background and shows the
+// results as a table and as a chart of the averages over the Round Robin quanta.
+class SweepDialog extends JDialog {
+
+    private static final Font UI_FONT = new Font("Segoe UI", Font.PLAIN, 13);
+    private static final Font UI_BOLD = new Font("Segoe UI", Font.BOLD, 13);
+    private static final Color WAIT_COLOR = new Color(52, 152, 219);
+    private static final Color TURN_COLOR = new Color(46, 204, 113);
+
+    private final Callable<JobTable> input;
+    private final ResultCache cache;
+    private final JTextField txtFrom = new JTextField("1", 4);
+    private final JTextField txtTo = new JTextField("20", 4);
+    private final JTextField txtStep = new JTextField("1", 4);
+    private final JButton btnStart = new JButton("Run Sweep");
+    private final JButton btnStop = new JButton("Cancel");
+    private final JProgressBar prgSweep = new JProgressBar();
+    private final RowsModel model = new RowsModel();
+    private final Chart chart = new Chart();
+
+    private ParameterSweep sweep;
+
+    // The input is loaded on the background thread; runs already in the cache are not repeated
+    SweepDialog(Frame owner, Callable<JobTable> input, ResultCache cache) {
+        super(owner, "Compare Algorithms", false);
+        this.input = input;
+        this.cache = cache;
+        setSize(900, 620);
+        setLocationRelativeTo(owner);
+        setLayout(new BorderLayout(10, 10));
+
+        JPanel pnlTop = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
+        pnlTop.add(label("RR Quantum from:"));
+        pnlTop.add(txtFrom);
+        pnlTop.add(label("to:"));
+        pnlTop.add(txtTo);
+        pnlTop.add(label("step:"));
+        pnlTop.add(txtStep);
+        pnlTop.add(btnStart);
+        pnlTop.add(btnStop);
+        prgSweep.setStringPainted(true);
+        prgSweep.setString("Idle");
+        pnlTop.add(prgSweep);
+        add(pnlTop, BorderLayout.NORTH);
+
+        JTable table = new JTable(model);
+        table.setFont(UI_FONT);
+        table.setRowHeight(22);
+        table.getTableHeader().setFont(UI_BOLD);
+
+        chart.setPreferredSize(new Dimension(880, 240));
+        chart.setBackground(Color.WHITE);
+        chart.setBorder(BorderFactory.createTitledBorder(" Round Robin: averages by quantum (dashed: the other algorithms, waiting) "));
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), chart);
+        split.setResizeWeight(0.5);
+        split.setBorder(new EmptyBorder(0, 10, 10, 10));
+        add(split, BorderLayout.CENTER);
+
+        btnStop.setEnabled(false);
+        btnStart.addActionListener(e -> start());
+        btnStop.addActionListener(e -> {
+            if (sweep != null) sweep.cancel();
+        });
+    }
+
+    private static JLabel label(String text) {
+        JLabel lbl = new JLabel(text);
+        lbl.setFont(UI_BOLD);
+        return lbl;
+    }
+
+    private void start() {
+        List<SchedulerEngine> engines;
+        try {
+            engines = ParameterSweep.engines(Integer.parseInt(txtFrom.getText().trim()),
+                    Integer.parseInt(txtTo.getText().trim()), Integer.parseInt(txtStep.getText().trim()));
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid quantum range: " + ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        ParameterSweep current = new ParameterSweep(cache);
+        sweep = current;
+        btnStart.setEnabled(false);
+        btnStop.setEnabled(true);
+        prgSweep.setMaximum(engines.size());
+        prgSweep.setValue(0);
+        prgSweep.setString("Loading input...");
+
+        // Polls the finished counter while the sweep runs
+        Timer poll = new Timer(200, e -> {
+            prgSweep.setValue(current.finished());
+            prgSweep.setString(current.finished() + " / " + engines.size() + " runs");
+        });
+
+        new SwingWorker<List<ParameterSweep.Row>, Void>() {
+            @Override
+            protected List<ParameterSweep.Row> doInBackground() throws Exception {
+                JobTable jobs = input.call();
+                if (jobs == null || jobs.isEmpty()) throw new IllegalArgumentException("Input area is empty or invalid.");
+                SwingUtilities.invokeLater(poll::start);
+                return current.run(jobs, engines);
+            }
+
+            @Override
+            protected void done() {
+                poll.stop();
+                sweep = null;
+                btnStart.setEnabled(true);
+                btnStop.setEnabled(false);
+                try {
+                    List<ParameterSweep.Row> rows = get();
+                    model.setRows(rows);
+                    chart.setRows(rows);
+                    prgSweep.setValue(engines.size());
+                    prgSweep.setString("Done: " + rows.size() + " runs");
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof CancellationException) {
+                        prgSweep.setString("Cancelled");
+                    } else {
+                        prgSweep.setString("Failed");
+                        JOptionPane.showMessageDialog(SweepDialog.this, cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        }.execute();
+    }
+
+    // Read-only table over the sweep rows
+    static class RowsModel extends AbstractTableModel {
+        private static final String[] COLS = {"Algorithm", "Quantum", "Avg Waiting", "Avg Turnaround",
+                "CPU Utilization %", "Context Switches", "Time (ms)"};
+        private List<ParameterSweep.Row> rows = new ArrayList<>();
+
+        void setRows(List<ParameterSweep.Row> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            ParameterSweep.Row r = rows.get(row);
+            switch (column) {
+                case 0: return r.algorithm;
+                case 1: return r.quantum == 0 ? "-" : String.valueOf(r.quantum);
+                case 2: return String.format("%.2f", r.avgWait);
+                case 3: return String.format("%.2f", r.avgTurnaround);
+                case 4: return String.format("%.1f", r.utilization);
+                case 5: return r.contextSwitches;
+                default: return String.format("%.1f", r.elapsedNanos / 1e6);
+            }
+        }
+    }
+
+    // Line chart of avg waiting / turnaround over the quanta, the non-RR runs as reference lines
+    static class Chart extends JPanel {
+        private List<ParameterSweep.Row> rows = new ArrayList<>();
+
+        void setRows(List<ParameterSweep.Row> rows) {
+            this.rows = rows;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            List<ParameterSweep.Row> rr = new ArrayList<>();
+            double max = 0;
+            for (ParameterSweep.Row r : rows) {
+                if (r.roundRobin) rr.add(r);
+                max = Math.max(max, Math.max(r.avgWait, r.avgTurnaround));
+            }
+            if (rows.isEmpty() || max <= 0) return;
+
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Insets in = getInsets();
+            int left = in.left + 60, right = getWidth() - in.right - 20;
+            int top = in.top + 10, bottom = getHeight() - in.bottom - 30;
+            int w = Math.max(1, right - left), h = Math.max(1, bottom - top);
+
+            g2d.setColor(Color.GRAY);
+            g2d.drawLine(left, bottom, right, bottom);
+            g2d.drawLine(left, top, left, bottom);
+            g2d.setFont(new Font("SansSerif", Font.PLAIN, 11));
+            g2d.drawString(String.format("%.0f", max), in.left + 5, top + 10);
+            g2d.drawString("0", in.left + 5, bottom);
+
+            Stroke solid = g2d.getStroke();
+            Stroke dashed = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[]{6, 4}, 0);
+            g2d.setStroke(dashed);
+            int ref = 0;
+            for (ParameterSweep.Row r : rows) {
+                if (r.roundRobin) continue;
+                int y = bottom - (int) (r.avgWait / max * h);
+                g2d.setColor(Color.DARK_GRAY);
+                g2d.drawLine(left, y, right, y);
+                // Labels are staggered so that equal averages stay readable
+                g2d.drawString(r.algorithm, left + 10 + (ref++ % 4) * 190, y - 3);
+            }
+            g2d.setStroke(solid);
+            if (rr.isEmpty()) return;
+
+            int minQ = rr.get(0).quantum, maxQ = rr.get(rr.size() - 1).quantum;
+            int[] xs = new int[rr.size()], waitYs = new int[rr.size()], turnYs = new int[rr.size()];
+            for (int i = 0; i < rr.size(); i++) {
+                ParameterSweep.Row r = rr.get(i);
+                xs[i] = maxQ == minQ ? left + w / 2 : left + (int) ((long) (r.quantum - minQ) * w / (maxQ - minQ));
+                waitYs[i] = bottom - (int) (r.avgWait / max * h);
+                turnYs[i] = bottom - (int) (r.avgTurnaround / max * h);
+            }
+            g2d.setStroke(new BasicStroke(2));
+            g2d.setColor(TURN_COLOR);
+            g2d.drawPolyline(xs, turnYs, xs.length);
+            g2d.setColor(WAIT_COLOR);
+            g2d.drawPolyline(xs, waitYs, xs.length);
+            g2d.setStroke(solid);
+
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.drawString("q=" + minQ, left, bottom + 15);
+            g2d.drawString("q=" + maxQ, right - 30, bottom + 15);
+            g2d.setColor(WAIT_COLOR);
+            g2d.drawString("Avg Waiting", left + 10, bottom + 28);
+            g2d.setColor(TURN_COLOR);
+            g2d.drawString("Avg Turnaround", left + 110, bottom + 28);
+        }
+    }
+}
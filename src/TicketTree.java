@@ -0,0 +1,36 @@
+// Fenwick tree over the ticket counts of slots 0..n-1 (the lottery engine uses arrival
+// positions). Changing a count and drawing the holder of ticket t are both O(log n), so a
+// lottery over a large ready queue never scans it.
+class TicketTree {
+
+    private final long[] tree;
+    private final int top;
+    private long total;
+
+    TicketTree(int n) {
+        tree = new long[n + 1];
+        top = n == 0 ? 0 : Integer.highestOneBit(n);
+    }
+
+    long total() {
+        return total;
+    }
+
+    void add(int slot, long tickets) {
+        total += tickets;
+        for (int i = slot + 1; i < tree.length; i += i & -i) tree[i] += tickets;
+    }
+
+    // The slot holding ticket t, for 0 <= t < total(): tickets are numbered slot by slot
+    int find(long t) {
+        int pos = 0;
+        for (int step = top; step > 0; step >>>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] <= t) {
+                pos = next;
+                t -= tree[next];
+            }
+        }
+        return pos;
+    }
+}
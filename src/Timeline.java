@@ -0,0 +1,535 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Compact run-length timeline. Slices are stored as (owner, end) pairs in chunked primitive
+// arrays; a slice starts where the previous one ended, so a gap passed to add() is recorded
+// as IDLE. Adjacent slices of the same owner are merged on insert, e.g. back-to-back Round
+// Robin quanta of a job that is alone in the ready queue. A timeline created with
+// store = false only keeps the counters (end time, busy time, context switches).
+// Rounds that repeat one pattern of equal slices (see addRepeat) are kept as a single
+// compressed entry; cursors expand it again, so readers still see one slice per quantum.
+public class Timeline {
+
+    public static final int IDLE = -1;
+
+    // Owner value of a repeat block entry is REPEAT - block number
+    private static final int REPEAT = -2;
+
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+
+    private int[][] owners = new int[4][];
+    private int[][] ends = new int[4][];
+    private int size;
+
+    private final int origin;
+    private final boolean store;
+    private int lastEnd;
+    private boolean frozen;
+
+    private int lastJob = IDLE;
+    private long busy;
+    private long switches;
+
+    // Repeat blocks: entry index, pattern offset and length, slice length, rounds, and the
+    // slices the blocks up to this one add beyond their single entry. All append-only, so
+    // snapshots can share the arrays.
+    private int blocks;
+    private int[] blockEntry = new int[0], blockPattern = new int[0], blockWidth = new int[0];
+    private int[] blockSlice = new int[0], blockRounds = new int[0];
+    private long[] blockExtra = new long[0];
+    private int[] patterns = new int[0];
+    private int patternSize;
+
+    public Timeline() {
+        this(0);
+    }
+
+    public Timeline(int origin) {
+        this(origin, true);
+    }
+
+    public Timeline(int origin, boolean store) {
+        this.origin = origin;
+        this.store = store;
+        this.lastEnd = origin;
+    }
+
+    // Owner is a job id or IDLE
+    public void add(int owner, int start, int end) {
+        if (frozen) throw new IllegalStateException("Timeline snapshots are read-only");
+        if (end <= start) return;
+        if (start < lastEnd) {
+            throw new IllegalArgumentException("Slice [" + start + ", " + end + ") overlaps the timeline end " + lastEnd);
+        }
+
+        if (owner != IDLE) {
+            busy += end - start;
+            if (lastJob != IDLE && lastJob != owner) switches++;
+            lastJob = owner;
+        }
+        if (!store) {
+            lastEnd = end;
+            return;
+        }
+        if (start > lastEnd) append(IDLE, start);
+        append(owner, end);
+    }
+
+    // rounds times, each of the first width owners of pattern runs one slice of the given
+    // length, in order. Consecutive pattern owners must differ, as in a Round Robin queue.
+    public void addRepeat(int[] pattern, int width, int start, int slice, int rounds) {
+        if (width == 1) {
+            add(pattern[0], start, start + slice * rounds);
+            return;
+        }
+        if (frozen) throw new IllegalStateException("Timeline snapshots are read-only");
+        if (width == 0 || rounds <= 0) return;
+        int end = start + slice * width * rounds;
+        if (start < lastEnd) {
+            throw new IllegalArgumentException("Slice [" + start + ", " + end + ") overlaps the timeline end " + lastEnd);
+        }
+
+        busy += (long) slice * width * rounds;
+        if (lastJob != IDLE && lastJob != pattern[0]) switches++;
+        switches += (long) width * rounds - 1;
+        lastJob = pattern[width - 1];
+        if (!store) {
+            lastEnd = end;
+            return;
+        }
+        if (start > lastEnd) append(IDLE, start);
+
+        if (blocks == blockEntry.length) {
+            int n = Math.max(16, blocks * 2);
+            blockEntry = Arrays.copyOf(blockEntry, n);
+            blockPattern = Arrays.copyOf(blockPattern, n);
+            blockWidth = Arrays.copyOf(blockWidth, n);
+            blockSlice = Arrays.copyOf(blockSlice, n);
+            blockRounds = Arrays.copyOf(blockRounds, n);
+            blockExtra = Arrays.copyOf(blockExtra, n);
+        }
+        if (patternSize + width > patterns.length) {
+            patterns = Arrays.copyOf(patterns, Math.max(patternSize + width, patterns.length * 2));
+        }
+        System.arraycopy(pattern, 0, patterns, patternSize, width);
+        blockEntry[blocks] = size;
+        blockPattern[blocks] = patternSize;
+        blockWidth[blocks] = width;
+        blockSlice[blocks] = slice;
+        blockRounds[blocks] = rounds;
+        blockExtra[blocks] = (blocks == 0 ? 0 : blockExtra[blocks - 1]) + (long) width * rounds - 1;
+        patternSize += width;
+        append(REPEAT - blocks, end);
+        blocks++;
+    }
+
+    private void append(int owner, int end) {
+        if (size > 0) {
+            int last = size - 1;
+            if (owners[last >>> CHUNK_BITS][last & MASK] == owner) {
+                ends[last >>> CHUNK_BITS][last & MASK] = end;
+                lastEnd = end;
+                return;
+            }
+        }
+
+        int c = size >>> CHUNK_BITS;
+        if (c == owners.length) {
+            owners = Arrays.copyOf(owners, c * 2);
+            ends = Arrays.copyOf(ends, c * 2);
+        }
+        if (owners[c] == null) {
+            owners[c] = new int[CHUNK];
+            ends[c] = new int[CHUNK];
+        }
+        owners[c][size & MASK] = owner;
+        ends[c][size & MASK] = end;
+        size++;
+        lastEnd = end;
+    }
+
+    // Read-only copy of the current contents that can be handed to another thread while this
+    // timeline keeps growing. Full chunks are shared; the chunk holding the last slice, which
+    // a later merge may still extend, is copied.
+    public Timeline snapshot() {
+        Timeline t = new Timeline(origin);
+        t.owners = owners.clone();
+        t.ends = ends.clone();
+        t.size = size;
+        t.lastEnd = lastEnd;
+        t.lastJob = lastJob;
+        t.busy = busy;
+        t.switches = switches;
+        t.blocks = blocks;
+        t.blockEntry = blockEntry;
+        t.blockPattern = blockPattern;
+        t.blockWidth = blockWidth;
+        t.blockSlice = blockSlice;
+        t.blockRounds = blockRounds;
+        t.blockExtra = blockExtra;
+        t.patterns = patterns;
+        t.patternSize = patternSize;
+        t.frozen = true;
+        if (size > 0) {
+            int c = (size - 1) >>> CHUNK_BITS;
+            t.owners[c] = owners[c].clone();
+            t.ends[c] = ends[c].clone();
+        }
+        return t;
+    }
+
+    // State of the timeline at this moment, to continue from it later (see restore)
+    Mark mark() {
+        return new Mark(this);
+    }
+
+    // A new timeline holding what this one held at the mark, with every job id j replaced by
+    // newId[j]. The entries after the mark are dropped, and a merge that extended the last
+    // entry after the mark is undone. A null newId keeps the ids.
+    Timeline restore(Mark m, int[] newId) {
+        Timeline t = new Timeline(origin, store);
+        t.lastEnd = m.lastEnd;
+        t.lastJob = m.lastJob == IDLE || newId == null ? m.lastJob : newId[m.lastJob];
+        t.busy = m.busy;
+        t.switches = m.switches;
+        if (!store) return t;
+
+        // Without new ids the full chunks are shared as in snapshot(); the chunk holding the
+        // last entry is always copied since the new timeline writes into it
+        t.owners = new int[Math.max(4, owners.length)][];
+        t.ends = new int[t.owners.length][];
+        int lastChunk = (m.size - 1) >>> CHUNK_BITS;
+        for (int c = 0; c << CHUNK_BITS < m.size; c++) {
+            if (newId == null && c < lastChunk) {
+                t.owners[c] = owners[c];
+                t.ends[c] = ends[c];
+                continue;
+            }
+            int n = Math.min(CHUNK, m.size - (c << CHUNK_BITS));
+            int[] o = new int[CHUNK];
+            for (int i = 0; i < n; i++) {
+                int owner = owners[c][i];
+                o[i] = owner < 0 || newId == null ? owner : newId[owner];
+            }
+            t.owners[c] = o;
+            t.ends[c] = Arrays.copyOf(ends[c], CHUNK);
+        }
+        t.size = m.size;
+        if (m.size > 0) t.ends[(m.size - 1) >>> CHUNK_BITS][(m.size - 1) & MASK] = m.lastEnd;
+
+        t.blocks = m.blocks;
+        t.blockEntry = Arrays.copyOf(blockEntry, m.blocks);
+        t.blockPattern = Arrays.copyOf(blockPattern, m.blocks);
+        t.blockWidth = Arrays.copyOf(blockWidth, m.blocks);
+        t.blockSlice = Arrays.copyOf(blockSlice, m.blocks);
+        t.blockRounds = Arrays.copyOf(blockRounds, m.blocks);
+        t.blockExtra = Arrays.copyOf(blockExtra, m.blocks);
+        t.patterns = new int[m.patternSize];
+        for (int i = 0; i < m.patternSize; i++) t.patterns[i] = newId == null ? patterns[i] : newId[patterns[i]];
+        t.patternSize = m.patternSize;
+        return t;
+    }
+
+    static final class Mark {
+        final int size, lastEnd, lastJob, blocks, patternSize;
+        final long busy, switches;
+
+        private Mark(Timeline t) {
+            size = t.size;
+            lastEnd = t.lastEnd;
+            lastJob = t.lastJob;
+            blocks = t.blocks;
+            patternSize = t.patternSize;
+            busy = t.busy;
+            switches = t.switches;
+        }
+
+        private Mark(Mark m, int lastJob) {
+            size = m.size;
+            lastEnd = m.lastEnd;
+            this.lastJob = lastJob;
+            blocks = m.blocks;
+            patternSize = m.patternSize;
+            busy = m.busy;
+            switches = m.switches;
+        }
+
+        // The same mark for a table whose job j is now newId[j], like the ids restore translates
+        Mark remap(int[] newId) {
+            return lastJob == IDLE ? this : new Mark(this, newId[lastJob]);
+        }
+    }
+
+    // Binary form for the result cache (see ResultCache), repeat blocks stay compressed
+    int encodedSize() {
+        return 41 + 8 * size + 28 * blocks + 4 * patternSize;
+    }
+
+    void writeTo(ByteBuffer b) {
+        b.put((byte) (store ? 1 : 0)).putInt(origin).putInt(lastEnd).putInt(lastJob).putLong(busy).putLong(switches);
+        b.putInt(size);
+        for (int c = 0; c << CHUNK_BITS < size; c++) putInts(b, owners[c], Math.min(CHUNK, size - (c << CHUNK_BITS)));
+        for (int c = 0; c << CHUNK_BITS < size; c++) putInts(b, ends[c], Math.min(CHUNK, size - (c << CHUNK_BITS)));
+        b.putInt(blocks);
+        putInts(b, blockEntry, blocks);
+        putInts(b, blockPattern, blocks);
+        putInts(b, blockWidth, blocks);
+        putInts(b, blockSlice, blocks);
+        putInts(b, blockRounds, blocks);
+        b.asLongBuffer().put(blockExtra, 0, blocks);
+        b.position(b.position() + 8 * blocks);
+        b.putInt(patternSize);
+        putInts(b, patterns, patternSize);
+    }
+
+    // A read-only timeline, like a snapshot
+    static Timeline readFrom(ByteBuffer b) {
+        boolean store = b.get() != 0;
+        Timeline t = new Timeline(b.getInt(), store);
+        t.lastEnd = b.getInt();
+        t.lastJob = b.getInt();
+        t.busy = b.getLong();
+        t.switches = b.getLong();
+        t.size = b.getInt();
+        int chunks = (t.size + CHUNK - 1) >>> CHUNK_BITS;
+        t.owners = new int[Math.max(4, chunks)][];
+        t.ends = new int[t.owners.length][];
+        for (int c = 0; c < chunks; c++) t.owners[c] = getInts(b, CHUNK, Math.min(CHUNK, t.size - (c << CHUNK_BITS)));
+        for (int c = 0; c < chunks; c++) t.ends[c] = getInts(b, CHUNK, Math.min(CHUNK, t.size - (c << CHUNK_BITS)));
+        t.blocks = b.getInt();
+        t.blockEntry = getInts(b, t.blocks, t.blocks);
+        t.blockPattern = getInts(b, t.blocks, t.blocks);
+        t.blockWidth = getInts(b, t.blocks, t.blocks);
+        t.blockSlice = getInts(b, t.blocks, t.blocks);
+        t.blockRounds = getInts(b, t.blocks, t.blocks);
+        t.blockExtra = new long[t.blocks];
+        b.asLongBuffer().get(t.blockExtra);
+        b.position(b.position() + 8 * t.blocks);
+        t.patternSize = b.getInt();
+        t.patterns = getInts(b, t.patternSize, t.patternSize);
+        t.frozen = true;
+        return t;
+    }
+
+    private static void putInts(ByteBuffer b, int[] a, int n) {
+        b.asIntBuffer().put(a, 0, n);
+        b.position(b.position() + 4 * n);
+    }
+
+    private static int[] getInts(ByteBuffer b, int length, int n) {
+        int[] a = new int[length];
+        b.asIntBuffer().get(a, 0, n);
+        b.position(b.position() + 4 * n);
+        return a;
+    }
+
+    // False when only the counters are kept
+    boolean stored() {
+        return store;
+    }
+
+    // Stored entries; a repeat block is one entry
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Slices as a cursor returns them, with every repeat block expanded
+    public long sliceCount() {
+        return size + (blocks == 0 ? 0 : blockExtra[blocks - 1]);
+    }
+
+    // For a repeat block, the owner of its first slice
+    public int owner(int i) {
+        int o = owners[i >>> CHUNK_BITS][i & MASK];
+        return o <= REPEAT ? patterns[blockPattern[REPEAT - o]] : o;
+    }
+
+    public int start(int i) {
+        return i == 0 ? origin : end(i - 1);
+    }
+
+    public int end(int i) {
+        return ends[i >>> CHUNK_BITS][i & MASK];
+    }
+
+    // Time spent running jobs
+    public long busyTime() {
+        return busy;
+    }
+
+    // Number of times the CPU went from one job to a different one (idle gaps in between
+    // do not count as a switch back to the same job)
+    public long contextSwitches() {
+        return switches;
+    }
+
+    public int startTime() {
+        return origin;
+    }
+
+    public int endTime() {
+        return lastEnd;
+    }
+
+    // Index of the slice covering the given time (the first slice ending after it)
+    public int indexAt(int time) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (end(mid) <= time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Position of the slice covering the given time among the expanded slices
+    public long sliceIndexAt(int time) {
+        int i = indexAt(time);
+        if (i >= size) return sliceCount();
+        int b = blocksBefore(i);
+        long slice = i + (b == 0 ? 0 : blockExtra[b - 1]);
+        int o = owners[i >>> CHUNK_BITS][i & MASK];
+        if (o <= REPEAT) slice += Math.max(0, time - start(i)) / blockSlice[REPEAT - o];
+        return slice;
+    }
+
+    // Number of repeat blocks stored before entry i
+    private int blocksBefore(int i) {
+        int lo = 0, hi = blocks;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockEntry[mid] < i) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    public Cursor cursor() {
+        return new Cursor(0);
+    }
+
+    public Cursor cursor(int fromIndex) {
+        return new Cursor(fromIndex);
+    }
+
+    // Starts at the slice covering the given time, also inside a repeat block
+    public Cursor cursorAt(int time) {
+        int i = indexAt(time);
+        Cursor c = new Cursor(i);
+        if (i < size && owners[i >>> CHUNK_BITS][i & MASK] <= REPEAT && time > start(i)) {
+            c.next();
+            c.seek((time - c.start) / c.slice);
+        }
+        return c;
+    }
+
+    // Read-only forward iterator, no object per slice:
+    //   for (Timeline.Cursor c = timeline.cursor(); c.next(); ) use(c.owner(), c.start(), c.end());
+    // Inside a repeat block the index stays at the block's entry.
+    public class Cursor {
+        private final int limit = size;
+        private int index;
+        private int owner, start, end;
+
+        // Current repeat block: slices left after this one, pattern position, slice length
+        private long repeatLeft;
+        private int pattern, width, pos, slice, blockStart, blockEnd;
+        private boolean pending;
+
+        private Cursor(int fromIndex) {
+            index = fromIndex - 1;
+            end = fromIndex == 0 ? origin : Timeline.this.end(fromIndex - 1);
+        }
+
+        public boolean next() {
+            if (pending) {
+                pending = false;
+                return true;
+            }
+            if (repeatLeft > 0) {
+                repeatLeft--;
+                start = end;
+                end = start + slice;
+                if (++pos == width) pos = 0;
+                owner = patterns[pattern + pos];
+                return true;
+            }
+            if (index + 1 >= limit) return false;
+            index++;
+            start = end;
+            owner = owners[index >>> CHUNK_BITS][index & MASK];
+            end = ends[index >>> CHUNK_BITS][index & MASK];
+            if (owner <= REPEAT) {
+                int b = REPEAT - owner;
+                pattern = blockPattern[b];
+                width = blockWidth[b];
+                slice = blockSlice[b];
+                blockStart = start;
+                blockEnd = end;
+                pos = 0;
+                repeatLeft = (long) width * blockRounds[b] - 1;
+                owner = patterns[pattern];
+                end = start + slice;
+            }
+            return true;
+        }
+
+        // Moves to the n-th slice of the current repeat block; next() returns it first
+        private void seek(long n) {
+            repeatLeft -= n;
+            pos = (int) (n % width);
+            start = blockStart + (int) (n * slice);
+            end = start + slice;
+            owner = patterns[pattern + pos];
+            pending = true;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        // True while the cursor is on a slice of a repeat block
+        public boolean inRepeat() {
+            return owners[index >>> CHUNK_BITS][index & MASK] <= REPEAT;
+        }
+
+        // End of the current repeat block
+        public int repeatEnd() {
+            return blockEnd;
+        }
+
+        // Length of one round of the current repeat block
+        public int repeatPeriod() {
+            return width * slice;
+        }
+
+        // Owner of the current repeat block at the given time
+        public int ownerAt(int time) {
+            return patterns[pattern + (time - blockStart) / slice % width];
+        }
+
+        // Skips the rest of the current repeat block; next() continues after it
+        public void skipRepeat() {
+            repeatLeft = 0;
+            end = blockEnd;
+        }
+
+        public int owner() {
+            return owner;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Streaming parser for large "ID, Arrival, Burst, Priority" trace files. The file is
+// mapped window by window and scanned byte by byte, only the ID column becomes a String.
+// Pipes, sockets and stdin, which cannot be mapped, are read through a buffer instead.
+class TraceParser {
+
+    // Mapping window, a single line must fit into it
+    static final int WINDOW = 64 << 20;
+
+    private final JobSink sink;
+    private byte[] nameBuf = new byte[64];
+    private int lineNum;
+    private long count;
+
+    private TraceParser(JobSink sink) {
+        this.sink = sink;
+    }
+
+    // Returns the number of jobs fed to the sink
+    static long parse(File file, JobSink sink) throws IOException {
+        TraceParser p = new TraceParser(sink);
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long pos = 0;
+            while (pos < size) {
+                int len = (int) Math.min(WINDOW, size - pos);
+                boolean last = pos + len == size;
+                ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+
+                int lineStart = 0;
+                for (int i = 0; i < len; i++) {
+                    if (buf.get(i) == '\n') {
+                        p.parseLine(buf, lineStart, i);
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (last) {
+                    if (lineStart < len) p.parseLine(buf, lineStart, len);
+                    pos = size;
+                } else {
+                    // Re-map from the beginning of the unterminated line
+                    if (lineStart == 0) throw new InputFormatException(p.lineNum + 1, "Line is too long");
+                    pos += lineStart;
+                }
+            }
+        }
+        return p.count;
+    }
+
+    // Reads lines as they come until the stream ends; idle runs whenever no more input is
+    // ready, before the next read blocks. Returns the number of jobs fed to the sink.
+    static long parse(InputStream in, JobSink sink, Runnable idle) throws IOException {
+        TraceParser p = new TraceParser(sink);
+        byte[] data = new byte[64 << 10];
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        int filled = 0, scanned = 0, lineStart = 0;
+        while (true) {
+            if (filled == data.length) {
+                // Keep the unterminated line, grow if it fills the whole buffer
+                if (lineStart == 0) {
+                    if (data.length >= WINDOW) throw new InputFormatException(p.lineNum + 1, "Line is too long");
+                    data = Arrays.copyOf(data, data.length * 2);
+                } else {
+                    System.arraycopy(data, lineStart, data, 0, filled - lineStart);
+                    filled -= lineStart;
+                    scanned -= lineStart;
+                    lineStart = 0;
+                }
+                buf = ByteBuffer.wrap(data);
+            }
+            int n = in.read(data, filled, data.length - filled);
+            if (n < 0) break;
+            filled += n;
+            for (; scanned < filled; scanned++) {
+                if (data[scanned] == '\n') {
+                    p.parseLine(buf, lineStart, scanned);
+                    lineStart = scanned + 1;
+                }
+            }
+            if (in.available() == 0) idle.run();
+        }
+        if (lineStart < filled) p.parseLine(buf, lineStart, filled);
+        return p.count;
+    }
+
+    private void parseLine(ByteBuffer buf, int from, int to) {
+        lineNum++;
+
+        int c1 = indexOf(buf, ',', from, to);
+        if (c1 < 0) {
+            if (isBlank(buf, from, to)) return;
+            throw missingColumns();
+        }
+        int c2 = indexOf(buf, ',', c1 + 1, to);
+        int c3 = c2 < 0 ? -1 : indexOf(buf, ',', c2 + 1, to);
+        if (c3 < 0) throw missingColumns();
+        int c4 = indexOf(buf, ',', c3 + 1, to);
+
+        String name = parseName(buf, from, c1);
+        int arrival = parseInt(buf, c1 + 1, c2);
+        int burst = parseInt(buf, c2 + 1, c3);
+        int level = parseInt(buf, c3 + 1, c4 < 0 ? to : c4);
+        if (burst <= 0) throw new InputFormatException(lineNum, JobParser.BAD_BURST);
+
+        try {
+            sink.accept(name, arrival, burst, level);
+        } catch (InputFormatException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            // Rejected by the sink, e.g. an online scheduler given a job out of arrival order
+            throw new InputFormatException(lineNum, e.getMessage());
+        }
+        count++;
+    }
+
+    private String parseName(ByteBuffer buf, int from, int to) {
+        while (from < to && isSpace(buf.get(from))) from++;
+        while (to > from && isSpace(buf.get(to - 1))) to--;
+        int len = to - from;
+        if (len > nameBuf.length) nameBuf = new byte[Math.max(len, nameBuf.length * 2)];
+        for (int i = 0; i < len; i++) nameBuf[i] = buf.get(from + i);
+        return new String(nameBuf, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private int parseInt(ByteBuffer buf, int from, int to) {
+        while (from < to && isSpace(buf.get(from))) from++;
+        while (to > from && isSpace(buf.get(to - 1))) to--;
+
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        if (i == to) throw badNumber(buf, from, to);
+
+        // Accumulate negatively so that Integer.MIN_VALUE still parses
+        long value = 0;
+        for (; i < to; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) throw badNumber(buf, from, to);
+            value = value * 10 - d;
+            if (value < Integer.MIN_VALUE) throw badNumber(buf, from, to);
+        }
+        if (!negative && value == Integer.MIN_VALUE) throw badNumber(buf, from, to);
+        return (int) (negative ? value : -value);
+    }
+
+    private static int indexOf(ByteBuffer buf, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == c) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isSpace(buf.get(i))) return false;
+        }
+        return true;
+    }
+
+    // Same definition of whitespace as String.trim()
+    private static boolean isSpace(byte b) {
+        return (b & 0xff) <= ' ';
+    }
+
+    private InputFormatException missingColumns() {
+        return new InputFormatException(lineNum, "Missing columns (Format: ID, Arrival, Burst, Priority)");
+    }
+
+    private InputFormatException badNumber(ByteBuffer buf, int from, int to) {
+        byte[] token = new byte[to - from];
+        for (int i = 0; i < token.length; i++) token[i] = buf.get(from + i);
+        return new InputFormatException(lineNum,
+                "For input string: \"" + new String(token, StandardCharsets.UTF_8) + "\"");
+    }
+}
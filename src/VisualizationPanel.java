@@ -0,0 +1,375 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.util.Arrays;
+
+// Zoomable Gantt chart (mouse wheel zooms around the cursor, drag pans, double-click resets).
+// When slices are at least a couple of pixels wide they are drawn one by one with labels;
+// otherwise every pixel column is painted from its dominant owner and idle fraction, taken
+// from the timeline itself or, for dense views, from a GanttSummary, so a repaint costs
+// O(visible pixels) rather than O(slices). A multi-CPU run is drawn as one lane per core.
+class VisualizationPanel extends JPanel {
+
+    private static final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 12);
+    private static final Font TICK_FONT = new Font("SansSerif", Font.PLAIN, 11);
+    private static final Color IDLE_COLOR = new Color(220, 220, 220);
+    private static final BasicStroke OUTLINE = new BasicStroke(1);
+
+    private static final int MARGIN = 30;
+    private static final int BAR_H = 50;
+    private static final int LANE_GAP = 6;
+
+    // Above this many visible slices the columns come from the summary
+    private static final int DIRECT_LIMIT = 50_000;
+
+    // segments is the first lane, it gives the view bounds
+    private Timeline segments;
+    private Timeline[] lanes;
+    private JobTable jobs;
+    private GanttSummary[] summaries;
+    private int totalDuration;
+
+    private double viewStart, viewEnd;
+    private Color[] palette = new Color[0];
+    // Run whose chart is shown, gets the paint times (see RunProfile)
+    private RunProfile profile;
+
+    VisualizationPanel() {
+        MouseAdapter nav = new MouseAdapter() {
+            private int dragX;
+            private double dragStart;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+                dragStart = viewStart;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (segments == null) return;
+                setView(dragStart - (e.getX() - dragX) * unitsPerPixel(), viewEnd - viewStart);
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) resetView();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (segments == null) return;
+                double anchor = timeAt(e.getX());
+                double span = (viewEnd - viewStart) * Math.pow(1.25, e.getPreciseWheelRotation());
+                span = Math.max(1.0, Math.min(span, fullSpan()));
+                double ratio = Math.max(0, Math.min(1, (e.getX() - MARGIN) / (double) plotWidth()));
+                setView(anchor - span * ratio, span);
+            }
+        };
+        addMouseListener(nav);
+        addMouseMotionListener(nav);
+        addMouseWheelListener(nav);
+    }
+
+    public void drawData(Timeline segments, JobTable jobs, int duration) {
+        drawData(segments, jobs, duration, segments == null ? null : GanttSummary.build(segments));
+    }
+
+    // Lets callers build the summary off the EDT
+    public void drawData(Timeline segments, JobTable jobs, int duration, GanttSummary summary) {
+        drawData(segments == null ? null : new Timeline[]{segments}, jobs, duration, new GanttSummary[]{summary});
+    }
+
+    // One lane per CPU, summaries[i] belongs to lanes[i]
+    public void drawData(Timeline[] lanes, JobTable jobs, int duration, GanttSummary[] summaries) {
+        this.lanes = lanes;
+        this.segments = lanes == null ? null : lanes[0];
+        this.jobs = jobs;
+        this.totalDuration = duration;
+        this.summaries = summaries;
+        this.palette = new Color[0];
+        this.profile = null;
+        resetView();
+    }
+
+    // Set after drawData for a finished run
+    void setProfile(RunProfile profile) {
+        this.profile = profile;
+    }
+
+    private void resetView() {
+        viewStart = segments == null ? 0 : segments.startTime();
+        viewEnd = viewStart + fullSpan();
+        repaint();
+    }
+
+    private double fullSpan() {
+        return segments == null ? 1 : Math.max(1, (double) totalDuration - segments.startTime());
+    }
+
+    private void setView(double start, double span) {
+        double min = segments.startTime();
+        double max = min + fullSpan();
+        viewStart = Math.max(min, Math.min(start, max - span));
+        viewEnd = Math.min(max, viewStart + span);
+        repaint();
+    }
+
+    private int plotWidth() {
+        return Math.max(1, getWidth() - 2 * MARGIN);
+    }
+
+    private double unitsPerPixel() {
+        return (viewEnd - viewStart) / plotWidth();
+    }
+
+    private double timeAt(int x) {
+        return viewStart + (x - MARGIN) * unitsPerPixel();
+    }
+
+    private int xAt(double time) {
+        return MARGIN + (int) Math.round((time - viewStart) / unitsPerPixel());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (segments == null || segments.isEmpty()) return;
+        if (profile == null) {
+            paintLanes(g);
+            return;
+        }
+        profile.begin(RunProfile.Phase.PAINT);
+        try {
+            paintLanes(g);
+        } finally {
+            profile.end(RunProfile.Phase.PAINT);
+        }
+    }
+
+    private void paintLanes(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        int w = plotWidth();
+        int n = lanes.length;
+        int barH = n == 1 ? BAR_H : Math.max(4, Math.min(BAR_H, (getHeight() - 40) / n - LANE_GAP));
+        int laneH = n == 1 ? BAR_H : barH + LANE_GAP;
+        int top = (getHeight() - laneH * n + (n == 1 ? 0 : LANE_GAP)) / 2;
+
+        for (int i = 0; i < n; i++) {
+            Timeline lane = lanes[i];
+            if (lane.isEmpty()) continue;
+            int y = top + i * laneH;
+
+            // Visible slices counted with repeat blocks expanded; the loops below walk the
+            // slices from 'from' up to the first one starting at or after 'to'
+            int from = (int) Math.floor(viewStart), to = (int) Math.ceil(viewEnd);
+            long visible = Math.min(lane.sliceCount() - 1, lane.sliceIndexAt(to - 1)) - lane.sliceIndexAt(from) + 1;
+            boolean detailed = visible * 2 <= w;
+
+            Shape clip = g2d.getClip();
+            g2d.clipRect(MARGIN - 1, 0, w + 2, getHeight());
+            if (detailed) {
+                paintSlices(g2d, lane, y, barH, from, to);
+            } else if (visible <= DIRECT_LIMIT || unitsPerPixel() < summaries[i].width0) {
+                paintColumnsFromSlices(g2d, lane, y, barH, w, from, to);
+            } else {
+                paintColumnsFromSummary(g2d, summaries[i], y, barH, w);
+            }
+            g2d.setClip(clip);
+
+            if (n == 1) {
+                if (detailed) {
+                    paintSliceTicks(g2d, lane, y, w, from, to);
+                } else {
+                    paintAxis(g2d, y + BAR_H, w);
+                }
+            } else {
+                g2d.setColor(Color.DARK_GRAY);
+                g2d.setFont(TICK_FONT);
+                g2d.drawString("C" + i, 4, y + (barH + g2d.getFontMetrics().getAscent()) / 2 - 1);
+            }
+        }
+        // Lanes share one time axis below the last one
+        if (n > 1) paintAxis(g2d, top + n * laneH - LANE_GAP, w);
+    }
+
+    private void paintSlices(Graphics2D g2d, Timeline lane, int y, int barH, int from, int to) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setStroke(OUTLINE);
+        g2d.setFont(LABEL_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+
+        for (Timeline.Cursor s = lane.cursorAt(from); s.next() && s.start() < to; ) {
+            boolean idle = s.owner() == Timeline.IDLE;
+            int x = xAt(s.start());
+            int width = xAt(s.end()) - x;
+
+            g2d.setColor(idle ? IDLE_COLOR : colorOf(s.owner()));
+            g2d.fillRoundRect(x, y, width, barH, 5, 5);
+
+            g2d.setColor(Color.WHITE);
+            g2d.drawRoundRect(x, y, width, barH, 5, 5);
+
+            // Labels are only drawn when they fit into the slice
+            if (width > 15 && barH >= fm.getAscent()) {
+                String owner = idle ? "IDLE" : jobs.name(s.owner());
+                int textW = fm.stringWidth(owner);
+                if (textW + 4 <= width) {
+                    g2d.setColor(idle ? Color.GRAY : Color.WHITE);
+                    g2d.drawString(owner, x + (width - textW) / 2, y + (barH + fm.getAscent()) / 2 - 2);
+                }
+            }
+        }
+    }
+
+    // Slice start times, skipping the ones that would overlap the previous label
+    private void paintSliceTicks(Graphics2D g2d, Timeline lane, int y, int w, int from, int to) {
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.setFont(TICK_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        int tickRight = Integer.MIN_VALUE;
+
+        for (Timeline.Cursor s = lane.cursorAt(from); s.next() && s.start() < to; ) {
+            int x = xAt(s.start());
+            if (x < MARGIN || x - 3 <= tickRight) continue;
+            String tick = String.valueOf(s.start());
+            g2d.drawString(tick, x - 3, y + BAR_H + 18);
+            tickRight = x - 3 + fm.stringWidth(tick) + 4;
+        }
+
+        int finalX = xAt(lane.endTime());
+        if (finalX - 3 > tickRight && finalX <= MARGIN + w) {
+            g2d.drawString(String.valueOf(lane.endTime()), finalX - 3, y + BAR_H + 18);
+        }
+    }
+
+    // Exact per-column aggregation, used while the visible slice count is moderate
+    private void paintColumnsFromSlices(Graphics2D g2d, Timeline lane, int y, int barH, int w, int from, int to) {
+        int[] owner = new int[w];
+        double[] cover = new double[w], busy = new double[w];
+        Arrays.fill(owner, Timeline.IDLE);
+        double upp = unitsPerPixel();
+
+        for (Timeline.Cursor s = lane.cursorAt(from); s.next() && s.start() < to; ) {
+            if (s.owner() == Timeline.IDLE) continue;
+            double a = Math.max(s.start(), viewStart), b = Math.min(s.end(), viewEnd);
+            int c0 = Math.max(0, (int) ((a - viewStart) / upp));
+            int c1 = Math.min(w - 1, (int) ((b - viewStart) / upp));
+            for (int c = c0; c <= c1; c++) {
+                double colA = viewStart + c * upp;
+                double portion = Math.min(b, colA + upp) - Math.max(a, colA);
+                if (portion <= 0) continue;
+                busy[c] += portion;
+                if (portion > cover[c]) {
+                    cover[c] = portion;
+                    owner[c] = s.owner();
+                }
+            }
+        }
+
+        int[] idleQ = new int[w];
+        for (int c = 0; c < w; c++) {
+            double colA = viewStart + c * upp;
+            idleQ[c] = quantizeIdle(busy[c], Math.min(colA + upp, lane.endTime()) - colA);
+        }
+        fillColumns(g2d, y, barH, owner, idleQ);
+    }
+
+    private void paintColumnsFromSummary(Graphics2D g2d, GanttSummary summary, int y, int barH, int w) {
+        double upp = unitsPerPixel();
+        int level = summary.levelFor(upp);
+        long bw = summary.bucketWidth(level);
+        int count = summary.bucketCount(level);
+
+        int[] owner = new int[w], idleQ = new int[w];
+        for (int c = 0; c < w; c++) {
+            double colA = viewStart + c * upp;
+            int b0 = (int) Math.max(0, (colA - summary.origin) / bw);
+            int b1 = (int) Math.min(count - 1, (colA + upp - summary.origin) / bw);
+            int bestOwner = Timeline.IDLE, bestCover = 0;
+            long busy = 0;
+            for (int b = b0; b <= b1; b++) {
+                busy += summary.busy(level, b);
+                if (summary.cover(level, b) > bestCover) {
+                    bestCover = summary.cover(level, b);
+                    bestOwner = summary.owner(level, b);
+                }
+            }
+            long from = summary.origin + b0 * bw;
+            long to = Math.min(summary.origin + (b1 + 1) * bw, summary.endTime);
+            owner[c] = bestOwner;
+            idleQ[c] = colA >= summary.endTime ? -1 : quantizeIdle(busy, to - from);
+        }
+        fillColumns(g2d, y, barH, owner, idleQ);
+    }
+
+    // Idle fraction in quarters (0 = fully busy, 4 = idle), -1 past the end of the timeline
+    private static int quantizeIdle(double busy, double span) {
+        if (span <= 0) return -1;
+        double idle = 1.0 - Math.min(1.0, busy / span);
+        return (int) Math.round(idle * 4);
+    }
+
+    // Run-length draws the columns: owner color, with the idle share as a gray cap
+    private void fillColumns(Graphics2D g2d, int y, int barH, int[] owner, int[] idleQ) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        int w = owner.length;
+        int run = 0;
+        for (int c = 1; c <= w; c++) {
+            if (c < w && owner[c] == owner[run] && idleQ[c] == idleQ[run]) continue;
+            int q = idleQ[run];
+            if (q >= 0) {
+                int x = MARGIN + run, width = c - run;
+                boolean idle = owner[run] == Timeline.IDLE || q == 4;
+                g2d.setColor(idle ? IDLE_COLOR : colorOf(owner[run]));
+                g2d.fillRect(x, y, width, barH);
+                if (!idle && q > 0) {
+                    g2d.setColor(IDLE_COLOR);
+                    g2d.fillRect(x, y, width, barH * q / 4);
+                }
+            }
+            run = c;
+        }
+    }
+
+    // Evenly spaced time axis labels below the given y, for the dense and multi-lane views
+    private void paintAxis(Graphics2D g2d, int y, int w) {
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.setFont(TICK_FONT);
+        double step = niceStep((viewEnd - viewStart) * 90 / w);
+        for (double t = Math.ceil(viewStart / step) * step; t <= viewEnd + 1e-9; t += step) {
+            int x = xAt(t);
+            g2d.drawLine(x, y, x, y + 4);
+            g2d.drawString(String.valueOf((long) t), x - 3, y + 18);
+        }
+    }
+
+    private static double niceStep(double raw) {
+        double mag = Math.pow(10, Math.floor(Math.log10(Math.max(1, raw))));
+        if (mag >= raw) return mag;
+        if (2 * mag >= raw) return 2 * mag;
+        if (5 * mag >= raw) return 5 * mag;
+        return 10 * mag;
+    }
+
+    // Palette cached per name id
+    private Color colorOf(int job) {
+        int id = jobs.name[job];
+        if (id >= palette.length) palette = Arrays.copyOf(palette, Math.max(id + 1, palette.length * 2));
+        Color c = palette[id];
+        if (c == null) c = palette[id] = generateColor(jobs.names.get(id));
+        return c;
+    }
+
+    // Also used by the online stream's chart
+    static Color generateColor(String seed) {
+        int hash = seed.hashCode();
+        return new Color(
+                Math.floorMod(hash * 123 + 50, 200),
+                Math.floorMod(hash * 345 + 50, 200),
+                Math.floorMod(hash * 678 + 50, 200)
+        );
+    }
+}
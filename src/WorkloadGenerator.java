@@ -0,0 +1,187 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Seeded synthetic workloads. Jobs are produced one at a time into a JobSink (a JobTable,
+// or a trace file in the usual "ID, Arrival, Burst, Priority" format), so millions of
+// jobs never exist as text. The same settings and seed always give the same jobs, and
+// the first n jobs of a workload do not depend on its total size.
+public class WorkloadGenerator {
+
+    public enum Arrivals {
+        // Exponential inter-arrival times with the given mean
+        POISSON,
+        // Groups of jobs arriving together, geometric group size, exponential gaps between
+        // groups; the long-run arrival rate matches POISSON with the same mean
+        BURSTY
+    }
+
+    public enum Bursts {
+        EXPONENTIAL,
+        // Heavy-tailed: most jobs are short, a few are very long
+        PARETO
+    }
+
+    public long seed = 1;
+    public int jobs = 1000;
+
+    public Arrivals arrivals = Arrivals.POISSON;
+    public double meanInterarrival = 6;
+    public double meanGroupSize = 20;
+
+    public Bursts bursts = Bursts.EXPONENTIAL;
+    public double meanBurst = 5;
+    public double paretoShape = 1.5;
+    public int maxBurst = 100_000;
+
+    // Relative weight of priority 1, 2, ... (1 is the highest priority)
+    public int[] priorityWeights = {1, 1, 1, 1, 1};
+
+    // "uniform:n", "zipf:n" (weight 1/k for priority k) or explicit weights "w1,w2,..."
+    public static int[] parsePriorities(String spec) {
+        String s = spec.trim().toLowerCase();
+        int colon = s.indexOf(':');
+        if (colon > 0) {
+            String kind = s.substring(0, colon);
+            int levels = Integer.parseInt(s.substring(colon + 1).trim());
+            if (levels <= 0) throw new IllegalArgumentException("Priority levels must be positive: " + spec);
+            int[] w = new int[levels];
+            for (int k = 0; k < levels; k++) {
+                switch (kind) {
+                    case "uniform": w[k] = 1; break;
+                    case "zipf": w[k] = Math.max(1, 1_000_000 / (k + 1)); break;
+                    default: throw new IllegalArgumentException("Unknown priority distribution: " + spec);
+                }
+            }
+            return w;
+        }
+        String[] parts = s.split(",");
+        int[] w = new int[parts.length];
+        for (int k = 0; k < parts.length; k++) {
+            w[k] = Integer.parseInt(parts[k].trim());
+            if (w[k] < 0) throw new IllegalArgumentException("Negative priority weight: " + spec);
+        }
+        return w;
+    }
+
+    // Streams all jobs into the sink, returns the sink
+    public <S extends JobSink> S generate(S sink) {
+        return generate(sink, jobs);
+    }
+
+    // Only the first count jobs, the same ones a full run starts with
+    public <S extends JobSink> S generate(S sink, int count) {
+        validate();
+        SplittableRandom rnd = new SplittableRandom(seed);
+        long[] cumulative = cumulativeWeights();
+        long total = cumulative[cumulative.length - 1];
+
+        double clock = 0;
+        long groupLeft = 0;
+        for (int i = 0; i < count; i++) {
+            if (arrivals == Arrivals.POISSON) {
+                clock += exponential(rnd, meanInterarrival);
+            } else if (groupLeft-- <= 0) {
+                // A new group: the gap covers the whole group so that the rate stays the same
+                groupLeft = geometric(rnd, meanGroupSize) - 1;
+                clock += exponential(rnd, meanInterarrival * meanGroupSize);
+            }
+            if (clock > Integer.MAX_VALUE) throw new IllegalArgumentException("Arrival times exceed the int range");
+
+            int burst = bursts == Bursts.EXPONENTIAL
+                    ? (int) Math.min(maxBurst, Math.ceil(exponential(rnd, meanBurst)))
+                    : pareto(rnd);
+            sink.accept("P" + (i + 1), (int) clock, Math.max(1, burst), priority(rnd, cumulative, total));
+        }
+        return sink;
+    }
+
+    // All jobs as a ready-to-run table
+    public JobTable generate() {
+        return generate(new JobTable(jobs));
+    }
+
+    // Writes the workload as a trace file that TraceParser and the editor can read
+    public void write(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            StringBuilder line = new StringBuilder(64);
+            generate((JobSink) (name, arrival, burst, level) -> {
+                line.setLength(0);
+                line.append(name).append(", ").append(arrival).append(", ").append(burst)
+                        .append(", ").append(level).append('\n');
+                try {
+                    out.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // The settings on one line, for the UI and the CLI output
+    public String describe() {
+        return String.format("%,d jobs, seed %d, %s arrivals (mean gap %.2f%s), %s bursts (mean %.2f%s), priority weights %s",
+                jobs, seed, arrivals, meanInterarrival,
+                arrivals == Arrivals.BURSTY ? String.format(", group %.1f", meanGroupSize) : "",
+                bursts, meanBurst, bursts == Bursts.PARETO ? String.format(", shape %.2f", paretoShape) : "",
+                Arrays.toString(priorityWeights));
+    }
+
+    private void validate() {
+        if (jobs < 0) throw new IllegalArgumentException("Job count must not be negative");
+        if (meanInterarrival < 0) throw new IllegalArgumentException("Mean inter-arrival time must not be negative");
+        if (meanGroupSize < 1) throw new IllegalArgumentException("Mean group size must be at least 1");
+        if (meanBurst < 1) throw new IllegalArgumentException("Mean burst must be at least 1");
+        if (maxBurst < 1) throw new IllegalArgumentException("Max burst must be at least 1");
+        if (bursts == Bursts.PARETO && paretoShape <= 1) {
+            throw new IllegalArgumentException("Pareto shape must be greater than 1 for a finite mean");
+        }
+        if (priorityWeights.length == 0) throw new IllegalArgumentException("No priority levels");
+    }
+
+    private long[] cumulativeWeights() {
+        long[] c = new long[priorityWeights.length];
+        long sum = 0;
+        for (int k = 0; k < c.length; k++) {
+            sum += priorityWeights[k];
+            c[k] = sum;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("Priority weights are all zero");
+        return c;
+    }
+
+    private static double exponential(SplittableRandom rnd, double mean) {
+        return -mean * Math.log(1 - rnd.nextDouble());
+    }
+
+    // Number of trials until the first success, with the given mean
+    private static long geometric(SplittableRandom rnd, double mean) {
+        if (mean <= 1) return 1;
+        return 1 + (long) Math.floor(Math.log(1 - rnd.nextDouble()) / Math.log(1 - 1 / mean));
+    }
+
+    // Scale chosen so that the (uncapped) mean is meanBurst
+    private int pareto(SplittableRandom rnd) {
+        double xm = meanBurst * (paretoShape - 1) / paretoShape;
+        double x = xm / Math.pow(1 - rnd.nextDouble(), 1 / paretoShape);
+        return (int) Math.min(maxBurst, Math.ceil(x));
+    }
+
+    private static int priority(SplittableRandom rnd, long[] cumulative, long total) {
+        long r = rnd.nextLong(total);
+        int lo = 0, hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] > r) hi = mid; else lo = mid + 1;
+        }
+        return lo + 1;
+    }
+}
@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Percentiles against the exact ones from the sorted values: never below, and above by at
+// most 1/128 of the value (exact below 128). Count, mean and max are exact; merging and the
+// cache encoding keep every bucket.
+class LatencyHistogramTest {
+
+    private static final double[] PERCENTILES = {0, 0.1, 1, 10, 25, 50, 75, 90, 99, 99.9, 99.99, 100};
+
+    @Test
+    void percentilesWithinPrecision() {
+        Random rnd = new Random(15);
+        for (int run = 0; run < 300; run++) {
+            int[] values = values(rnd, 1 + rnd.nextInt(5000));
+            LatencyHistogram h = new LatencyHistogram();
+            for (int v : values) h.record(v);
+            check(values, h);
+        }
+    }
+
+    @Test
+    void mergeAndEncodingKeepTheBuckets() {
+        Random rnd = new Random(16);
+        for (int run = 0; run < 100; run++) {
+            int[] values = values(rnd, 1 + rnd.nextInt(3000));
+            LatencyHistogram first = new LatencyHistogram(), second = new LatencyHistogram();
+            int split = rnd.nextInt(values.length + 1);
+            for (int i = 0; i < values.length; i++) (i < split ? first : second).record(values[i]);
+            first.add(second);
+            check(values, first);
+
+            ByteBuffer b = ByteBuffer.allocate(first.encodedSize());
+            first.writeTo(b);
+            assertEquals(0, b.remaining());
+            b.flip();
+            LatencyHistogram decoded = new LatencyHistogram();
+            decoded.record(12345);
+            decoded.readFrom(b);
+            check(values, decoded);
+            assertEquals(first.describe(), decoded.describe());
+        }
+    }
+
+    @Test
+    void emptyAndClear() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals("p50 0, p90 0, p99 0, p99.9 0, max 0", h.describe());
+        assertEquals(0.0, h.mean());
+        h.record(7);
+        h.record(Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, h.percentile(100));
+        assertEquals(7, h.percentile(50));
+        h.clear();
+        assertEquals(0, h.count());
+        assertEquals(0, h.percentile(99));
+    }
+
+    private static void check(int[] values, LatencyHistogram h) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int v : values) sum += v;
+        assertEquals(values.length, h.count());
+        assertEquals((double) sum / values.length, h.mean(), 1e-9);
+        assertEquals(sorted[sorted.length - 1], h.max());
+        for (double p : PERCENTILES) {
+            int exact = sorted[(int) Math.max(0, Math.ceil(p / 100.0 * sorted.length) - 1)];
+            int got = h.percentile(p);
+            String what = "p" + p + " of " + sorted.length + " values: exact " + exact + ", got " + got;
+            assertTrue(got >= exact && got <= exact + (long) exact / 128, what);
+        }
+    }
+
+    // Small values, exponential waits, and values over the whole int range
+    private static int[] values(Random rnd, int n) {
+        int[] v = new int[n];
+        int kind = rnd.nextInt(3);
+        double mean = Math.pow(10, 1 + rnd.nextInt(6));
+        for (int i = 0; i < n; i++) {
+            if (kind == 0) v[i] = rnd.nextInt(200);
+            else if (kind == 1) v[i] = (int) Math.min(Integer.MAX_VALUE, -mean * Math.log(1 - rnd.nextDouble()));
+            else v[i] = rnd.nextInt(Integer.MAX_VALUE);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Live mode: after every batch of inserted, deleted and replaced lines the session resumes
+// from a checkpoint of the previous run, whose job ids moved with the edit. The result must
+// be the one of a full run on the edited text: finish times, context switches and slices.
+class LiveSessionTest {
+
+    private static final int EDITS = 150;
+    // Engines take a checkpoint every 1024 steps, so the input needs a few thousand jobs
+    private static final int JOBS = 3000;
+    // Edits go to the first lines, so the ids of all later jobs move with every edit
+    private static final int TOP = 10;
+    private static final String[] ENGINES = {"fcfs", "sjf", "srtf", "priority", "priority-p", "rr:1", "rr:3", "rr:60"};
+
+    @Test
+    void resumeMatchesFullRun() {
+        for (String spec : ENGINES) {
+            String[] p = spec.split(":");
+            SchedulerEngine engine = SchedulerEngine.forName(p[0], p.length > 1 ? Integer.parseInt(p[1]) : 0);
+            Random rnd = new Random(17 + spec.hashCode());
+            List<String> text = new ArrayList<>();
+            int ids = 0;
+            for (int i = 0; i < JOBS; i++) text.add(line(rnd, ids++));
+            LiveSession session = new LiveSession(String.join("\n", text));
+            session.update(engine);
+
+            int resumed = 0;
+            for (int k = 0; k < EDITS; k++) {
+                int kind = rnd.nextInt(3);
+                if (kind == 0) {
+                    int l = rnd.nextInt(TOP);
+                    String[] added = new String[1 + rnd.nextInt(3)];
+                    for (int i = 0; i < added.length; i++) {
+                        added[i] = line(rnd, ids++);
+                        text.add(l + i, added[i]);
+                    }
+                    session.edit(l, 0, added);
+                } else if (kind == 1) {
+                    int l = rnd.nextInt(TOP), removed = 1 + rnd.nextInt(2);
+                    for (int i = 0; i < removed; i++) text.remove(l);
+                    session.edit(l, removed, new String[0]);
+                } else {
+                    int l = rnd.nextInt(TOP);
+                    String s = line(rnd, ids++);
+                    text.set(l, s);
+                    session.edit(l, 1, new String[]{s});
+                }
+
+                SimulationResult live = session.update(engine);
+                if (session.resumedAt() >= 0) resumed++;
+                JobTable jobs = ProcessScheduler.parseText(String.join("\n", text));
+                SimulationResult full = engine.run(jobs);
+                String what = spec + " after edit " + k + " (resumed at " + session.resumedAt() + ")";
+                assertArrayEquals(Arrays.copyOf(jobs.end, jobs.size()), Arrays.copyOf(live.jobs.end, live.jobs.size()), what);
+                assertEquals(full.contextSwitches(), live.contextSwitches(), what);
+                assertEquals(Schedules.describe(Schedules.slices(full.timeline)), Schedules.describe(Schedules.slices(live.timeline)), what);
+            }
+            // Most edits must actually resume from a checkpoint
+            assertTrue(resumed > EDITS / 2, spec + " resumed " + resumed);
+        }
+    }
+
+    // A light load, so a job often runs alone across a checkpoint and the restored last job
+    // decides whether its next slice is a context switch
+    private static String line(Random rnd, int id) {
+        return "P" + id + ", " + rnd.nextInt(30 * JOBS) + ", " + (1 + rnd.nextInt(40)) + ", " + rnd.nextInt(8);
+    }
+}
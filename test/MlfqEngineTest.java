@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// MlfqEngine against a per-tick simulation with plain deques per level, with and without
+// boosts: a job enters the level of its priority, drops a level after a full quantum, goes
+// back to the front of its level when a higher level gets a job or a boost comes, and every
+// boostInterval all jobs move to the top level with their quantum usage reset.
+class MlfqEngineTest {
+
+    private static final int RUNS = 200;
+
+    @Test
+    void matchesPerTickWithoutBoosts() {
+        check(new int[]{2, 4, 8}, 0);
+    }
+
+    @Test
+    void matchesPerTickWithBoosts() {
+        check(new int[]{2, 4, 8}, 10);
+        check(new int[]{1, 3}, 7);
+        check(new int[]{3, 6, 12, 24}, MlfqEngine.DEFAULT_BOOST_FACTOR * 3);
+    }
+
+    private static void check(int[] quanta, int boost) {
+        Random rnd = new Random(13 + boost);
+        MlfqEngine engine = new MlfqEngine(quanta, boost);
+        for (int run = 0; run < RUNS; run++) {
+            int n = 1 + rnd.nextInt(40);
+            JobTable jobs = Schedules.random(rnd, n, rnd.nextBoolean() ? 5 : 3 * n, 20, 5);
+            int[] end = new int[n];
+            List<int[]> expected = perTick(jobs, quanta, boost, end);
+
+            JobTable input = jobs.fork();
+            SimulationResult result = engine.run(input);
+            String what = engine.name() + " on\n" + Schedules.describe(jobs);
+            assertArrayEquals(end, input.end, what);
+            assertEquals(Schedules.describe(expected), Schedules.describe(Schedules.slices(result.timeline)), what);
+        }
+    }
+
+    private static List<int[]> perTick(JobTable jobs, int[] quanta, int boost, int[] end) {
+        int n = jobs.size(), levels = quanta.length;
+        int[] order = jobs.arrivalOrder();
+        int[] left = jobs.burst.clone();
+        int[] used = new int[n];
+        List<ArrayDeque<Integer>> queues = new ArrayList<>();
+        for (int l = 0; l < levels; l++) queues.add(new ArrayDeque<>());
+
+        List<Integer> owners = new ArrayList<>();
+        int running = -1, runningLevel = 0, idx = 0, done = 0;
+        for (int t = 0; ; t++) {
+            boolean higher = false;
+            while (idx < n && jobs.arrival[order[idx]] <= t) {
+                int j = order[idx++];
+                int entry = Math.max(0, Math.min(jobs.level[j] - 1, levels - 1));
+                queues.get(entry).addLast(j);
+                used[j] = 0;
+                if (running >= 0 && entry < runningLevel) higher = true;
+            }
+            boolean boosting = boost > 0 && t > 0 && t % boost == 0;
+            if (running >= 0) {
+                if (left[running] == 0) {
+                    end[running] = t;
+                    done++;
+                    running = -1;
+                } else if (used[running] >= quanta[runningLevel]) {
+                    used[running] = 0;
+                    queues.get(Math.min(runningLevel + 1, levels - 1)).addLast(running);
+                    running = -1;
+                } else if (higher || boosting) {
+                    queues.get(runningLevel).addFirst(running);
+                    running = -1;
+                }
+            }
+            if (boosting) {
+                for (int l = 1; l < levels; l++) {
+                    while (!queues.get(l).isEmpty()) queues.get(0).addLast(queues.get(l).pollFirst());
+                }
+                for (int j : queues.get(0)) used[j] = 0;
+            }
+            if (running < 0) {
+                for (int l = 0; l < levels; l++) {
+                    if (queues.get(l).isEmpty()) continue;
+                    running = queues.get(l).pollFirst();
+                    runningLevel = l;
+                    break;
+                }
+            }
+            if (done == n) break;
+            owners.add(running >= 0 ? running : Timeline.IDLE);
+            if (running >= 0) {
+                left[running]--;
+                used[running]++;
+            }
+        }
+        return Schedules.fromTicks(owners);
+    }
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// FCFS and the heap-based SJF and Priority engines against the original loops, which scan
+// every unfinished job at each decision and step through idle time one unit at a time
+class NonPreemptiveEngineTest {
+
+    private static final int RUNS = 300;
+
+    @Test
+    void fcfsMatchesScan() {
+        check(new FcfsEngine(), (jobs, j) -> 0);
+    }
+
+    @Test
+    void sjfMatchesScan() {
+        check(new SjfEngine(), (jobs, j) -> jobs.burst[j]);
+    }
+
+    @Test
+    void priorityMatchesScan() {
+        check(new PriorityEngine(), (jobs, j) -> jobs.level[j]);
+    }
+
+    interface Key {
+        int of(JobTable jobs, int job);
+    }
+
+    private static void check(SchedulerEngine engine, Key key) {
+        Random rnd = new Random(11);
+        for (int run = 0; run < RUNS; run++) {
+            int n = 1 + rnd.nextInt(40);
+            JobTable jobs = Schedules.random(rnd, n, rnd.nextBoolean() ? 5 : 3 * n, 12, 5);
+            int[] end = new int[n];
+            List<int[]> expected = scan(jobs, key, end);
+
+            JobTable input = jobs.fork();
+            SimulationResult result = engine.run(input);
+            String what = engine.name() + " on\n" + Schedules.describe(jobs);
+            assertArrayEquals(end, input.end, what);
+            assertEquals(Schedules.describe(expected), Schedules.describe(Schedules.slices(result.timeline)), what);
+        }
+    }
+
+    // Lowest key first, then earliest arrival, then input order
+    private static List<int[]> scan(JobTable jobs, Key key, int[] end) {
+        int n = jobs.size();
+        boolean[] finished = new boolean[n];
+        List<int[]> slices = new ArrayList<>();
+        int now = 0;
+        for (int done = 0; done < n; ) {
+            int picked = -1;
+            for (int j = 0; j < n; j++) {
+                if (finished[j] || jobs.arrival[j] > now) continue;
+                if (picked < 0 || key.of(jobs, j) < key.of(jobs, picked)
+                        || key.of(jobs, j) == key.of(jobs, picked) && jobs.arrival[j] < jobs.arrival[picked]) {
+                    picked = j;
+                }
+            }
+            if (picked < 0) {
+                Schedules.add(slices, Timeline.IDLE, now, now + 1);
+                now++;
+                continue;
+            }
+            Schedules.add(slices, picked, now, now + jobs.burst[picked]);
+            now += jobs.burst[picked];
+            end[picked] = now;
+            finished[picked] = true;
+            done++;
+        }
+        return slices;
+    }
+}
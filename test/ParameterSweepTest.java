@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// The sweep's rows: the same aggregates as a single run of each engine, the quantum every
+// time-sliced algorithm actually used, and algorithm names as valid CSV fields.
+class ParameterSweepTest {
+
+    @Test
+    void rowsMatchSingleRuns() {
+        JobTable jobs = Schedules.random(new Random(8), 300, 600, 30, 5);
+        List<SchedulerEngine> engines = ParameterSweep.engines(3, 9, 2);
+        List<ParameterSweep.Row> rows = new ParameterSweep().run(jobs, engines);
+        assertEquals(engines.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            SchedulerEngine engine = engines.get(i);
+            ParameterSweep.Row row = rows.get(i);
+            SimulationResult r = engine.run(jobs.fork());
+            assertEquals(engine.name(), row.algorithm);
+            assertEquals(r.avgWait(), row.avgWait, engine.name());
+            assertEquals(r.avgTurnaround(), row.avgTurnaround, engine.name());
+            assertEquals(r.contextSwitches(), row.contextSwitches, engine.name());
+        }
+    }
+
+    @Test
+    void rowsCarryTheQuantum() {
+        JobTable jobs = Schedules.random(new Random(9), 20, 40, 10, 5);
+        List<SchedulerEngine> engines = ParameterSweep.engines(3, 9, 2);
+        StringBuilder quanta = new StringBuilder(), roundRobin = new StringBuilder();
+        for (ParameterSweep.Row row : new ParameterSweep().run(jobs, engines)) {
+            quanta.append(row.quantum).append(' ');
+            roundRobin.append(row.roundRobin ? 'R' : '-');
+        }
+        // FCFS, SJF, SRTF, Priority, Preemptive Priority, MLFQ, Lottery, Stride, RR 3, 5, 7, 9
+        assertEquals("0 0 0 0 0 3 3 3 3 5 7 9 ", quanta.toString());
+        assertEquals("--------RRRR", roundRobin.toString());
+    }
+
+    @Test
+    void rangeIsChecked() {
+        assertThrows(IllegalArgumentException.class, () -> ParameterSweep.engines(0, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> ParameterSweep.engines(5, 4, 1));
+        assertThrows(IllegalArgumentException.class, () -> ParameterSweep.engines(1, Integer.MAX_VALUE, 1));
+        assertEquals(8 + 1, ParameterSweep.engines(Integer.MAX_VALUE - 1, Integer.MAX_VALUE, 5).size());
+    }
+
+    @Test
+    void csvFieldsAreQuoted() {
+        assertEquals("FCFS", SchedulerCli.csv("FCFS"));
+        assertEquals("\"MLFQ (q=[3,6,12], boost=30)\"", SchedulerCli.csv("MLFQ (q=[3,6,12], boost=30)"));
+        assertEquals("\"say \"\"hi\"\"\"", SchedulerCli.csv("say \"hi\""));
+        assertEquals("\"two\nlines\"", SchedulerCli.csv("two\nlines"));
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The event-driven SRTF and preemptive Priority engines against a simulation that advances
+// one time unit at a time. A running job is only preempted by a job arriving at that instant
+// with a strictly lower (key, arrival position).
+class PreemptiveEngineTest {
+
+    private static final int RUNS = 300;
+
+    @Test
+    void srtfMatchesPerTick() {
+        check(new SrtfEngine(), true);
+    }
+
+    @Test
+    void preemptivePriorityMatchesPerTick() {
+        check(new PreemptivePriorityEngine(), false);
+    }
+
+    private static void check(SchedulerEngine engine, boolean srtf) {
+        Random rnd = new Random(12);
+        for (int run = 0; run < RUNS; run++) {
+            int n = 1 + rnd.nextInt(40);
+            JobTable jobs = Schedules.random(rnd, n, rnd.nextBoolean() ? 5 : 3 * n, 12, 5);
+            int[] end = new int[n];
+            List<int[]> expected = perTick(jobs, srtf, end);
+
+            JobTable input = jobs.fork();
+            SimulationResult result = engine.run(input);
+            String what = engine.name() + " on\n" + Schedules.describe(jobs);
+            assertArrayEquals(end, input.end, what);
+            assertEquals(Schedules.describe(expected), Schedules.describe(Schedules.slices(result.timeline)), what);
+        }
+    }
+
+    private static List<int[]> perTick(JobTable jobs, boolean srtf, int[] end) {
+        int n = jobs.size();
+        int[] order = jobs.arrivalOrder();
+        int[] pos = new int[n];
+        for (int i = 0; i < n; i++) pos[order[i]] = i;
+        int[] left = jobs.burst.clone();
+
+        List<Integer> ready = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        int running = -1, idx = 0;
+        for (int done = 0, t = 0; done < n; t++) {
+            long best = Long.MAX_VALUE;
+            while (idx < n && jobs.arrival[order[idx]] <= t) {
+                int j = order[idx++];
+                best = Math.min(best, key(jobs, left, pos, j, srtf));
+                ready.add(j);
+            }
+            if (running >= 0 && best < key(jobs, left, pos, running, srtf)) {
+                ready.add(running);
+                running = -1;
+            }
+            if (running < 0 && !ready.isEmpty()) {
+                int bi = 0;
+                for (int i = 1; i < ready.size(); i++) {
+                    if (key(jobs, left, pos, ready.get(i), srtf) < key(jobs, left, pos, ready.get(bi), srtf)) bi = i;
+                }
+                running = ready.remove(bi);
+            }
+            owners.add(running >= 0 ? running : Timeline.IDLE);
+            if (running >= 0 && --left[running] == 0) {
+                end[running] = t + 1;
+                done++;
+                running = -1;
+            }
+        }
+        return Schedules.fromTicks(owners);
+    }
+
+    private static long key(JobTable jobs, int[] left, int[] pos, int job, boolean srtf) {
+        return ((long) (srtf ? left[job] : jobs.level[job]) << 32) | pos[job];
+    }
+}
@@ -0,0 +1,231 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lottery and Stride: the engines, which run a lone job up to the quantum boundary after the
+// next arrival in one slice and rebase Stride's passes, against plain loops that hand out one
+// quantum at a time; the ticket shares they give; and the ticket tree against a linear scan.
+class ProportionalShareEngineTest {
+
+    private static final int RUNS = 200;
+
+    @Test
+    void strideMatchesPerQuantum() {
+        Random rnd = new Random(22);
+        for (int run = 0; run < RUNS; run++) {
+            JobTable jobs = input(rnd);
+            int q = 1 + rnd.nextInt(4);
+            int[] end = new int[jobs.size()];
+            List<int[]> expected = stridePerQuantum(jobs, q, end);
+
+            JobTable input = jobs.fork();
+            SimulationResult result = new StrideEngine(q).run(input);
+            String what = "q=" + q + " on\n" + Schedules.describe(jobs);
+            assertArrayEquals(end, input.end, what);
+            assertEquals(Schedules.describe(expected), Schedules.describe(Schedules.slices(result.timeline)), what);
+        }
+    }
+
+    @Test
+    void lotteryMatchesPerQuantum() {
+        Random rnd = new Random(23);
+        for (int run = 0; run < RUNS; run++) {
+            JobTable jobs = input(rnd);
+            int q = 1 + rnd.nextInt(4);
+            long seed = rnd.nextLong();
+            int[] end = new int[jobs.size()];
+            List<int[]> expected = lotteryPerQuantum(jobs, q, seed, end);
+
+            JobTable input = jobs.fork();
+            SimulationResult result = new LotteryEngine(q, seed).run(input);
+            String what = "q=" + q + " seed=" + seed + " on\n" + Schedules.describe(jobs);
+            assertArrayEquals(end, input.end, what);
+            assertEquals(Schedules.describe(expected), Schedules.describe(Schedules.slices(result.timeline)), what);
+        }
+    }
+
+    @Test
+    void seedDecidesTheLottery() {
+        JobTable jobs = Schedules.random(new Random(24), 30, 20, 30, 5);
+        String first = Schedules.describe(Schedules.slices(new LotteryEngine(2, 7).run(jobs.fork()).timeline));
+        assertEquals(first, Schedules.describe(Schedules.slices(new LotteryEngine(2, 7).run(jobs.fork()).timeline)));
+        assertNotEquals(first, Schedules.describe(Schedules.slices(new LotteryEngine(2, 8).run(jobs.fork()).timeline)));
+    }
+
+    @Test
+    void sharesFollowTickets() {
+        // Priorities 1, 2 and 3 hold tickets in the ratio 6:3:2
+        JobTable jobs = new JobTable();
+        jobs.add("A", 0, 100_000, 1);
+        jobs.add("B", 0, 100_000, 2);
+        jobs.add("C", 0, 100_000, 3);
+
+        // Stride: exact up to one quantum per job
+        int[] stride = share(new StrideEngine(1).run(jobs.fork()).timeline, 3, 1100);
+        assertEquals(600, stride[0], 1);
+        assertEquals(300, stride[1], 1);
+        assertEquals(200, stride[2], 1);
+
+        // Lottery: within 2% of the window
+        int[] lottery = share(new LotteryEngine(1).run(jobs.fork()).timeline, 3, 33_000);
+        assertEquals(18_000, lottery[0], 660);
+        assertEquals(9_000, lottery[1], 660);
+        assertEquals(6_000, lottery[2], 660);
+    }
+
+    @Test
+    void strideRebaseKeepsTheSchedule() {
+        // Priority 10 strides STRIDE1 / 252, so the passes cross REBASE after about 258,000
+        // quanta; the plain loop never rebases
+        JobTable jobs = new JobTable();
+        jobs.add("A", 0, 300_000, 10);
+        jobs.add("B", 5, 300_000, 10);
+        jobs.add("C", 100_000, 50_000, 4);
+        int[] end = new int[jobs.size()];
+        List<int[]> expected = stridePerQuantum(jobs, 1, end);
+        JobTable input = jobs.fork();
+        SimulationResult result = new StrideEngine(1).run(input);
+        assertArrayEquals(end, input.end);
+        List<int[]> slices = Schedules.slices(result.timeline);
+        assertEquals(expected.size(), slices.size());
+        for (int i = 0; i < slices.size(); i++) assertArrayEquals(expected.get(i), slices.get(i), "slice " + i);
+    }
+
+    @Test
+    void ticketTreeMatchesLinearScan() {
+        Random rnd = new Random(25);
+        for (int run = 0; run < RUNS; run++) {
+            int n = 1 + rnd.nextInt(100);
+            TicketTree tree = new TicketTree(n);
+            long[] tickets = new long[n];
+            for (int op = 0; op < 300; op++) {
+                int slot = rnd.nextInt(n);
+                long delta = tickets[slot] > 0 && rnd.nextInt(3) == 0 ? -tickets[slot] : 1 + rnd.nextInt(2520);
+                tickets[slot] += delta;
+                tree.add(slot, delta);
+
+                long total = 0;
+                for (long t : tickets) total += t;
+                assertEquals(total, tree.total());
+                if (total == 0) continue;
+                for (int k = 0; k < 5; k++) {
+                    long t = k == 0 ? 0 : k == 1 ? total - 1 : (long) (rnd.nextDouble() * total);
+                    assertEquals(holder(tickets, t), tree.find(t), "ticket " + t);
+                }
+            }
+        }
+    }
+
+    // Few jobs with long bursts and gaps, so lone jobs run over several arrivals
+    private static JobTable input(Random rnd) {
+        int n = 1 + rnd.nextInt(25);
+        return rnd.nextBoolean() ? Schedules.random(rnd, n, 15 * n, 60, 10) : Schedules.random(rnd, n, 2 * n, 10, 10);
+    }
+
+    // Time each of the first n jobs ran in [0, window)
+    private static int[] share(Timeline timeline, int n, int window) {
+        int[] ran = new int[n];
+        for (Timeline.Cursor c = timeline.cursor(); c.next() && c.start() < window; ) {
+            if (c.owner() != Timeline.IDLE) ran[c.owner()] += Math.min(c.end(), window) - c.start();
+        }
+        assertTrue(ran[0] + ran[1] + ran[2] == window);
+        return ran;
+    }
+
+    private static int holder(long[] tickets, long t) {
+        for (int slot = 0; ; slot++) {
+            if (t < tickets[slot]) return slot;
+            t -= tickets[slot];
+        }
+    }
+
+    // One quantum per step to the lowest (pass, arrival position); a newcomer and a job put
+    // back get the last pick's pass (0 if that job ran alone) plus their stride
+    private static List<int[]> stridePerQuantum(JobTable jobs, int q, int[] end) {
+        int[] order = jobs.arrivalOrder();
+        int[] left = jobs.burst.clone();
+        int total = order.length;
+        PriorityQueue<long[]> readyQ = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        List<int[]> slices = new ArrayList<>();
+
+        long virtual = 0;
+        int now = 0, done = 0, idx = 0;
+        while (done < total) {
+            while (idx < total && jobs.arrival[order[idx]] <= now) {
+                readyQ.add(new long[]{virtual + StrideEngine.stride(jobs.level[order[idx]]), idx});
+                idx++;
+            }
+            if (readyQ.isEmpty()) {
+                int next = jobs.arrival[order[idx]];
+                Schedules.add(slices, Timeline.IDLE, now, next);
+                now = next;
+                continue;
+            }
+            long[] top = readyQ.poll();
+            int pos = (int) top[1], job = order[pos];
+            virtual = readyQ.isEmpty() ? 0 : top[0];
+            int exec = Math.min(left[job], q);
+            Schedules.add(slices, job, now, now + exec);
+            now += exec;
+            left[job] -= exec;
+            if (left[job] > 0) {
+                readyQ.add(new long[]{virtual + StrideEngine.stride(jobs.level[job]), pos});
+            } else {
+                end[job] = now;
+                done++;
+            }
+        }
+        return slices;
+    }
+
+    // One quantum per step to the holder of a drawn ticket, numbered in arrival order; a lone
+    // job runs without a draw
+    private static List<int[]> lotteryPerQuantum(JobTable jobs, int q, long seed, int[] end) {
+        int[] order = jobs.arrivalOrder();
+        int[] left = jobs.burst.clone();
+        int total = order.length;
+        long[] tickets = new long[total];
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<int[]> slices = new ArrayList<>();
+
+        long held = 0;
+        int now = 0, done = 0, idx = 0, ready = 0;
+        while (done < total) {
+            while (idx < total && jobs.arrival[order[idx]] <= now) {
+                tickets[idx] = ProportionalShareEngine.tickets(jobs.level[order[idx]]);
+                held += tickets[idx];
+                idx++;
+                ready++;
+            }
+            if (ready == 0) {
+                int next = jobs.arrival[order[idx]];
+                Schedules.add(slices, Timeline.IDLE, now, next);
+                now = next;
+                continue;
+            }
+            int pos = holder(tickets, ready == 1 ? 0 : rnd.nextLong(held));
+            int job = order[pos];
+            int exec = Math.min(left[job], q);
+            Schedules.add(slices, job, now, now + exec);
+            now += exec;
+            left[job] -= exec;
+            if (left[job] == 0) {
+                held -= tickets[pos];
+                tickets[pos] = 0;
+                ready--;
+                end[job] = now;
+                done++;
+            }
+        }
+        return slices;
+    }
+}
@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A result read back from the cache, from memory or from disk, must describe the same run as
+// the one stored: finish times, aggregates, decision count, histograms, every lane's slices
+// and the per-core SMP counters.
+class ResultCacheTest {
+
+    private static final SchedulerEngine[] ENGINES = {
+            SchedulerEngine.forName("fcfs", 0),
+            SchedulerEngine.forName("srtf", 0),
+            SchedulerEngine.forName("priority-p", 0),
+            new RoundRobinEngine(4),
+            MlfqEngine.withQuantum(2),
+            SmpEngine.forCores(new RoundRobinEngine(3), 3, SmpEngine.Balancer.STEALING, SmpEngine.Affinity.SOFT),
+            SmpEngine.forCores(SchedulerEngine.forName("sjf", 0), 2, SmpEngine.Balancer.GLOBAL, SmpEngine.Affinity.NONE),
+    };
+
+    @Test
+    void memoryRoundTrip() {
+        Random rnd = new Random(18);
+        ResultCache cache = new ResultCache(64L << 20, null, 0);
+        for (int run = 0; run < 20; run++) {
+            JobTable jobs = Schedules.random(rnd, 1 + rnd.nextInt(200), 400, 30, 5);
+            for (SchedulerEngine engine : ENGINES) {
+                JobTable input = jobs.fork();
+                SimulationResult fresh = engine.run(input);
+                cache.put(input, engine, fresh);
+
+                SimulationResult cached = cache.get(jobs.fork(), engine, true);
+                assertNotNull(cached, engine.name());
+                assertEquals(describe(fresh), describe(cached), engine.name() + " on\n" + Schedules.describe(jobs));
+            }
+        }
+        assertEquals(20L * ENGINES.length, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    void diskRoundTrip(@TempDir File dir) throws IOException {
+        JobTable jobs = Schedules.random(new Random(19), 300, 600, 40, 5);
+        ResultCache writer = new ResultCache(0, dir, ResultCache.DEFAULT_DISK_BYTES);
+        for (SchedulerEngine engine : ENGINES) {
+            JobTable input = jobs.fork();
+            writer.put(input, engine, engine.run(input));
+        }
+
+        // A new cache on the same directory, as after a restart
+        ResultCache reader = new ResultCache(64L << 20, dir, ResultCache.DEFAULT_DISK_BYTES);
+        for (SchedulerEngine engine : ENGINES) {
+            SimulationResult cached = reader.get(jobs.fork(), engine, true);
+            assertNotNull(cached, engine.name());
+            assertEquals(describe(engine.run(jobs.fork())), describe(cached), engine.name());
+        }
+        assertEquals(ENGINES.length, reader.diskHits());
+
+        // A damaged file is a miss and is removed
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".bin"));
+        assertEquals(ENGINES.length, files.length);
+        for (File f : files) Files.write(f.toPath(), Arrays.copyOf(Files.readAllBytes(f.toPath()), 40));
+        ResultCache damaged = new ResultCache(64L << 20, dir, ResultCache.DEFAULT_DISK_BYTES);
+        assertNull(damaged.get(jobs.fork(), ENGINES[0], true));
+        assertEquals(ENGINES.length - 1, dir.listFiles((d, name) -> name.endsWith(".bin")).length);
+    }
+
+    @Test
+    void resultWithoutTimelineOnlyServesAggregates() {
+        JobTable jobs = Schedules.random(new Random(20), 100, 200, 20, 5);
+        SchedulerEngine engine = new RoundRobinEngine(2);
+        ResultCache cache = new ResultCache(64L << 20, null, 0);
+        JobTable input = jobs.fork();
+        SimulationResult fresh = engine.run(input, new SimulationMonitor() {
+            @Override
+            public void progress(SimulationResult partial, int now) {
+            }
+
+            @Override
+            public boolean keepTimeline() {
+                return false;
+            }
+        });
+        cache.put(input, engine, fresh);
+
+        assertNull(cache.get(jobs.fork(), engine, true));
+        SimulationResult cached = cache.get(jobs.fork(), engine, false);
+        assertNotNull(cached);
+        assertEquals(aggregates(fresh), aggregates(cached));
+    }
+
+    @Test
+    void otherInputIsAMiss() {
+        JobTable jobs = Schedules.random(new Random(21), 50, 100, 10, 5);
+        SchedulerEngine engine = SchedulerEngine.forName("sjf", 0);
+        ResultCache cache = new ResultCache(64L << 20, null, 0);
+        JobTable input = jobs.fork();
+        cache.put(input, engine, engine.run(input));
+
+        JobTable other = new JobTable();
+        for (int j = 0; j < jobs.size(); j++) {
+            other.add(jobs.name(j), jobs.arrival[j], jobs.burst[j] + (j == 0 ? 1 : 0), jobs.level[j]);
+        }
+        assertNull(cache.get(other, engine, true));
+        assertNull(cache.get(jobs.fork(), new RoundRobinEngine(2), true));
+    }
+
+    private static String aggregates(SimulationResult r) {
+        return Arrays.toString(Arrays.copyOf(r.jobs.end, r.jobs.size()))
+                + " completed=" + r.completed() + " wait=" + r.avgWait() + " turnaround=" + r.avgTurnaround()
+                + " makespan=" + r.makespan() + " decisions=" + r.decisions()
+                + "\n" + r.waitHistogram().describe() + "\n" + r.turnaroundHistogram().describe()
+                + "\n" + r.responseHistogram().describe();
+    }
+
+    private static String describe(SimulationResult r) {
+        StringBuilder sb = new StringBuilder(aggregates(r));
+        sb.append("\nswitches=").append(r.contextSwitches());
+        for (Timeline lane : r.lanes()) {
+            sb.append("\nlane busy=").append(lane.busyTime()).append(' ').append(Schedules.describe(Schedules.slices(lane)));
+        }
+        if (r instanceof SmpResult) {
+            SmpResult smp = (SmpResult) r;
+            sb.append("\nbusy=").append(Arrays.toString(smp.busy)).append(" dispatches=").append(Arrays.toString(smp.dispatches))
+                    .append(" steals=").append(Arrays.toString(smp.steals)).append(" maxQueue=").append(Arrays.toString(smp.maxQueue))
+                    .append(" contention=").append(smp.contention).append(" migrations=").append(smp.migrations);
+        }
+        return sb.toString();
+    }
+}
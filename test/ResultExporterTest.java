@@ -0,0 +1,187 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Exports written while an engine runs, and by write() for a finished (e.g. cached) result:
+// both give the same bytes; the CSV rows are the jobs in completion order and the timeline
+// entries; the binary files decode to the same rows as the CSV files.
+class ResultExporterTest {
+
+    private static final SchedulerEngine[] ENGINES = {
+            new FcfsEngine(),
+            new SrtfEngine(),
+            new RoundRobinEngine(3),
+            MlfqEngine.withQuantum(2),
+            new StrideEngine(2),
+            SmpEngine.forCores(new RoundRobinEngine(2), 3, SmpEngine.Balancer.STEALING, SmpEngine.Affinity.SOFT),
+    };
+
+    @TempDir
+    File dir;
+
+    @Test
+    void csvHoldsJobsAndTimeline() throws IOException {
+        JobTable jobs = Schedules.random(new Random(20), 200, 300, 20, 5);
+        for (SchedulerEngine engine : ENGINES) {
+            JobTable input = jobs.fork();
+            SimulationResult result = engine.run(input);
+            export(ResultExporter.Format.CSV, result, "csv");
+            String what = engine.name();
+
+            List<String> expected = new ArrayList<>();
+            expected.add("ID,Arrival,Burst,Priority,Finish,Turnaround,Waiting");
+            for (int j : completionOrder(input)) {
+                expected.add(input.name(j) + "," + input.arrival[j] + "," + input.burst[j] + "," + input.level[j] + ","
+                        + input.end[j] + "," + (input.end[j] - input.arrival[j]) + "," + result.waiting(j));
+            }
+            assertEquals(expected, lines("csv.jobs"), what);
+
+            Timeline[] lanes = result.lanes();
+            expected.clear();
+            expected.add(lanes.length > 1 ? "CPU,ID,Start,End" : "ID,Start,End");
+            for (int lane = 0; lane < lanes.length; lane++) {
+                for (Timeline.Cursor c = lanes[lane].cursor(); c.next(); ) {
+                    expected.add((lanes.length > 1 ? lane + "," : "") + (c.owner() == Timeline.IDLE ? "IDLE" : input.name(c.owner()))
+                            + "," + c.start() + "," + c.end());
+                }
+            }
+            assertEquals(expected, lines("csv.timeline"), what);
+        }
+    }
+
+    @Test
+    void finishedResultExportsLikeARun() throws IOException {
+        Random rnd = new Random(21);
+        for (int run = 0; run < 20; run++) {
+            // Small spreads give many jobs finishing at the same time
+            JobTable jobs = Schedules.random(rnd, 1 + rnd.nextInt(300), rnd.nextInt(50), 15, 5);
+            for (SchedulerEngine engine : ENGINES) {
+                for (ResultExporter.Format format : ResultExporter.Format.values()) {
+                    JobTable input = jobs.fork();
+                    SimulationResult result;
+                    try (ResultExporter exporter = exporter(format, "run")) {
+                        result = engine.run(input, exporter);
+                        exporter.finish(result);
+                    }
+                    export(format, result, "write");
+                    String what = engine.name() + " " + format + " on\n" + Schedules.describe(jobs);
+                    assertArrayEquals(bytes("run.jobs"), bytes("write.jobs"), what);
+                    assertArrayEquals(bytes("run.timeline"), bytes("write.timeline"), what);
+                }
+            }
+        }
+    }
+
+    @Test
+    void binaryDecodesToTheCsvRows() throws IOException {
+        // More rows than one binary block holds
+        JobTable jobs = Schedules.random(new Random(22), ResultExporter.BLOCK + 5000, 100_000, 10, 5);
+        for (SchedulerEngine engine : new SchedulerEngine[]{new SjfEngine(), ENGINES[5]}) {
+            SimulationResult result = engine.run(jobs.fork());
+            export(ResultExporter.Format.CSV, result, "csv");
+            export(ResultExporter.Format.BINARY, result, "bin");
+            assertEquals(lines("csv.jobs"), decodeJobs(bytes("bin.jobs")), engine.name());
+            assertEquals(lines("csv.timeline"), decodeTimeline(bytes("bin.timeline"), result.lanes().length > 1), engine.name());
+        }
+    }
+
+    private static int[] completionOrder(JobTable jobs) {
+        long[] byEnd = new long[jobs.size()];
+        for (int j = 0; j < byEnd.length; j++) byEnd[j] = ((long) jobs.end[j] << 32) | j;
+        Arrays.sort(byEnd);
+        int[] order = new int[byEnd.length];
+        for (int i = 0; i < order.length; i++) order[i] = (int) byEnd[i];
+        return order;
+    }
+
+    private ResultExporter exporter(ResultExporter.Format format, String base) throws IOException {
+        return new ResultExporter(format, new File(dir, base + ".jobs"), new File(dir, base + ".timeline"));
+    }
+
+    private void export(ResultExporter.Format format, SimulationResult result, String base) throws IOException {
+        try (ResultExporter exporter = exporter(format, base)) {
+            exporter.write(result);
+        }
+    }
+
+    private byte[] bytes(String name) throws IOException {
+        return Files.readAllBytes(new File(dir, name).toPath());
+    }
+
+    private List<String> lines(String name) throws IOException {
+        return Files.readAllLines(new File(dir, name).toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer open(byte[] data, String magic) {
+        ByteBuffer b = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] m = new byte[8];
+        b.get(m);
+        assertEquals(magic, new String(m, StandardCharsets.US_ASCII));
+        assertEquals(ResultExporter.VERSION, b.getInt());
+        return b;
+    }
+
+    private static int[] column(ByteBuffer b, int rows) {
+        int[] c = new int[rows];
+        for (int i = 0; i < rows; i++) c[i] = b.getInt();
+        return c;
+    }
+
+    private static String[] names(ByteBuffer b, int count) {
+        int[] length = column(b, count);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] utf8 = new byte[length[i]];
+            b.get(utf8);
+            names[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+
+    private static List<String> decodeJobs(byte[] data) {
+        ByteBuffer b = open(data, "SCHEDJOB");
+        List<String> rows = new ArrayList<>();
+        rows.add("ID,Arrival,Burst,Priority,Finish,Turnaround,Waiting");
+        for (int n; (n = b.getInt()) > 0; ) {
+            int[][] cols = new int[6][];
+            for (int k = 0; k < 6; k++) cols[k] = column(b, n);
+            String[] name = names(b, n);
+            for (int i = 0; i < n; i++) {
+                StringBuilder row = new StringBuilder(name[i]);
+                for (int[] col : cols) row.append(',').append(col[i]);
+                rows.add(row.toString());
+            }
+        }
+        assertEquals(0, b.remaining());
+        return rows;
+    }
+
+    private static List<String> decodeTimeline(byte[] data, boolean multiCpu) {
+        ByteBuffer b = open(data, "SCHEDTML");
+        List<String> rows = new ArrayList<>();
+        rows.add(multiCpu ? "CPU,ID,Start,End" : "ID,Start,End");
+        for (int n; (n = b.getInt()) > 0; ) {
+            int cpu = b.getInt();
+            String[] name = names(b, b.getInt());
+            int[] owner = column(b, n), start = column(b, n), end = column(b, n);
+            for (int i = 0; i < n; i++) {
+                rows.add((multiCpu ? cpu + "," : "") + (owner[i] < 0 ? "IDLE" : name[owner[i]]) + "," + start[i] + "," + end[i]);
+            }
+        }
+        assertEquals(0, b.remaining());
+        return rows;
+    }
+}
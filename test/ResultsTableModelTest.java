@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The results table against a stable sort of the rows in name order: every column in both
+// directions with ties in name order, the ID column reversed when descending, and the
+// filter keeping the IDs that contain the text, ignoring case.
+class ResultsTableModelTest {
+
+    private static final String[] FILTERS = {"", "p1", "P1", " x ", "zz", "q"};
+
+    @Test
+    void sortAndFilterMatchStableSort() {
+        Random rnd = new Random(16);
+        for (int run = 0; run < 100; run++) {
+            JobTable jobs = new JobTable();
+            int n = 1 + rnd.nextInt(80);
+            for (int i = 0; i < n; i++) {
+                // Repeated and mixed-case names, few distinct values for many ties
+                String name = (rnd.nextBoolean() ? "P" : rnd.nextBoolean() ? "px" : "Q") + rnd.nextInt(20);
+                jobs.add(name, rnd.nextInt(10), 1 + rnd.nextInt(5), rnd.nextInt(7) - 3);
+            }
+            SimulationResult result = new RoundRobinEngine(1 + rnd.nextInt(3)).run(jobs);
+            ResultsTableModel model = new ResultsTableModel();
+            model.setResult(result);
+
+            for (String filter : FILTERS) {
+                model.setFilter(filter);
+                for (int column = 0; column < ResultsTableModel.COLUMNS.length; column++) {
+                    for (boolean ascending : new boolean[]{true, false}) {
+                        model.sortBy(column, ascending);
+                        String what = "column " + column + (ascending ? " asc" : " desc") + " filter '" + filter + "' on\n"
+                                + Schedules.describe(jobs);
+                        assertEquals(expected(result, column, ascending, filter), shown(model), what);
+                    }
+                }
+            }
+            assertEquals(n, model.totalRows());
+        }
+    }
+
+    @Test
+    void headerMarksTheSortColumn() {
+        JobTable jobs = new JobTable();
+        jobs.add("A", 0, 1, 0);
+        ResultsTableModel model = new ResultsTableModel();
+        model.setResult(new FcfsEngine().run(jobs));
+        model.sortBy(4, false);
+        assertEquals("Finish ▼", model.getColumnName(4));
+        assertEquals("ID", model.getColumnName(0));
+        model.sortBy(0, true);
+        assertEquals("ID ▲", model.getColumnName(0));
+    }
+
+    private static List<String> expected(SimulationResult result, int column, boolean ascending, String filter) {
+        JobTable jobs = result.jobs;
+        List<Integer> ids = new ArrayList<>();
+        String text = filter.trim().toLowerCase();
+        for (int j : result.rowOrder()) {
+            if (jobs.name(j).toLowerCase().contains(text)) ids.add(j);
+        }
+        if (column == 0) {
+            if (!ascending) Collections.reverse(ids);
+        } else {
+            Comparator<Integer> byValue = Comparator.comparingInt(j -> value(result, j, column));
+            ids.sort(ascending ? byValue : byValue.reversed());
+        }
+        List<String> rows = new ArrayList<>();
+        for (int j : ids) {
+            StringBuilder row = new StringBuilder(jobs.name(j));
+            for (int c = 1; c < ResultsTableModel.COLUMNS.length; c++) row.append(',').append(value(result, j, c));
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    private static int value(SimulationResult r, int job, int column) {
+        switch (column) {
+            case 1: return r.jobs.arrival[job];
+            case 2: return r.jobs.burst[job];
+            case 3: return r.jobs.level[job];
+            case 4: return r.jobs.end[job];
+            case 5: return r.jobs.end[job] - r.jobs.arrival[job];
+            default: return r.jobs.end[job] - r.jobs.arrival[job] - r.jobs.burst[job];
+        }
+    }
+
+    private static List<String> shown(ResultsTableModel model) {
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < model.getRowCount(); row++) {
+            StringBuilder sb = new StringBuilder();
+            for (int c = 0; c < model.getColumnCount(); c++) sb.append(c == 0 ? "" : ",").append(model.getValueAt(row, c));
+            rows.add(sb.toString());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Round Robin with the fast-forward over full rounds, batch (RoundRobinEngine) and online
+// (OnlineScheduler.RoundRobin), against the plain loop that runs one quantum per step. Long
+// bursts and arrival gaps make most of the schedule fast-forwarded rounds; the timelines are
+// compared slice by slice with the repeat blocks expanded.
+class RoundRobinEngineTest {
+
+    private static final int RUNS = 200;
+    private static final int[] QUANTA = {1, 2, 3, 5, 7};
+
+    @Test
+    void batchMatchesPerQuantum() {
+        Random rnd = new Random(14);
+        int forwarded = 0;
+        for (int run = 0; run < RUNS; run++) {
+            JobTable jobs = input(rnd);
+            for (int q : QUANTA) {
+                int[] end = new int[jobs.size()];
+                List<int[]> expected = perQuantum(jobs, q, end);
+
+                JobTable input = jobs.fork();
+                SimulationResult result = new RoundRobinEngine(q).run(input);
+                String what = "q=" + q + " on\n" + Schedules.describe(jobs);
+                assertArrayEquals(end, input.end, what);
+                assertEquals(Schedules.describe(expected), Schedules.describe(Schedules.slices(result.timeline)), what);
+                if (result.timeline.size() < result.timeline.sliceCount()) forwarded++;
+            }
+        }
+        // The inputs must actually exercise the fast-forward
+        assertTrue(forwarded > RUNS, "fast-forwarded runs: " + forwarded);
+    }
+
+    @Test
+    void onlineMatchesPerQuantum() {
+        Random rnd = new Random(15);
+        for (int run = 0; run < RUNS; run++) {
+            JobTable jobs = input(rnd);
+            for (int q : QUANTA) {
+                int[] end = new int[jobs.size()];
+                List<int[]> expected = perQuantum(jobs, q, end);
+
+                int[] onlineEnd = new int[jobs.size()];
+                List<int[]> slices = new ArrayList<>();
+                OnlineScheduler online = OnlineScheduler.forEngine(new RoundRobinEngine(q), new StreamSink() {
+                    @Override
+                    public void completed(String name, int arrival, int burst, int level, int end) {
+                        onlineEnd[id(name)] = end;
+                    }
+
+                    @Override
+                    public void slice(String name, int start, int end) {
+                        Schedules.add(slices, name == null ? Timeline.IDLE : id(name), start, end);
+                    }
+                });
+                for (int j : jobs.arrivalOrder()) online.accept(jobs.name(j), jobs.arrival[j], jobs.burst[j], jobs.level[j]);
+                online.finish();
+
+                String what = "online q=" + q + " on\n" + Schedules.describe(jobs);
+                assertArrayEquals(end, onlineEnd, what);
+                assertEquals(Schedules.describe(expected), Schedules.describe(slices), what);
+            }
+        }
+    }
+
+    // Few jobs with long bursts and gaps between groups of arrivals, or many short ones
+    private static JobTable input(Random rnd) {
+        int n = 1 + rnd.nextInt(30);
+        return rnd.nextBoolean() ? Schedules.random(rnd, n, 20 * n, 300, 5) : Schedules.random(rnd, n, 2 * n, 15, 5);
+    }
+
+    private static int id(String name) {
+        return Integer.parseInt(name.substring(1));
+    }
+
+    // One quantum per step; arrivals up to the end of a slice queue before the preempted job
+    private static List<int[]> perQuantum(JobTable jobs, int q, int[] end) {
+        int[] order = jobs.arrivalOrder();
+        int[] left = jobs.burst.clone();
+        int total = order.length;
+        ArrayDeque<Integer> readyQ = new ArrayDeque<>();
+        List<int[]> slices = new ArrayList<>();
+
+        int now = 0, done = 0, idx = 0;
+        while (idx < total && jobs.arrival[order[idx]] <= now) readyQ.add(order[idx++]);
+        while (done < total) {
+            if (readyQ.isEmpty()) {
+                int next = jobs.arrival[order[idx]];
+                Schedules.add(slices, Timeline.IDLE, now, next);
+                now = next;
+                while (idx < total && jobs.arrival[order[idx]] <= now) readyQ.add(order[idx++]);
+                continue;
+            }
+            int job = readyQ.poll();
+            int exec = Math.min(left[job], q);
+            Schedules.add(slices, job, now, now + exec);
+            now += exec;
+            left[job] -= exec;
+            while (idx < total && jobs.arrival[order[idx]] <= now) readyQ.add(order[idx++]);
+            if (left[job] > 0) {
+                readyQ.add(job);
+            } else {
+                end[job] = now;
+                done++;
+            }
+        }
+        return slices;
+    }
+}
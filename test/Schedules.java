@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Random inputs for the engine tests and helpers to compare schedules: a schedule is the
+// finish time of every job plus the timeline as {owner, start, end} slices, adjacent slices
+// of the same owner merged (IDLE for idle time).
+final class Schedules {
+
+    private Schedules() {
+    }
+
+    // n jobs named P0.. with arrivals in [0, spread], bursts in [1, maxBurst] and priorities
+    // in [0, levels]; a small spread gives many equal arrivals to exercise the tie-breaks
+    static JobTable random(Random rnd, int n, int spread, int maxBurst, int levels) {
+        JobTable jobs = new JobTable();
+        for (int i = 0; i < n; i++) {
+            jobs.add("P" + i, rnd.nextInt(spread + 1), 1 + rnd.nextInt(maxBurst), rnd.nextInt(levels + 1));
+        }
+        return jobs;
+    }
+
+    static List<int[]> slices(Timeline timeline) {
+        List<int[]> slices = new ArrayList<>();
+        for (Timeline.Cursor c = timeline.cursor(); c.next(); ) add(slices, c.owner(), c.start(), c.end());
+        return slices;
+    }
+
+    // Appends a slice, merged into the last one if it continues it
+    static void add(List<int[]> slices, int owner, int start, int end) {
+        if (start == end) return;
+        int[] last = slices.isEmpty() ? null : slices.get(slices.size() - 1);
+        if (last != null && last[0] == owner && last[2] == start) {
+            last[2] = end;
+        } else {
+            slices.add(new int[]{owner, start, end});
+        }
+    }
+
+    // Slices of one job per time unit, as the per-tick references record them
+    static List<int[]> fromTicks(List<Integer> owners) {
+        List<int[]> slices = new ArrayList<>();
+        for (int t = 0; t < owners.size(); t++) add(slices, owners.get(t), t, t + 1);
+        return slices;
+    }
+
+    static String describe(List<int[]> slices) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] s : slices) sb.append(s[0]).append('@').append(s[1]).append('-').append(s[2]).append(' ');
+        return sb.toString();
+    }
+
+    static String describe(JobTable jobs) {
+        StringBuilder sb = new StringBuilder();
+        for (int j = 0; j < jobs.size(); j++) {
+            sb.append(jobs.name(j)).append(',').append(jobs.arrival[j]).append(',').append(jobs.burst[j]).append(',')
+                    .append(jobs.level[j]).append('\n');
+        }
+        return sb.toString();
+    }
+}
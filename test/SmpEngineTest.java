@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Multi-CPU runs: with one CPU the single-CPU schedule; on several, every job runs its burst
+// on one core at a time and finishes when its last slice ends, no core idles while a job it
+// may take waits, and hard affinity keeps preempted jobs on their core.
+class SmpEngineTest {
+
+    private static final String[] POLICIES = {"fcfs", "sjf", "priority", "rr"};
+
+    @Test
+    void oneCpuMatchesPolicy() {
+        Random rnd = new Random(13);
+        for (int run = 0; run < 200; run++) {
+            JobTable jobs = Schedules.random(rnd, 1 + rnd.nextInt(60), 150, 20, 5);
+            for (String name : POLICIES) {
+                SchedulerEngine policy = SchedulerEngine.forName(name, 1 + rnd.nextInt(5));
+                JobTable expected = jobs.fork();
+                SimulationResult single = policy.run(expected);
+                for (SmpEngine.Balancer balancer : SmpEngine.Balancer.values()) {
+                    JobTable input = jobs.fork();
+                    SimulationResult smp = new SmpEngine(policy, 1, balancer, SmpEngine.Affinity.HARD).run(input);
+                    String what = policy.name() + " " + balancer + " on\n" + Schedules.describe(jobs);
+                    assertArrayEquals(expected.end, input.end, what);
+                    assertEquals(Schedules.describe(Schedules.slices(single.timeline)),
+                            Schedules.describe(Schedules.slices(smp.timeline)), what);
+                }
+            }
+        }
+    }
+
+    @Test
+    void schedulesAreValid() {
+        Random rnd = new Random(14);
+        for (int run = 0; run < 200; run++) {
+            JobTable jobs = Schedules.random(rnd, 1 + rnd.nextInt(60), 100, 20, 5);
+            for (String name : POLICIES) {
+                SchedulerEngine policy = SchedulerEngine.forName(name, 1 + rnd.nextInt(5));
+                for (int cores = 2; cores <= 4; cores++) {
+                    for (SmpEngine.Balancer balancer : SmpEngine.Balancer.values()) {
+                        for (SmpEngine.Affinity affinity : SmpEngine.Affinity.values()) {
+                            JobTable input = jobs.fork();
+                            SmpResult r = (SmpResult) new SmpEngine(policy, cores, balancer, affinity).run(input);
+                            String what = policy.name() + " on " + cores + " " + balancer + " " + affinity + " on\n"
+                                    + Schedules.describe(jobs);
+                            check(jobs, input.end, r, balancer == SmpEngine.Balancer.GLOBAL || affinity != SmpEngine.Affinity.HARD, what);
+                            if (balancer == SmpEngine.Balancer.STEALING && affinity == SmpEngine.Affinity.HARD) {
+                                assertEquals(0, r.migrations, what);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void idleCoreStealsFromTheTail() {
+        // Arrivals alternate between the cores: core 0 queues A, C, E and core 1 B, D
+        JobTable jobs = new JobTable();
+        jobs.add("A", 0, 10, 0);
+        jobs.add("B", 0, 1, 0);
+        jobs.add("C", 0, 5, 0);
+        jobs.add("D", 0, 3, 0);
+        jobs.add("E", 0, 2, 0);
+        SmpResult r = (SmpResult) new SmpEngine(new FcfsEngine(), 2, SmpEngine.Balancer.STEALING, SmpEngine.Affinity.NONE)
+                .run(jobs);
+        // Core 1 runs B and D, then steals E from the tail of core 0's queue, then C
+        assertArrayEquals(new int[]{10, 1, 11, 4, 6}, Arrays.copyOf(jobs.end, 5));
+        assertEquals(0, r.steals[0]);
+        assertEquals(2, r.steals[1]);
+    }
+
+    // Runs every job's burst on one core at a time, with the finish time at the end of its
+    // last slice; when conserving, the number of busy cores at every instant is the number of
+    // unfinished jobs that arrived, up to the core count
+    private static void check(JobTable jobs, int[] end, SmpResult r, boolean conserving, String what) {
+        int n = jobs.size(), cores = r.lanes().length;
+        int makespan = r.makespan();
+        int[][] owner = new int[cores][makespan];
+        for (int c = 0; c < cores; c++) {
+            Arrays.fill(owner[c], Timeline.IDLE);
+            for (Timeline.Cursor cur = r.lanes()[c].cursor(); cur.next(); ) {
+                for (int t = cur.start(); t < cur.end(); t++) owner[c][t] = cur.owner();
+            }
+        }
+        int[] ran = new int[n], last = new int[n];
+        for (int t = 0; t < makespan; t++) {
+            int busy = 0;
+            boolean[] seen = new boolean[n];
+            for (int c = 0; c < cores; c++) {
+                int j = owner[c][t];
+                if (j == Timeline.IDLE) continue;
+                assertTrue(!seen[j] && jobs.arrival[j] <= t, what + "\njob " + j + " at " + t);
+                seen[j] = true;
+                ran[j]++;
+                last[j] = t + 1;
+                busy++;
+            }
+            if (conserving) {
+                int active = 0;
+                for (int j = 0; j < n; j++) {
+                    if (jobs.arrival[j] <= t && t < end[j]) active++;
+                }
+                assertEquals(Math.min(cores, active), busy, what + "\nbusy cores at " + t);
+            }
+        }
+        assertArrayEquals(Arrays.copyOf(jobs.burst, n), ran, what);
+        assertArrayEquals(Arrays.copyOf(end, n), last, what);
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The trace parser, mapped from a file and read from a stream, must give the jobs the
+// editor's line parser gives for the same text, and reject the same lines with the same
+// line numbers.
+class TraceParserTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void matchesLineParser() throws IOException {
+        Random rnd = new Random(3);
+        for (int run = 0; run < 50; run++) {
+            StringBuilder text = new StringBuilder();
+            int lines = rnd.nextInt(200);
+            for (int i = 0; i < lines; i++) {
+                if (rnd.nextInt(10) == 0) {
+                    text.append(rnd.nextBoolean() ? "" : " \t ");
+                } else {
+                    String sp = rnd.nextBoolean() ? " " : "";
+                    text.append(sp).append("J").append(i).append(sp).append(',').append(sp).append(rnd.nextInt(1000))
+                            .append(',').append(sp).append(1 + rnd.nextInt(50)).append(',').append(sp)
+                            .append(rnd.nextInt(20) - 5).append(rnd.nextInt(5) == 0 ? ", extra" : "");
+                }
+                // Windows line ends and a last line without one
+                if (i < lines - 1 || rnd.nextBoolean()) text.append(rnd.nextInt(4) == 0 ? "\r\n" : "\n");
+            }
+            String expected = viaLineParser(text.toString());
+            assertEquals(expected, viaFile(text.toString()), text.toString());
+            assertEquals(expected, viaStream(text.toString()), text.toString());
+        }
+    }
+
+    @Test
+    void extremeNumbers() throws IOException {
+        String text = "A, -2147483648, 2147483647, +7\n";
+        assertEquals("A -2147483648 2147483647 7\n", viaFile(text));
+        assertEquals("A -2147483648 2147483647 7\n", viaStream(text));
+        assertEquals(2, error("A, 0, 1, 0\nB, 2147483648, 1, 0\n").line);
+        assertEquals(1, error("A, 0, 1x, 0\n").line);
+        assertEquals(1, error("A, 0, -, 0\n").line);
+    }
+
+    @Test
+    void rejectsBadLinesWithTheirNumber() throws IOException {
+        assertEquals(3, error("A, 0, 1, 0\n\nB, 1, 2\n").line);
+        assertEquals(2, error("A, 0, 1, 0\nno commas here\n").line);
+
+        // A burst must be positive, as in the editor
+        for (String burst : new String[]{"0", "-4", "-2147483648"}) {
+            String text = "A, 0, 3, 0\n\nB, 1, " + burst + ", 2\nC, 2, 1, 0";
+            InputFormatException e = error(text);
+            assertEquals(3, e.line);
+            assertTrue(e.getMessage().contains(JobParser.BAD_BURST), e.getMessage());
+            InputFormatException line = assertThrows(InputFormatException.class, () -> viaLineParser(text));
+            assertEquals(e.getMessage(), line.getMessage());
+        }
+    }
+
+    // The same error from the file and the stream parser
+    private InputFormatException error(String text) throws IOException {
+        InputFormatException fromFile = assertThrows(InputFormatException.class, () -> viaFile(text));
+        InputFormatException fromStream = assertThrows(InputFormatException.class, () -> viaStream(text));
+        assertEquals(fromFile.getMessage(), fromStream.getMessage());
+        return fromFile;
+    }
+
+    private String viaFile(String text) throws IOException {
+        File f = new File(dir, "trace.txt");
+        Files.write(f.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        List<String> jobs = new ArrayList<>();
+        long n = TraceParser.parse(f, collect(jobs));
+        assertEquals(jobs.size(), n);
+        return String.join("", jobs);
+    }
+
+    private static String viaStream(String text) throws IOException {
+        List<String> jobs = new ArrayList<>();
+        long n = TraceParser.parse(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), collect(jobs), () -> { });
+        assertEquals(jobs.size(), n);
+        return String.join("", jobs);
+    }
+
+    private static String viaLineParser(String text) {
+        List<String> jobs = new ArrayList<>();
+        String[] lines = text.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) JobParser.parseLine(lines[i], i + 1, collect(jobs));
+        return String.join("", jobs);
+    }
+
+    private static JobSink collect(List<String> jobs) {
+        return (name, arrival, burst, level) -> jobs.add(name + " " + arrival + " " + burst + " " + level + "\n");
+    }
+}